@@ -0,0 +1,58 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import com.alibaba.dashscope.aigc.generation.GenerationResult;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.aliyun.dashscope.util.ApiUtils;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiUtilsBenchmark {
+
+    @Param({ "1", "20", "200" })
+    int turns;
+
+    private List<Message> messages;
+
+    private GenerationResult completion;
+
+    private AliyunAiDashscopeChatOptions options;
+
+    @Setup
+    public void setup() {
+        this.messages = BenchmarkFixtures.conversation(turns);
+        this.completion = BenchmarkFixtures.completion("先将鸡蛋打散炒熟盛出，再炒西红柿，最后混合翻炒调味。");
+        this.options = AliyunAiDashscopeChatOptions.builder()
+                .withModel("qwen-turbo")
+                .withTemperature(0.8f)
+                .withTopP(0.8f)
+                .withMaxTokens(1500)
+                .withStop(List.of("<|endoftext|>"))
+                .build();
+    }
+
+    @Benchmark
+    public List<com.alibaba.dashscope.common.Message> toConversationMessage() {
+        return ApiUtils.toConversationMessage(this.messages);
+    }
+
+    @Benchmark
+    public ChatResponse toChatCompletion() {
+        return ApiUtils.toChatCompletion(this.completion);
+    }
+
+    @Benchmark
+    public Map<String, Object> chatOptionsToMap() {
+        return this.options.toMap();
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import com.alibaba.dashscope.aigc.generation.GenerationResult;
+import com.alibaba.dashscope.utils.JsonUtils;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Canned conversations and {@link GenerationResult}s so the benchmarks run offline.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<Message> conversation(int turns) {
+        List<Message> messages = new ArrayList<>(turns * 2 + 1);
+        messages.add(new SystemMessage("You are a helpful assistant."));
+        for (int i = 0; i < turns; i++) {
+            messages.add(new UserMessage("如何做西红柿炒鸡蛋？第 " + i + " 轮"));
+            messages.add(new AssistantMessage("先将鸡蛋打散炒熟盛出，再炒西红柿，最后混合翻炒调味。第 " + i + " 轮"));
+        }
+        return messages;
+    }
+
+    static GenerationResult completion(String content) {
+        return JsonUtils.fromJson("""
+                {
+                  "requestId": "5c8e4c3a-8d2f-9b1a-a0c4-3f6e2d1b7a90",
+                  "usage": {"input_tokens": 32, "output_tokens": 128, "total_tokens": 160},
+                  "output": {
+                    "choices": [
+                      {"finish_reason": "stop", "message": {"role": "assistant", "content": %s}}
+                    ]
+                  }
+                }
+                """.formatted(JsonUtils.toJson(content)), GenerationResult.class);
+    }
+
+    static List<GenerationResult> streamChunks(int count) {
+        List<GenerationResult> chunks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            chunks.add(completion("分片" + i));
+        }
+        return chunks;
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import com.alibaba.dashscope.aigc.generation.Generation;
+import com.alibaba.dashscope.aigc.generation.GenerationParam;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatRequestBenchmark {
+
+    @Param({ "1", "20" })
+    int turns;
+
+    private AliyunAiDashscopeChatClient chatClient;
+
+    private Prompt prompt;
+
+    private Prompt promptWithOptions;
+
+    @Setup
+    public void setup() {
+        this.chatClient = new AliyunAiDashscopeChatClient(new Generation(), AliyunAiDashscopeChatOptions.builder()
+                .withModel("qwen-turbo")
+                .withTemperature(0.8f)
+                .withTopP(0.8f)
+                .build());
+        this.prompt = new Prompt(BenchmarkFixtures.conversation(turns));
+        this.promptWithOptions = new Prompt(BenchmarkFixtures.conversation(turns), AliyunAiDashscopeChatOptions.builder()
+                .withModel("qwen-plus")
+                .withSeed(42)
+                .withMaxTokens(1500)
+                .build());
+    }
+
+    @Benchmark
+    public GenerationParam createRequest() {
+        return this.chatClient.createRequest(this.prompt);
+    }
+
+    @Benchmark
+    public GenerationParam createRequestWithRuntimeOptions() {
+        return this.chatClient.createRequest(this.promptWithOptions);
+    }
+
+}
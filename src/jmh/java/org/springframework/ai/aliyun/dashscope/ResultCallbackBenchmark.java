@@ -0,0 +1,55 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import com.alibaba.dashscope.aigc.generation.GenerationResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.ai.chat.ChatResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultCallbackBenchmark {
+
+    @Param({ "100" })
+    int chunks;
+
+    private List<GenerationResult> stream;
+
+    private AliyunAiDashscopeResultCallback callback;
+
+    private Disposable subscription;
+
+    private long received;
+
+    @Setup
+    public void setup() {
+        this.stream = BenchmarkFixtures.streamChunks(chunks);
+        AtomicReference<FluxSink<ChatResponse>> sink = new AtomicReference<>();
+        this.subscription = Flux.<ChatResponse>create(sink::set).subscribe(response -> this.received++);
+        this.callback = new AliyunAiDashscopeResultCallback(sink.get());
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.subscription.dispose();
+    }
+
+    @Benchmark
+    public void onEvent(Blackhole blackhole) {
+        for (GenerationResult chunk : this.stream) {
+            this.callback.onEvent(chunk);
+        }
+        blackhole.consume(this.received);
+    }
+
+}
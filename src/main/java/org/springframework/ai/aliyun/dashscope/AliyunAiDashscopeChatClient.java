@@ -2,57 +2,122 @@ package org.springframework.ai.aliyun.dashscope;
 
 import com.alibaba.dashscope.aigc.generation.GenerationParam;
 import com.alibaba.dashscope.aigc.generation.GenerationResult;
-import com.alibaba.dashscope.common.Message;
 import com.alibaba.dashscope.common.Role;
 import com.alibaba.dashscope.exception.ApiException;
 import com.alibaba.dashscope.exception.InputRequiredException;
 import com.alibaba.dashscope.exception.NoApiKeyException;
-import com.alibaba.dashscope.tools.FunctionDefinition;
 import com.alibaba.dashscope.tools.ToolCallBase;
 import com.alibaba.dashscope.tools.ToolCallFunction;
 import com.alibaba.dashscope.tools.ToolFunction;
-import com.alibaba.dashscope.utils.JsonUtils;
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.aliyun.dashscope.cache.ChatCacheKey;
+import org.springframework.ai.aliyun.dashscope.cache.ChatResponseCache;
+import org.springframework.ai.aliyun.dashscope.coalesce.SingleFlight;
+import org.springframework.ai.aliyun.dashscope.coalesce.SingleFlightFlux;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopePromptTooLargeException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+import org.springframework.ai.aliyun.dashscope.history.HistoryCompactor;
+import org.springframework.ai.aliyun.dashscope.isolation.DashscopeIsolation;
+import org.springframework.ai.aliyun.dashscope.metrics.AliyunAiDashscopeMetrics;
+import org.springframework.ai.aliyun.dashscope.ratelimit.DashscopeRateLimiter;
+import org.springframework.ai.aliyun.dashscope.retry.DashscopeErrorClassifier;
+import org.springframework.ai.aliyun.dashscope.retry.DashscopeRetry;
+import org.springframework.ai.aliyun.dashscope.session.ChatSession;
+import org.springframework.ai.aliyun.dashscope.stream.ChatResponseAggregator;
+import org.springframework.ai.aliyun.dashscope.stream.StreamTracer;
+import org.springframework.ai.aliyun.dashscope.stream.StreamingOptions;
+import org.springframework.ai.aliyun.dashscope.token.TokenEstimator;
+import org.springframework.ai.aliyun.dashscope.tool.StreamingToolCallAssembler;
+import org.springframework.ai.aliyun.dashscope.tool.ToolCallExecutor;
+import org.springframework.ai.aliyun.dashscope.tool.ToolExecutionOptions;
+import org.springframework.ai.aliyun.dashscope.tool.ToolFunctionCache;
 import org.springframework.ai.aliyun.dashscope.util.ApiUtils;
+import org.springframework.ai.aliyun.dashscope.util.DashscopeTaskExecutors;
+import org.springframework.ai.aliyun.dashscope.util.ExecutorUtils;
 import org.springframework.ai.chat.ChatClient;
 import org.springframework.ai.chat.ChatResponse;
 import org.springframework.ai.chat.Generation;
 import org.springframework.ai.chat.StreamingChatClient;
+import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.model.function.AbstractFunctionCallSupport;
+import org.springframework.ai.model.function.FunctionCallback;
 import org.springframework.ai.model.function.FunctionCallbackContext;
+import org.springframework.ai.model.function.FunctionCallingOptions;
 import org.springframework.ai.retry.RetryUtils;
-import org.springframework.beans.BeanUtils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
-
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 ;
 
 public class AliyunAiDashscopeChatClient
-        extends AbstractFunctionCallSupport<Message, GenerationParam, ResponseEntity<GenerationResult>>
-        implements ChatClient, StreamingChatClient {
+        extends AbstractFunctionCallSupport<com.alibaba.dashscope.common.Message, GenerationParam, ResponseEntity<GenerationResult>>
+        implements ChatClient, StreamingChatClient, Closeable {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
     /**
      * Default options to be used for all chat requests.
      */
     private AliyunAiDashscopeChatOptions defaultOptions;
+    /**
+     * Request settings resolved once from the default options. Changes made to the default
+     * options after construction are not picked up.
+     */
+    private final GenerationParamTemplate defaultTemplate;
+    private final Set<String> defaultEnabledFunctions;
 
     private final com.alibaba.dashscope.aigc.generation.Generation generation;
     public final RetryTemplate retryTemplate;
+    private final StreamingOptions streamingOptions;
+    private final ToolFunctionCache toolFunctionCache = new ToolFunctionCache();
+    private AliyunAiDashscopeMetrics metrics = AliyunAiDashscopeMetrics.NOOP;
+    private DashscopeRateLimiter rateLimiter = DashscopeRateLimiter.UNLIMITED;
+    private ChatResponseCache responseCache = ChatResponseCache.NONE;
+    private StreamTracer streamTracer = StreamTracer.NOOP;
+    private HistoryCompactor historyCompactor = HistoryCompactor.NONE;
+    private TokenEstimator tokenEstimator = TokenEstimator.DEFAULT;
+    private long maxInputTokens;
+    private DashscopeRetry streamRetry;
+    private DashscopeIsolation isolation = DashscopeIsolation.NONE;
+    private ToolCallExecutor toolCallExecutor = new ToolCallExecutor(ToolExecutionOptions.builder().build(), Runnable::run);
+    private Executor asyncExecutor;
+    /**
+     * Executors this client created itself because none was set, shut down on {@link #close()}.
+     */
+    private final DashscopeTaskExecutors ownedExecutors = new DashscopeTaskExecutors();
+    private boolean coalesceRequests;
+    private final SingleFlight<String, ChatResponse> callFlights = new SingleFlight<>();
+    private final SingleFlightFlux<String, ChatResponse> streamFlights = new SingleFlightFlux<>();
 
     public AliyunAiDashscopeChatClient(com.alibaba.dashscope.aigc.generation.Generation generation) {
         this(generation, AliyunAiDashscopeChatOptions.builder()
@@ -67,26 +132,81 @@ public class AliyunAiDashscopeChatClient
     }
 
     public AliyunAiDashscopeChatClient(com.alibaba.dashscope.aigc.generation.Generation generation, AliyunAiDashscopeChatOptions options, FunctionCallbackContext functionCallbackContext, RetryTemplate retryTemplate) {
+        this(generation, options, functionCallbackContext, retryTemplate, StreamingOptions.builder().build());
+    }
+
+    public AliyunAiDashscopeChatClient(com.alibaba.dashscope.aigc.generation.Generation generation, AliyunAiDashscopeChatOptions options, FunctionCallbackContext functionCallbackContext, RetryTemplate retryTemplate, StreamingOptions streamingOptions) {
         super(functionCallbackContext);
         Assert.notNull(generation, "Generation must not be null");
         Assert.notNull(options, "Options must not be null");
+        Assert.notNull(streamingOptions, "StreamingOptions must not be null");
         this.generation = generation;
         this.retryTemplate = retryTemplate;
         this.defaultOptions = options;
+        this.streamingOptions = streamingOptions;
+        this.defaultTemplate = GenerationParamTemplate.from(options);
+        this.defaultEnabledFunctions = Set.copyOf(this.handleFunctionCallbackConfigurations(options, !IS_RUNTIME_CALL));
     }
 
     @Override
     public ChatResponse call(Prompt prompt) {
+        return call(createRequest(prompt));
+    }
 
-        var request = createRequest(prompt);
+    /**
+     * Send the next turn of a session. Only the new message is converted; on success the message and the answer
+     * are added to the session.
+     * @param session the conversation so far
+     * @param message the user message of the turn
+     * @return the chat response
+     * @throws IllegalArgumentException if the message is not a user, assistant or system message
+     * @throws IllegalStateException if another turn of the session is in flight
+     */
+    public ChatResponse call(ChatSession session, Message message) {
+        var next = toTurnMessage(message);
+        session.startTurn();
+        try {
+            ChatResponse response = call(createRequest(session, next, false));
+            session.complete(next, response);
+            return response;
+        } finally {
+            session.endTurn();
+        }
+    }
 
+    private ChatResponse call(GenerationParam request) {
+
+        // A cached answer would skip the side effects of the tool calls behind it.
+        String cacheKey = CollectionUtils.isEmpty(request.getTools()) && this.responseCache.isCacheable(request)
+                ? ChatCacheKey.of(request) : null;
+        if (cacheKey != null) {
+            ChatResponse cached = this.responseCache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ChatResponse response = this.coalesceRequests && CollectionUtils.isEmpty(request.getTools())
+                ? this.callFlights.execute(cacheKey != null ? cacheKey : ChatCacheKey.of(request), () -> doCall(request))
+                : doCall(request);
+
+        if (cacheKey != null && !CollectionUtils.isEmpty(response.getResults())) {
+            this.responseCache.put(cacheKey, response);
+        }
+        return response;
+    }
+
+    private ChatResponse doCall(GenerationParam request) {
         return retryTemplate.execute(ctx -> {
 
+            if (ctx.getRetryCount() > 0) {
+                this.metrics.recordRetry(request.getModel(), AliyunAiDashscopeMetrics.OPERATION_CHAT);
+            }
             ResponseEntity<GenerationResult> completionEntity = this.callWithFunctionSupport(request);
 
             var chatCompletion = completionEntity.getBody();
             if (chatCompletion == null) {
-                log.warn("No chat completion returned for prompt: {}", prompt);
+                log.warn("No chat completion returned for request to model: {}", request.getModel());
                 return new ChatResponse(List.of());
             }
 
@@ -99,71 +219,585 @@ public class AliyunAiDashscopeChatClient
         });
     }
 
+    /**
+     * Non-blocking variant of {@link #call(Prompt)}. The call, including its retries and the function-calling
+     * loop, runs on the async executor, which uses a virtual thread per call on Java 21+.
+     * @param prompt the prompt
+     * @return the future chat response
+     */
+    public CompletableFuture<ChatResponse> callAsync(Prompt prompt) {
+        return CompletableFuture.supplyAsync(() -> call(prompt), asyncExecutor());
+    }
+
+    /**
+     * Stream the answer as deltas: incremental output is always requested, so each chunk carries only the text
+     * generated since the previous one. Use
+     * {@link org.springframework.ai.aliyun.dashscope.stream.ChatResponseAggregator} to rebuild the full message.
+     * When functions are enabled, tool calls are assembled from the stream, executed, and the follow-up turn is
+     * streamed into the same {@link Flux}. Chunks are still emitted as they arrive, except the rest of a turn once
+     * it starts calling tools.
+     */
     @Override
     public Flux<ChatResponse> stream(Prompt prompt) {
-        var request = createRequest(prompt);
-        return retryTemplate.execute(ctx -> Flux.create(sink -> {
+        Mono<GenerationParam> request = Mono.fromSupplier(() -> createRequest(prompt, true));
+        if (this.historyCompactor != HistoryCompactor.NONE) {
+            // Compaction may block on a summarizer model call, keep it off the subscriber's thread.
+            request = request.subscribeOn(Schedulers.boundedElastic());
+        }
+        return request.flatMapMany(this::stream);
+    }
+
+    /**
+     * Stream the next turn of a session. Once the stream completes, the message and the aggregated answer are added
+     * to the session. The turn lasts from the subscription until the stream terminates or is cancelled.
+     * @param session the conversation so far
+     * @param message the user message of the turn
+     * @return the answer deltas, failing with {@link IllegalStateException} if another turn of the session is in
+     * flight on subscription
+     * @throws IllegalArgumentException if the message is not a user, assistant or system message
+     */
+    public Flux<ChatResponse> stream(ChatSession session, Message message) {
+        var next = toTurnMessage(message);
+        // The eager cleanup ends the turn before the subscriber sees completion, so it can start the next one.
+        return Flux.using(() -> {
+                    session.startTurn();
+                    return session;
+                },
+                turn -> ChatResponseAggregator.aggregate(stream(createRequest(turn, next, true)), answer -> turn.complete(next, answer)),
+                ChatSession::endTurn);
+    }
+
+    private static com.alibaba.dashscope.common.Message toTurnMessage(Message message) {
+        Assert.isTrue(message != null && ApiUtils.isSessionMessage(message),
+                () -> "A session turn takes a user, assistant or system message, got: " + message);
+        return ApiUtils.toConversationMessage(message);
+    }
+
+    private Flux<ChatResponse> stream(GenerationParam request) {
+        Flux<ChatResponse> chunks;
+        if (!CollectionUtils.isEmpty(request.getTools())) {
+            chunks = streamWithTools(request);
+        }
+        else if (this.coalesceRequests) {
+            Flux<ChatResponse> upstream = resilientStream(request, doStream(request), AliyunAiDashscopeChatClient::chunkUsage);
+            chunks = this.streamFlights.share(ChatCacheKey.of(request), () -> upstream);
+        }
+        else {
+            chunks = resilientStream(request, doStream(request), AliyunAiDashscopeChatClient::chunkUsage);
+        }
+        return traced(request.getModel(), chunks).onBackpressureBuffer(streamingOptions.getBufferSize(),
+                dropped -> log.warn("Stream buffer of {} chunks is full, applying {}", streamingOptions.getBufferSize(), streamingOptions.getOverflowStrategy()),
+                streamingOptions.getOverflowStrategy());
+    }
+
+    private Flux<ChatResponse> traced(String model, Flux<ChatResponse> chunks) {
+        if (this.streamTracer == StreamTracer.NOOP) {
+            return chunks;
+        }
+        return Flux.deferContextual(context -> {
+            StreamTracer.Trace trace = this.streamTracer.start(model, context.getOrDefault(StreamTracer.PAYLOAD_CONTEXT_KEY, Boolean.FALSE));
+            if (trace == null) {
+                return chunks;
+            }
+            return chunks.doOnNext(trace::onChunk)
+                    .doOnComplete(trace::onComplete)
+                    .doOnError(trace::onError)
+                    .doOnCancel(trace::onCancel);
+        });
+    }
+
+    /**
+     * Rate limit, instrument and retry one upstream stream.
+     */
+    private <T> Flux<T> resilientStream(GenerationParam request, Flux<T> upstream, Function<T, Usage> usageOf) {
+        var model = request.getModel();
+        return Flux.defer(() -> {
+            // Retrying after the first chunk would replay tokens the subscriber has already seen.
+            AtomicBoolean firstChunkReceived = new AtomicBoolean();
+            Predicate<Throwable> retryable = e -> !firstChunkReceived.get() && DashscopeErrorClassifier.isRetryable(e);
+            Retry retry = this.streamRetry != null
+                    ? this.streamRetry.reactorRetry(retryable, e -> this.metrics.recordRetry(model, AliyunAiDashscopeMetrics.OPERATION_STREAM))
+                    : Retry.backoff(Math.max(0, streamingOptions.getMaxAttempts() - 1), streamingOptions.getInitialBackoff())
+                            .maxBackoff(streamingOptions.getMaxBackoff())
+                            .filter(retryable)
+                            .doBeforeRetry(signal -> this.metrics.recordRetry(model, AliyunAiDashscopeMetrics.OPERATION_STREAM))
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+            return isolated(request, upstream, usageOf)
+                    .transform(chunks -> instrumentStream(model, chunks, usageOf))
+                    .doOnNext(chunk -> firstChunkReceived.set(true))
+                    .retryWhen(retry);
+        });
+    }
+
+    private Flux<ChatResponse> doStream(GenerationParam request) {
+        return Flux.create(sink -> {
+            AliyunAiDashscopeResultCallback callback = new AliyunAiDashscopeResultCallback(sink);
+            Flowable<GenerationResult> upstream;
             try {
-                generation.streamCall(request, new AliyunAiDashscopeResultCallback(sink));
+                upstream = generation.streamCall(request);
             } catch (ApiException | NoApiKeyException | InputRequiredException e) {
                 sink.error(e);
+                return;
             }
-        }));
+            // Cancelling or disposing the Flux closes the DashScope SSE connection.
+            Disposable subscription = upstream.subscribe(callback::onEvent,
+                    e -> callback.onError(e instanceof Exception ex ? ex : new RuntimeException(e)),
+                    callback::onComplete);
+            sink.onDispose(subscription::dispose);
+        });
     }
 
     /**
-     * Accessible for testing.
+     * The raw chunks of one streamed turn, as needed to see tool-call deltas.
      */
-    GenerationParam createRequest(Prompt prompt) {
+    private Flux<GenerationResult> doStreamResults(GenerationParam request) {
+        return Flux.defer(() -> {
+            try {
+                return Flux.from(generation.streamCall(request));
+            } catch (ApiException | NoApiKeyException | InputRequiredException e) {
+                return Flux.error(e);
+            }
+        });
+    }
 
-        Set<String> functionsForThisRequest = new HashSet<>();
+    /**
+     * Stream one turn. Tool calls are started as soon as their arguments are complete, on a worker of
+     * {@link Schedulers#boundedElastic()} so that the tools never run on the SDK's stream thread. Chunks are
+     * emitted as they arrive until the first tool-call delta of the turn; the rest of that turn is dropped and the
+     * conversation continues with the tool responses. Subscribers therefore see the final answer as it is
+     * generated, plus any text a turn produced before it started calling tools.
+     */
+    private Flux<ChatResponse> streamWithTools(GenerationParam request) {
+        return Flux.defer(() -> {
+            ToolCallExecutor.Round round = this.toolCallExecutor.newRound();
+            // One worker per turn keeps the submissions in order.
+            Scheduler toolScheduler = Schedulers.single(Schedulers.boundedElastic());
+            StreamingToolCallAssembler assembler = new StreamingToolCallAssembler(toolCall -> {
+                ToolCallExecutor.ToolCall call = toToolCall(request.getModel(), toolCall);
+                toolScheduler.schedule(() -> round.submit(call));
+            });
+            StringBuilder content = new StringBuilder();
+            Flux<ChatResponse> turn = resilientStream(request, doStreamResults(request), AliyunAiDashscopeChatClient::resultUsage)
+                    .handle((result, sink) -> {
+                        if (result.getOutput() == null || CollectionUtils.isEmpty(result.getOutput().getChoices())) {
+                            return;
+                        }
+                        var message = result.getOutput().getChoices().get(0).getMessage();
+                        if (!CollectionUtils.isEmpty(message.getToolCalls())) {
+                            assembler.append(message.getToolCalls());
+                        }
+                        if (StringUtils.hasLength(message.getContent())) {
+                            content.append(message.getContent());
+                        }
+                        if (!assembler.hasToolCalls()) {
+                            sink.next(ApiUtils.toChatCompletion(result));
+                        }
+                    });
+            Flux<ChatResponse> next = Flux.defer(() -> {
+                if (!assembler.hasToolCalls()) {
+                    return Flux.empty();
+                }
+                List<ToolCallFunction> toolCalls = assembler.finish();
+                this.metrics.recordToolCallRound(request.getModel());
+                // Scheduled after the submissions, so the round holds every call of the turn.
+                return Mono.fromCallable(round::whenComplete)
+                        .subscribeOn(toolScheduler)
+                        .flatMap(Mono::fromFuture)
+                        .flatMapMany(responses -> streamWithTools(createToolResponseRequest(request, content.toString(), toolCalls, responses)));
+            });
+            return turn.concatWith(next).doFinally(signal -> {
+                if (signal != SignalType.ON_COMPLETE) {
+                    // Upstream errors and cancellation both stop the tools still running.
+                    round.cancel();
+                }
+                toolScheduler.dispose();
+            });
+        });
+    }
 
-        var request = GenerationParam.builder()
-                .messages(ApiUtils.toConversationMessage(prompt.getInstructions()))
-                .resultFormat(GenerationParam.ResultFormat.MESSAGE)
-                .build();
+    private ToolCallExecutor.ToolCall toToolCall(String model, ToolCallFunction toolCall) {
+        var functionName = toolCall.getFunction().getName();
+        if (!this.functionCallbackRegister.containsKey(functionName)) {
+            throw new IllegalStateException("No function callback found for function name: " + functionName);
+        }
+        var functionCallback = this.functionCallbackRegister.get(functionName);
+        return new ToolCallExecutor.ToolCall(toolCall.getId(), functionName, toolCall.getFunction().getArguments(),
+                arguments -> callFunction(model, functionCallback, arguments));
+    }
 
-        if (this.defaultOptions != null) {
-            Set<String> defaultEnabledFunctions = this.handleFunctionCallbackConfigurations(this.defaultOptions,
-                    !IS_RUNTIME_CALL);
-            functionsForThisRequest.addAll(defaultEnabledFunctions);
-            BeanUtils.copyProperties(this.defaultOptions, request);
+    private GenerationParam createToolResponseRequest(GenerationParam previousRequest, String content, List<ToolCallFunction> toolCalls,
+                                                      List<String> functionResponses) {
+        List<com.alibaba.dashscope.common.Message> conversationHistory = new ArrayList<>(previousRequest.getMessages());
+        conversationHistory.add(com.alibaba.dashscope.common.Message.builder()
+                .role(Role.ASSISTANT.getValue())
+                .content(content)
+                .toolCalls(new ArrayList<ToolCallBase>(toolCalls))
+                .build());
+        for (int i = 0; i < toolCalls.size(); i++) {
+            conversationHistory.add(com.alibaba.dashscope.common.Message.builder()
+                    .toolCallId(toolCalls.get(i).getId())
+                    .name(toolCalls.get(i).getFunction().getName())
+                    .role(Role.TOOL.getValue())
+                    .content(functionResponses.get(i)).build());
         }
+        return GenerationParamTemplate.copy(previousRequest, conversationHistory);
+    }
 
-        if (prompt.getOptions() != null) {
-            if (prompt.getOptions() instanceof ChatOptions runtimeOptions) {
-                var updatedRuntimeOptions = ModelOptionsUtils.copyToTarget(runtimeOptions, ChatOptions.class,
-                        AliyunAiDashscopeChatOptions.class);
+    private static Usage chunkUsage(ChatResponse chunk) {
+        return chunk.getMetadata() != null ? chunk.getMetadata().getUsage() : null;
+    }
 
-                Set<String> promptEnabledFunctions = this.handleFunctionCallbackConfigurations(updatedRuntimeOptions,
-                        IS_RUNTIME_CALL);
-                functionsForThisRequest.addAll(promptEnabledFunctions);
+    private static Usage resultUsage(GenerationResult chunk) {
+        return chunk.getUsage() != null ? ApiUtils.extractUsage(chunk) : null;
+    }
+
+    /**
+     * Hold a bulkhead slot of the model for the lifetime of the rate-limited upstream stream. The slot is taken
+     * before the rate limiter is asked, so calls rejected by an open circuit use no rate-limit tokens, and on
+     * {@code boundedElastic}, as the bulkhead may wait for a free slot. The circuit breaker is fed the time from
+     * subscribing to the upstream stream to its first chunk, as the full duration of a stream depends on the length
+     * of the answer.
+     */
+    private <T> Flux<T> isolated(GenerationParam request, Flux<T> upstream, Function<T, Usage> usageOf) {
+        if (this.isolation == DashscopeIsolation.NONE) {
+            return rateLimited(request, upstream, usageOf);
+        }
+        var model = request.getModel();
+        return Mono.fromCallable(() -> this.isolation.acquire(model))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(permit -> {
+                    AtomicLong start = new AtomicLong();
+                    AtomicLong firstChunk = new AtomicLong();
+                    AtomicReference<Throwable> failure = new AtomicReference<>();
+                    Flux<T> timed = upstream
+                            .doOnSubscribe(subscription -> start.set(System.nanoTime()))
+                            .doOnNext(chunk -> firstChunk.compareAndSet(0, System.nanoTime()));
+                    return rateLimited(request, timed, usageOf)
+                            .doOnError(failure::set)
+                            .doFinally(signal -> {
+                                long now = System.nanoTime();
+                                long begin = start.get() != 0 ? start.get() : now;
+                                long end = firstChunk.get() != 0 ? firstChunk.get() : now;
+                                permit.complete(Duration.ofNanos(end - begin), failure.get());
+                            });
+                });
+    }
 
-                BeanUtils.copyProperties(updatedRuntimeOptions, request);
+    /**
+     * Delay the subscription to the upstream stream until the rate limiter admits it, without blocking. A stream
+     * cancelled while waiting gives its reservation back.
+     */
+    private <T> Flux<T> rateLimited(GenerationParam request, Flux<T> chunks, Function<T, Usage> usageOf) {
+        if (this.rateLimiter == DashscopeRateLimiter.UNLIMITED) {
+            return chunks;
+        }
+        var model = request.getModel();
+        long estimatedTokens = estimateTokens(request);
+        AtomicReference<T> lastResponse = new AtomicReference<>();
+        return Mono.fromCallable(() -> this.rateLimiter.reserve(model, estimatedTokens))
+                .flatMapMany(waitNanos -> waitNanos > 0
+                        ? Mono.delay(Duration.ofNanos(waitNanos))
+                                .doOnCancel(() -> this.rateLimiter.release(model, estimatedTokens))
+                                .thenMany(chunks)
+                        : chunks)
+                .doOnNext(lastResponse::set)
+                .doOnComplete(() -> {
+                    T last = lastResponse.get();
+                    Usage usage = last != null ? usageOf.apply(last) : null;
+                    long actualTokens = usage != null ? Objects.requireNonNullElse(usage.getTotalTokens(), 0L) : 0;
+                    this.rateLimiter.onSuccess(model, estimatedTokens, actualTokens);
+                })
+                .doOnError(e -> {
+                    if (DashscopeErrorClassifier.isThrottled(e)) {
+                        this.rateLimiter.onThrottled(model);
+                    }
+                });
+    }
+
+    /**
+     * Record time-to-first-token, inter-token latency, request latency and the usage of the last chunk of one
+     * upstream stream.
+     */
+    private <T> Flux<T> instrumentStream(String model, Flux<T> chunks, Function<T, Usage> usageOf) {
+        if (this.metrics == AliyunAiDashscopeMetrics.NOOP) {
+            return chunks;
+        }
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong lastChunk = new AtomicLong();
+            AtomicReference<T> lastResponse = new AtomicReference<>();
+            return chunks
+                    .doOnNext(chunk -> {
+                        long now = System.nanoTime();
+                        long previous = lastChunk.getAndSet(now);
+                        if (previous == 0) {
+                            this.metrics.recordTimeToFirstToken(model, Duration.ofNanos(now - start));
+                        }
+                        else {
+                            this.metrics.recordInterTokenLatency(model, Duration.ofNanos(now - previous));
+                        }
+                        lastResponse.set(chunk);
+                    })
+                    .doOnComplete(() -> {
+                        this.metrics.recordRequest(model, AliyunAiDashscopeMetrics.OPERATION_STREAM, Duration.ofNanos(System.nanoTime() - start), true);
+                        T last = lastResponse.get();
+                        Usage usage = last != null ? usageOf.apply(last) : null;
+                        if (usage != null) {
+                            this.metrics.recordTokenUsage(model, AliyunAiDashscopeMetrics.OPERATION_STREAM,
+                                    Objects.requireNonNullElse(usage.getPromptTokens(), 0L), Objects.requireNonNullElse(usage.getGenerationTokens(), 0L));
+                        }
+                    })
+                    .doOnError(e -> this.metrics.recordRequest(model, AliyunAiDashscopeMetrics.OPERATION_STREAM, Duration.ofNanos(System.nanoTime() - start), false));
+        });
+    }
+
+    /**
+     * Set the executor used for the tool calls of one assistant message. Defaults to sequential execution.
+     * @param toolCallExecutor the tool call executor
+     */
+    public void setToolCallExecutor(ToolCallExecutor toolCallExecutor) {
+        Assert.notNull(toolCallExecutor, "ToolCallExecutor must not be null");
+        this.toolCallExecutor = toolCallExecutor;
+    }
+
+    /**
+     * Set the executor running {@link #callAsync(Prompt)}. Defaults to an executor created on first use with
+     * {@link ExecutorUtils#newTaskExecutor(String)} and shut down by {@link #close()}. A given executor is not shut
+     * down by this client.
+     * @param asyncExecutor the executor
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        Assert.notNull(asyncExecutor, "Executor must not be null");
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    private Executor asyncExecutor() {
+        return this.asyncExecutor != null ? this.asyncExecutor : this.ownedExecutors.get(DashscopeTaskExecutors.CHAT_ASYNC);
+    }
+
+    /**
+     * Shut down the executors this client created itself.
+     */
+    @Override
+    public void close() {
+        this.ownedExecutors.close();
+    }
+
+    /**
+     * Retry streams that fail before their first chunk with the DashScope-aware policy instead of the exponential
+     * backoff of the {@link StreamingOptions}. Blocking calls use the {@link RetryTemplate} given at construction,
+     * see {@link DashscopeRetry#retryTemplate()}.
+     * @param streamRetry the retry policy
+     */
+    public void setStreamRetry(DashscopeRetry streamRetry) {
+        Assert.notNull(streamRetry, "DashscopeRetry must not be null");
+        this.streamRetry = streamRetry;
+    }
+
+    /**
+     * Set the per-model bulkhead and circuit breaker. Defaults to {@link DashscopeIsolation#NONE}.
+     * @param isolation the isolation
+     */
+    public void setIsolation(DashscopeIsolation isolation) {
+        Assert.notNull(isolation, "DashscopeIsolation must not be null");
+        this.isolation = isolation;
+    }
+
+    /**
+     * Set the instrumentation of this client. Defaults to {@link AliyunAiDashscopeMetrics#NOOP}.
+     * @param metrics the metrics recorder
+     */
+    public void setMetrics(AliyunAiDashscopeMetrics metrics) {
+        Assert.notNull(metrics, "AliyunAiDashscopeMetrics must not be null");
+        this.metrics = metrics;
+    }
+
+    /**
+     * Set the client-side rate limiter. Defaults to {@link DashscopeRateLimiter#UNLIMITED}.
+     * @param rateLimiter the rate limiter
+     */
+    public void setRateLimiter(DashscopeRateLimiter rateLimiter) {
+        Assert.notNull(rateLimiter, "DashscopeRateLimiter must not be null");
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Set the token counter used for {@link #estimateTokens(Prompt)}, the input limit and rate limit reservations.
+     * Defaults to {@link TokenEstimator#DEFAULT}.
+     * @param tokenEstimator the token estimator
+     */
+    public void setTokenEstimator(TokenEstimator tokenEstimator) {
+        Assert.notNull(tokenEstimator, "TokenEstimator must not be null");
+        this.tokenEstimator = tokenEstimator;
+    }
+
+    /**
+     * Reject prompts whose estimated input tokens exceed the limit with a {@link DashscopePromptTooLargeException}
+     * instead of sending them. Defaults to 0, no limit.
+     * @param maxInputTokens the input token limit
+     */
+    public void setMaxInputTokens(long maxInputTokens) {
+        Assert.isTrue(maxInputTokens >= 0, "maxInputTokens must not be negative");
+        this.maxInputTokens = maxInputTokens;
+    }
+
+    /**
+     * Set the compaction applied to the prompt messages before each request. Defaults to {@link HistoryCompactor#NONE}.
+     * @param historyCompactor the history compactor
+     */
+    public void setHistoryCompactor(HistoryCompactor historyCompactor) {
+        Assert.notNull(historyCompactor, "HistoryCompactor must not be null");
+        this.historyCompactor = historyCompactor;
+    }
+
+    /**
+     * Set the tracer of streamed responses. Defaults to {@link StreamTracer#NOOP}.
+     * @param streamTracer the stream tracer
+     */
+    public void setStreamTracer(StreamTracer streamTracer) {
+        Assert.notNull(streamTracer, "StreamTracer must not be null");
+        this.streamTracer = streamTracer;
+    }
+
+    /**
+     * Share one upstream call, or one stream, between concurrent identical requests: same messages and same
+     * effective options. Requests with functions are never coalesced, so that every caller runs its own tool calls.
+     * Defaults to false.
+     * @param coalesceRequests whether to coalesce identical in-flight requests
+     */
+    public void setCoalesceRequests(boolean coalesceRequests) {
+        this.coalesceRequests = coalesceRequests;
+    }
+
+    /**
+     * Set the cache of blocking {@link #call(Prompt)} responses. Defaults to {@link ChatResponseCache#NONE}.
+     * @param responseCache the response cache
+     */
+    public void setResponseCache(ChatResponseCache responseCache) {
+        Assert.notNull(responseCache, "ChatResponseCache must not be null");
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Accessible for testing.
+     */
+    GenerationParam createRequest(Prompt prompt) {
+        return createRequest(prompt, false);
+    }
+
+    GenerationParam createRequest(Prompt prompt, boolean stream) {
+
+        ChatOptions runtimeOptions = null;
+        if (prompt.getOptions() != null) {
+            if (prompt.getOptions() instanceof ChatOptions chatOptions) {
+                runtimeOptions = chatOptions;
             }
             else {
                 throw new IllegalArgumentException("Prompt options are not of type ChatOptions: "
                         + prompt.getOptions().getClass().getSimpleName());
             }
         }
+        GenerationParamTemplate template = resolveTemplate(runtimeOptions, stream);
+
+        List<Message> instructions = this.historyCompactor.compact(template.model(), prompt.getInstructions());
+        return checkInputLimit(template.build(ApiUtils.toConversationMessage(instructions)));
+    }
+
+    GenerationParam createRequest(ChatSession session, com.alibaba.dashscope.common.Message next, boolean stream) {
+        GenerationParamTemplate template = resolveTemplate(session.getOptions(), stream);
+        return checkInputLimit(template.build(session.conversation(next)));
+    }
+
+    private GenerationParamTemplate resolveTemplate(ChatOptions runtimeOptions, boolean stream) {
+
+        GenerationParamTemplate template = this.defaultTemplate;
+        Set<String> functionsForThisRequest = new HashSet<>(this.defaultEnabledFunctions);
+
+        if (runtimeOptions != null) {
+            template = template.merge(runtimeOptions);
+            if (runtimeOptions instanceof FunctionCallingOptions functionCallingOptions) {
+                Set<String> promptEnabledFunctions = this.handleFunctionCallbackConfigurations(functionCallingOptions,
+                        IS_RUNTIME_CALL);
+                functionsForThisRequest.addAll(promptEnabledFunctions);
+            }
+        }
 
         // Add the enabled functions definitions to the request's tools parameter.
         if (!CollectionUtils.isEmpty(functionsForThisRequest)) {
-            BeanUtils.copyProperties(AliyunAiDashscopeChatOptions.builder().withTools(this.getFunctionTools(functionsForThisRequest)).build(), request);
+            template = template.withTools(this.getFunctionTools(functionsForThisRequest));
         }
 
+        // Full-text chunks would resend the whole answer on every event.
+        if (stream) {
+            template = template.withIncrementalOutput(true);
+        }
+        return template;
+    }
+
+    private GenerationParam checkInputLimit(GenerationParam request) {
+        if (this.maxInputTokens > 0) {
+            long inputTokens = estimateInputTokens(request);
+            if (inputTokens > this.maxInputTokens) {
+                throw new DashscopePromptTooLargeException(inputTokens, this.maxInputTokens);
+            }
+        }
         return request;
     }
 
+    /**
+     * Count the input tokens of the request the prompt would produce, after history compaction. Counting itself
+     * does not call DashScope, but a history compactor that summarizes may call its summarizer model, and then
+     * blocks for it; {@link org.springframework.ai.aliyun.dashscope.history.TokenBudgetHistoryCompactor} caches the
+     * summary, so sending the same prompt afterwards does not summarize it again.
+     * @param prompt the prompt
+     * @return the estimated number of input tokens
+     */
+    public long estimateTokens(Prompt prompt) {
+        GenerationParamTemplate template = prompt.getOptions() instanceof ChatOptions runtimeOptions
+                ? this.defaultTemplate.merge(runtimeOptions) : this.defaultTemplate;
+        List<Message> instructions = this.historyCompactor.compact(template.model(), prompt.getInstructions());
+        return estimateInputTokens(template.build(ApiUtils.toConversationMessage(instructions)));
+    }
+
+    private long estimateInputTokens(GenerationParam request) {
+        long tokens = 0;
+        if (request.getMessages() != null) {
+            for (com.alibaba.dashscope.common.Message message : request.getMessages()) {
+                tokens += this.tokenEstimator.estimate(request.getModel(), message.getContent());
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Input tokens plus the reserved output, as reserved against the rate limiter.
+     */
+    private long estimateTokens(GenerationParam request) {
+        long tokens = estimateInputTokens(request);
+        if (request.getMaxTokens() != null) {
+            tokens += request.getMaxTokens();
+        }
+        return tokens;
+    }
+
+    /**
+     * Drop the cached tool definition of every callback a runtime call registers in place of another one.
+     */
+    @Override
+    protected Set<String> handleFunctionCallbackConfigurations(FunctionCallingOptions options, boolean isRuntimeCall) {
+        if (isRuntimeCall && options != null && !CollectionUtils.isEmpty(options.getFunctionCallbacks())) {
+            for (FunctionCallback functionCallback : options.getFunctionCallbacks()) {
+                FunctionCallback registered = this.functionCallbackRegister.get(functionCallback.getName());
+                if (registered != null && registered != functionCallback) {
+                    this.toolFunctionCache.evict(functionCallback.getName());
+                }
+            }
+        }
+        return super.handleFunctionCallbackConfigurations(options, isRuntimeCall);
+    }
+
     private List<ToolFunction> getFunctionTools(Set<String> functionNames) {
-        return (List<ToolFunction>) this.resolveFunctionCallbacks(functionNames).stream().map(functionCallback -> {
-            var function = FunctionDefinition.builder()
-                    .name(functionCallback.getName())
-                    .description(functionCallback.getDescription())
-                    .parameters(StringUtils.hasText(functionCallback.getInputTypeSchema()) ? JsonUtils.parseString(functionCallback.getInputTypeSchema()).getAsJsonObject() : null)
-                    .build();
-            return ToolFunction.builder().function(function).build();
-        }).toList();
+        return this.resolveFunctionCallbacks(functionNames).stream().map(this.toolFunctionCache::get).toList();
     }
 
 
@@ -177,54 +811,100 @@ public class AliyunAiDashscopeChatClient
     public static final String QUARK_SEARCH = "quark_search";
 
     @Override
-    protected GenerationParam doCreateToolResponseRequest(GenerationParam previousRequest, Message responseMessage, List<Message> conversationHistory) {
+    protected GenerationParam doCreateToolResponseRequest(GenerationParam previousRequest, com.alibaba.dashscope.common.Message responseMessage, List<com.alibaba.dashscope.common.Message> conversationHistory) {
         // Every tool-call item requires a separate function call and a response (TOOL)
         // message.
+        List<ToolCallExecutor.ToolCall> toolCalls = new ArrayList<>();
         for (ToolCallBase toolCall : responseMessage.getToolCalls()) {
-
-            switch (toolCall.getType()) {
-                case FUNCTION:
-                    ToolCallFunction toolCallFunction = (ToolCallFunction) toolCall;
-                    var functionName = toolCallFunction.getFunction().getName();
-                    if (!this.functionCallbackRegister.containsKey(functionName)) {
-                        throw new IllegalStateException("No function callback found for function name: " + functionName);
-                    }
-                    var functionArguments = toolCallFunction.getFunction().getArguments();
-                    var functionResponse = this.functionCallbackRegister.get(functionName).call(functionArguments);
-                    var functionId = toolCallFunction.getId();
-                    // Add the function response to the conversation.
-                    conversationHistory.add(Message.builder()
-                            .toolCallId(functionId)
-                            .name(functionName)
-                            .role(Role.TOOL.getValue())
-                            .content(functionResponse).build());
+            if (FUNCTION.equals(toolCall.getType())) {
+                ToolCallFunction toolCallFunction = (ToolCallFunction) toolCall;
+                var functionName = toolCallFunction.getFunction().getName();
+                if (!this.functionCallbackRegister.containsKey(functionName)) {
+                    throw new IllegalStateException("No function callback found for function name: " + functionName);
+                }
+                var functionCallback = this.functionCallbackRegister.get(functionName);
+                toolCalls.add(new ToolCallExecutor.ToolCall(toolCallFunction.getId(), functionName,
+                        toolCallFunction.getFunction().getArguments(), arguments -> callFunction(previousRequest.getModel(), functionCallback, arguments)));
             }
         }
+        this.metrics.recordToolCallRound(previousRequest.getModel());
+
+        List<String> functionResponses = this.toolCallExecutor.execute(toolCalls);
+        for (int i = 0; i < toolCalls.size(); i++) {
+            // Add the function response to the conversation.
+            conversationHistory.add(com.alibaba.dashscope.common.Message.builder()
+                    .toolCallId(toolCalls.get(i).id())
+                    .name(toolCalls.get(i).name())
+                    .role(Role.TOOL.getValue())
+                    .content(functionResponses.get(i)).build());
+        }
 
         // Recursively call chatCompletionWithTools until the model doesn't call a
         // functions anymore.
-        GenerationParam newRequest = GenerationParam.builder().messages(conversationHistory).build();
-        BeanUtils.copyProperties(this.defaultOptions, newRequest);
+        return GenerationParamTemplate.copy(previousRequest, conversationHistory);
+    }
 
-        return newRequest;
+    private String callFunction(String model, FunctionCallback functionCallback, String arguments) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            String response = functionCallback.call(arguments);
+            success = true;
+            return response;
+        }
+        finally {
+            this.metrics.recordToolExecution(model, functionCallback.getName(), Duration.ofNanos(System.nanoTime() - start), success);
+        }
     }
 
     @Override
-    protected List<Message> doGetUserMessages(GenerationParam request) {
+    protected List<com.alibaba.dashscope.common.Message> doGetUserMessages(GenerationParam request) {
         return request.getMessages();
     }
 
     @Override
-    protected Message doGetToolResponseMessage(ResponseEntity<GenerationResult> chatCompletion) {
+    protected com.alibaba.dashscope.common.Message doGetToolResponseMessage(ResponseEntity<GenerationResult> chatCompletion) {
         return chatCompletion.getBody().getOutput().getChoices().iterator().next().getMessage();
     }
 
     @Override
     protected ResponseEntity<GenerationResult> doChatCompletion(GenerationParam request) {
+        long estimatedTokens = this.rateLimiter != DashscopeRateLimiter.UNLIMITED ? estimateTokens(request) : 0;
+        // Isolation first, so that calls rejected by an open circuit use no rate-limit tokens.
+        DashscopeIsolation.Permit permit = this.isolation.acquire(request.getModel());
+        try {
+            this.rateLimiter.acquire(request.getModel(), estimatedTokens);
+        } catch (RuntimeException e) {
+            permit.complete(Duration.ZERO, e);
+            throw e;
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        Throwable failure = null;
         try {
-            return ResponseEntity.ofNullable(generation.call(request));
+            GenerationResult result = generation.call(request);
+            success = true;
+            long actualTokens = 0;
+            if (result != null && result.getUsage() != null) {
+                var usage = ApiUtils.extractUsage(result);
+                actualTokens = usage.getTotalTokens();
+                this.metrics.recordTokenUsage(request.getModel(), AliyunAiDashscopeMetrics.OPERATION_CHAT, usage.getPromptTokens(), usage.getGenerationTokens());
+            }
+            this.rateLimiter.onSuccess(request.getModel(), estimatedTokens, actualTokens);
+            return ResponseEntity.ofNullable(result);
         } catch (ApiException | NoApiKeyException | InputRequiredException e) {
-            throw new RuntimeException(e);
+            failure = e;
+            if (DashscopeErrorClassifier.isThrottled(e)) {
+                this.rateLimiter.onThrottled(request.getModel());
+            }
+            throw new DashscopeSDKException(DashscopeErrorClassifier.describe(e), e);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            Duration latency = Duration.ofNanos(System.nanoTime() - start);
+            permit.complete(latency, failure);
+            this.metrics.recordRequest(request.getModel(), AliyunAiDashscopeMetrics.OPERATION_CHAT, latency, success);
         }
     }
 
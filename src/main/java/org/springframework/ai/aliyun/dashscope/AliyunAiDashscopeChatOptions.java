@@ -1,6 +1,7 @@
 package org.springframework.ai.aliyun.dashscope;
 
 import com.alibaba.dashscope.tools.ToolFunction;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -11,6 +12,8 @@ import org.springframework.ai.model.function.FunctionCallback;
 import org.springframework.ai.model.function.FunctionCallingOptions;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -128,24 +131,44 @@ public class AliyunAiDashscopeChatOptions implements FunctionCallingOptions, Cha
     @NestedConfigurationProperty
     private @JsonProperty("tool_choice") Object toolChoice;
 
+    /**
+     * Tool Function Callbacks to register with the ChatClient. For Prompt Options the
+     * functionCallbacks are automatically enabled for the duration of the prompt execution.
+     * For Default Options the functionCallbacks are registered but disabled by default. Use
+     * the enableFunctions to set the functions from the registry to be used by the ChatClient
+     * chat completion requests.
+     */
+    @NestedConfigurationProperty
+    @JsonIgnore
+    private List<FunctionCallback> functionCallbacks = new ArrayList<>();
+
+    /**
+     * List of functions, identified by their names, to configure for function calling in
+     * the chat completion requests. Functions with those names must exist in the
+     * functionCallbacks registry.
+     */
+    @NestedConfigurationProperty
+    @JsonIgnore
+    private Set<String> functions = new HashSet<>();
+
     @Override
     public List<FunctionCallback> getFunctionCallbacks() {
-        return null;
+        return this.functionCallbacks;
     }
 
     @Override
     public void setFunctionCallbacks(List<FunctionCallback> functionCallbacks) {
-
+        this.functionCallbacks = functionCallbacks;
     }
 
     @Override
     public Set<String> getFunctions() {
-        return null;
+        return this.functions;
     }
 
     @Override
     public void setFunctions(Set<String> functions) {
-
+        this.functions = functions;
     }
 
     public static Builder builder() {
@@ -231,6 +254,21 @@ public class AliyunAiDashscopeChatOptions implements FunctionCallingOptions, Cha
             return this;
         }
 
+        public Builder withFunctionCallbacks(List<FunctionCallback> functionCallbacks) {
+            this.options.functionCallbacks = functionCallbacks;
+            return this;
+        }
+
+        public Builder withFunctions(Set<String> functionNames) {
+            this.options.functions = functionNames;
+            return this;
+        }
+
+        public Builder withFunction(String functionName) {
+            this.options.functions.add(functionName);
+            return this;
+        }
+
         public AliyunAiDashscopeChatOptions build() {
             return this.options;
         }
@@ -375,6 +413,33 @@ public class AliyunAiDashscopeChatOptions implements FunctionCallingOptions, Cha
         }
     }
 
+    /**
+     * Copy the given options. Collections are copied, their elements are shared.
+     * @param fromOptions the options to copy
+     * @return a new {@link AliyunAiDashscopeChatOptions} instance
+     */
+    public static AliyunAiDashscopeChatOptions fromOptions(AliyunAiDashscopeChatOptions fromOptions) {
+        AliyunAiDashscopeChatOptions options = new AliyunAiDashscopeChatOptions();
+        options.setModel(fromOptions.getModel());
+        options.setSeed(fromOptions.getSeed());
+        options.setMaxTokens(fromOptions.getMaxTokens());
+        options.setTopP(fromOptions.getTopP());
+        options.setTopK(fromOptions.getTopK());
+        options.setRepetitionPenalty(fromOptions.getRepetitionPenalty());
+        options.setPresencePenalty(fromOptions.getPresencePenalty());
+        options.setTemperature(fromOptions.getTemperature());
+        options.setUser(fromOptions.getUser());
+        options.setStop(fromOptions.getStop() != null ? new ArrayList<>(fromOptions.getStop()) : null);
+        options.setEnableSearch(fromOptions.getEnableSearch());
+        options.setResponseFormat(fromOptions.getResponseFormat());
+        options.setIncrementalOutput(fromOptions.getIncrementalOutput());
+        options.setTools(fromOptions.getTools() != null ? new ArrayList<>(fromOptions.getTools()) : null);
+        options.setToolChoice(fromOptions.getToolChoice());
+        options.setFunctionCallbacks(new ArrayList<>(fromOptions.getFunctionCallbacks()));
+        options.setFunctions(new HashSet<>(fromOptions.getFunctions()));
+        return options;
+    }
+
     /**
      * Helper factory method to create a new {@link AliyunAiDashscopeChatOptions} instance.
      * @return A new {@link AliyunAiDashscopeChatOptions} instance.
@@ -1,18 +1,47 @@
 package org.springframework.ai.aliyun.dashscope;
 
 import com.alibaba.dashscope.embeddings.*;
+import com.alibaba.dashscope.exception.ApiException;
 import com.alibaba.dashscope.exception.NoApiKeyException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.aliyun.dashscope.cache.EmbeddingCache;
+import org.springframework.ai.aliyun.dashscope.cache.EmbeddingCacheKey;
+import org.springframework.ai.aliyun.dashscope.coalesce.SingleFlight;
+import org.springframework.ai.aliyun.dashscope.embedding.EmbeddingBatchOptions;
+import org.springframework.ai.aliyun.dashscope.embedding.EmbeddingBatcher;
+import org.springframework.ai.aliyun.dashscope.embedding.EmbeddingMatrix;
+import org.springframework.ai.aliyun.dashscope.embedding.EmbeddingMicroBatcher;
+import org.springframework.ai.aliyun.dashscope.embedding.MicroBatchOptions;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+import org.springframework.ai.aliyun.dashscope.isolation.DashscopeIsolation;
+import org.springframework.ai.aliyun.dashscope.metrics.AliyunAiDashscopeMetrics;
+import org.springframework.ai.aliyun.dashscope.ratelimit.DashscopeRateLimiter;
+import org.springframework.ai.aliyun.dashscope.retry.DashscopeErrorClassifier;
+import org.springframework.ai.aliyun.dashscope.token.TokenEstimator;
+import org.springframework.ai.aliyun.dashscope.util.ApiUtils;
+import org.springframework.ai.aliyun.dashscope.util.EmbeddingUtils;
+import org.springframework.ai.aliyun.dashscope.util.DashscopeTaskExecutors;
+import org.springframework.ai.aliyun.dashscope.util.ExecutorUtils;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.MetadataMode;
 import org.springframework.ai.embedding.*;
+import org.springframework.ai.retry.RetryUtils;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
 
+import java.io.Closeable;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
-public class AliyunAiDashscopeEmbeddingClient extends AbstractEmbeddingClient {
+public class AliyunAiDashscopeEmbeddingClient extends AbstractEmbeddingClient implements Closeable {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -22,6 +51,33 @@ public class AliyunAiDashscopeEmbeddingClient extends AbstractEmbeddingClient {
 
     private final TextEmbedding embedding;
 
+    private final EmbeddingBatcher batcher;
+
+    private final RetryTemplate retryTemplate;
+
+    private AliyunAiDashscopeMetrics metrics = AliyunAiDashscopeMetrics.NOOP;
+
+    private DashscopeRateLimiter rateLimiter = DashscopeRateLimiter.UNLIMITED;
+
+    private DashscopeIsolation isolation = DashscopeIsolation.NONE;
+
+    private EmbeddingCache embeddingCache = EmbeddingCache.NONE;
+
+    private Executor asyncExecutor;
+
+    /**
+     * Executors this client created itself because none was given, shut down on {@link #close()}.
+     */
+    private DashscopeTaskExecutors ownedExecutors = new DashscopeTaskExecutors();
+
+    private TokenEstimator tokenEstimator = TokenEstimator.DEFAULT;
+
+    private boolean coalesceRequests;
+
+    private EmbeddingMicroBatcher microBatcher;
+
+    private final SingleFlight<EmbeddingFlightKey, EmbeddedTexts> embeddingFlights = new SingleFlight<>();
+
     public AliyunAiDashscopeEmbeddingClient(TextEmbedding embedding) {
         this(embedding, MetadataMode.EMBED);
     }
@@ -31,21 +87,279 @@ public class AliyunAiDashscopeEmbeddingClient extends AbstractEmbeddingClient {
     }
 
     public AliyunAiDashscopeEmbeddingClient(TextEmbedding embedding, MetadataMode metadataMode, AliyunAiDashscopeEmbeddingOptions options) {
+        this(embedding, metadataMode, options, new DashscopeTaskExecutors());
+    }
+
+    private AliyunAiDashscopeEmbeddingClient(TextEmbedding embedding, MetadataMode metadataMode, AliyunAiDashscopeEmbeddingOptions options,
+                                             DashscopeTaskExecutors ownedExecutors) {
+        this(embedding, metadataMode, options, EmbeddingBatchOptions.builder().build(), RetryUtils.DEFAULT_RETRY_TEMPLATE,
+                command -> ownedExecutors.get(DashscopeTaskExecutors.EMBEDDING).execute(command));
+        this.ownedExecutors = ownedExecutors;
+    }
+
+    /**
+     * Create a client running the batches of one call on the given executor, which this client does not shut down.
+     */
+    public AliyunAiDashscopeEmbeddingClient(TextEmbedding embedding, MetadataMode metadataMode, AliyunAiDashscopeEmbeddingOptions options,
+                                            EmbeddingBatchOptions batchOptions, RetryTemplate retryTemplate, Executor executor) {
         Assert.notNull(embedding, "TextEmbedding must not be null");
         Assert.notNull(metadataMode, "metadataMode must not be null");
         Assert.notNull(options, "options must not be null");
+        Assert.notNull(retryTemplate, "retryTemplate must not be null");
 
         this.embedding = embedding;
         this.metadataMode = metadataMode;
         this.defaultOptions = options;
+        this.batcher = new EmbeddingBatcher(batchOptions, executor);
+        this.retryTemplate = retryTemplate;
+    }
+
+    /**
+     * Set the instrumentation of this client. Defaults to {@link AliyunAiDashscopeMetrics#NOOP}.
+     * @param metrics the metrics recorder
+     */
+    public void setMetrics(AliyunAiDashscopeMetrics metrics) {
+        Assert.notNull(metrics, "AliyunAiDashscopeMetrics must not be null");
+        this.metrics = metrics;
+    }
+
+    /**
+     * Set the client-side rate limiter. Defaults to {@link DashscopeRateLimiter#UNLIMITED}.
+     * @param rateLimiter the rate limiter
+     */
+    public void setRateLimiter(DashscopeRateLimiter rateLimiter) {
+        Assert.notNull(rateLimiter, "DashscopeRateLimiter must not be null");
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Set the per-model bulkhead and circuit breaker. Defaults to {@link DashscopeIsolation#NONE}.
+     * @param isolation the isolation
+     */
+    public void setIsolation(DashscopeIsolation isolation) {
+        Assert.notNull(isolation, "DashscopeIsolation must not be null");
+        this.isolation = isolation;
+    }
+
+    /**
+     * Set the executor running {@link #callAsync(EmbeddingRequest)}. Defaults to an executor created on first use
+     * with {@link ExecutorUtils#newTaskExecutor(String)} and shut down by {@link #close()}. It should not be the
+     * batch executor given at construction when that one is bounded, as an async call waits for its batches.
+     * @param asyncExecutor the executor
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        Assert.notNull(asyncExecutor, "Executor must not be null");
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    private Executor asyncExecutor() {
+        return this.asyncExecutor != null ? this.asyncExecutor : this.ownedExecutors.get(DashscopeTaskExecutors.EMBEDDING_ASYNC);
+    }
+
+    /**
+     * Set the token counter used to size batches and rate limit reservations. Defaults to
+     * {@link TokenEstimator#DEFAULT}.
+     * @param tokenEstimator the token estimator
+     */
+    public void setTokenEstimator(TokenEstimator tokenEstimator) {
+        Assert.notNull(tokenEstimator, "TokenEstimator must not be null");
+        this.tokenEstimator = tokenEstimator;
+    }
+
+    /**
+     * Count the tokens of a text for the default model, without calling DashScope.
+     * @param text the text
+     * @return the estimated number of tokens
+     */
+    public int estimateTokens(String text) {
+        return this.tokenEstimator.estimate(this.defaultOptions.getModel(), text);
+    }
+
+    /**
+     * Share one upstream call between concurrent {@link #call(EmbeddingRequest)}s embedding the same texts with the
+     * same model. With the embedding cache enabled, only the texts missing from the cache are compared. Defaults to
+     * false.
+     * @param coalesceRequests whether to coalesce identical in-flight requests
+     */
+    public void setCoalesceRequests(boolean coalesceRequests) {
+        this.coalesceRequests = coalesceRequests;
+    }
+
+    /**
+     * Gather concurrent single-document {@link #embed(Document)} calls into DashScope batches. Batches run on the
+     * async executor. Disabled by default.
+     * @param microBatchOptions the batch size and delay limits
+     */
+    public void setMicroBatchOptions(MicroBatchOptions microBatchOptions) {
+        Assert.notNull(microBatchOptions, "MicroBatchOptions must not be null");
+        if (this.microBatcher != null) {
+            this.microBatcher.close();
+        }
+        this.microBatcher = microBatchOptions.isEnabled()
+                ? new EmbeddingMicroBatcher(microBatchOptions, this::embedToMatrix, command -> asyncExecutor().execute(command))
+                : null;
+    }
+
+    /**
+     * Send the texts still waiting in the micro-batcher and stop its timer, then shut down the executors this
+     * client created itself once those texts are embedded.
+     */
+    @Override
+    public void close() {
+        if (this.microBatcher != null) {
+            this.microBatcher.close();
+        }
+        this.ownedExecutors.close();
+    }
+
+    /**
+     * Set the cache of embedding vectors. Defaults to {@link EmbeddingCache#NONE}.
+     * @param embeddingCache the embedding cache
+     */
+    public void setEmbeddingCache(EmbeddingCache embeddingCache) {
+        Assert.notNull(embeddingCache, "EmbeddingCache must not be null");
+        this.embeddingCache = embeddingCache;
     }
 
     @Override
     public List<Double> embed(Document document) {
+        if (this.microBatcher != null) {
+            return EmbeddingUtils.toDoubleList(await(this.microBatcher.submit(getFormattedContent(document))));
+        }
         logger.debug("Retrieving embeddings");
         EmbeddingResponse response = this.call(new EmbeddingRequest(List.of(document.getFormattedContent(this.metadataMode)), null));
         logger.debug("Embeddings retrieved");
-        return response.getResults().stream().map(embedding -> embedding.getOutput()).flatMap(List::stream).toList();
+        return response.getResults().isEmpty() ? List.of() : response.getResult().getOutput();
+    }
+
+    /**
+     * Embed a single text as a primitive vector, skipping the boxed {@link Embedding} representation.
+     * @param text the text to embed
+     * @return the vector
+     */
+    public float[] embedToFloats(String text) {
+        return embedToMatrix(List.of(text)).data();
+    }
+
+    public float[] embedToFloats(Document document) {
+        if (this.microBatcher != null) {
+            return await(this.microBatcher.submit(getFormattedContent(document)));
+        }
+        return embedToFloats(getFormattedContent(document));
+    }
+
+    /**
+     * Embed a single document without blocking. With micro-batching enabled, the document is sent together with
+     * the other documents submitted concurrently.
+     * @param document the document to embed
+     * @return the future vector
+     */
+    public CompletableFuture<float[]> embedToFloatsAsync(Document document) {
+        if (this.microBatcher != null) {
+            return this.microBatcher.submit(getFormattedContent(document));
+        }
+        return CompletableFuture.supplyAsync(() -> embedToFloats(getFormattedContent(document)), asyncExecutor());
+    }
+
+    private static float[] await(CompletableFuture<float[]> vector) {
+        try {
+            return vector.join();
+        }
+        catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DashscopeSDKException("Error occurred while embedding document", ex.getCause());
+        }
+    }
+
+    String getFormattedContent(Document document) {
+        return document.getFormattedContent(this.metadataMode);
+    }
+
+    /**
+     * Embed the texts into a packed matrix, one row per text in input order. Vectors are narrowed from the
+     * SDK response straight into the matrix, so no {@link Embedding} or per-vector list is created.
+     * Batching, retries and the embedding cache apply as for {@link #call(EmbeddingRequest)}.
+     * @param texts the texts to embed
+     * @return the embedding matrix
+     */
+    public EmbeddingMatrix embedToMatrix(List<String> texts) {
+        Assert.notNull(texts, "texts must not be null");
+        if (texts.isEmpty()) {
+            return new EmbeddingMatrix(0, 0);
+        }
+        TextEmbeddingParam embeddingRequest = this.toEmbeddingRequest(new EmbeddingRequest(texts, null),
+                TextEmbeddingParam.TextType.DOCUMENT);
+
+        EmbeddingCacheKey[] keys = null;
+        float[][] cached = null;
+        List<String> missedTexts = texts;
+        List<Integer> missedIndices = null;
+        if (this.embeddingCache != EmbeddingCache.NONE) {
+            String textType = embeddingRequest.getTextType() != null ? embeddingRequest.getTextType().name() : null;
+            keys = new EmbeddingCacheKey[texts.size()];
+            cached = new float[texts.size()][];
+            missedTexts = new ArrayList<>();
+            missedIndices = new ArrayList<>();
+            for (int i = 0; i < texts.size(); i++) {
+                keys[i] = EmbeddingCacheKey.of(embeddingRequest.getModel(), textType, texts.get(i));
+                cached[i] = this.embeddingCache.get(keys[i]);
+                if (cached[i] == null) {
+                    missedTexts.add(texts.get(i));
+                    missedIndices.add(i);
+                }
+            }
+        }
+
+        EmbeddingMatrix matrix = null;
+        int filled = 0;
+        if (!missedTexts.isEmpty()) {
+            List<EmbeddingBatcher.Batch> batches = split(embeddingRequest.getModel(), missedTexts);
+            List<TextEmbeddingResult> embeddingResponses = executeBatches(embeddingRequest, batches);
+            for (int i = 0; i < batches.size(); i++) {
+                TextEmbeddingResult embeddingResponse = embeddingResponses.get(i);
+                for (TextEmbeddingResultItem item : embeddingResponse.getOutput().getEmbeddings()) {
+                    int index = batches.get(i).offset() + Objects.requireNonNullElse(item.getTextIndex(), 0);
+                    if (missedIndices != null) {
+                        index = missedIndices.get(index);
+                    }
+                    if (matrix == null) {
+                        matrix = new EmbeddingMatrix(texts.size(), item.getEmbedding().size());
+                    }
+                    matrix.setRow(index, item.getEmbedding());
+                    if (keys != null) {
+                        this.embeddingCache.put(keys[index], matrix.row(index));
+                    }
+                    filled++;
+                }
+            }
+        }
+        if (cached != null) {
+            for (int i = 0; i < cached.length; i++) {
+                if (cached[i] != null) {
+                    if (matrix == null) {
+                        matrix = new EmbeddingMatrix(texts.size(), cached[i].length);
+                    }
+                    matrix.setRow(i, cached[i]);
+                    filled++;
+                }
+            }
+        }
+        if (filled != texts.size()) {
+            throw new DashscopeSDKException("Expected " + texts.size() + " embeddings but received " + filled);
+        }
+        return matrix;
+    }
+
+    /**
+     * Non-blocking variant of {@link #call(EmbeddingRequest)}, run on the async executor, which uses a virtual
+     * thread per call on Java 21+. Batching, retries and the embedding cache apply as for the blocking call.
+     * @param request the embedding request
+     * @return the future embedding response
+     */
+    public CompletableFuture<EmbeddingResponse> callAsync(EmbeddingRequest request) {
+        return CompletableFuture.supplyAsync(() -> call(request), asyncExecutor());
     }
 
     @Override
@@ -54,19 +368,153 @@ public class AliyunAiDashscopeEmbeddingClient extends AbstractEmbeddingClient {
         logger.debug("Retrieving embeddings");
 
         TextEmbeddingParam embeddingRequest = this.toEmbeddingRequest(request, TextEmbeddingParam.TextType.DOCUMENT);
-        TextEmbeddingResult embeddingResponse = null;
-        try {
-            embeddingResponse = embedding.call(embeddingRequest);
-        } catch (NoApiKeyException e) {
-            throw new RuntimeException(e);
-        }
-        if (embeddingResponse == null) {
-            logger.warn("No embeddings returned for request: {}", request);
+        List<String> texts = embeddingRequest.getTexts();
+        if (CollectionUtils.isEmpty(texts)) {
             return new EmbeddingResponse(List.of());
         }
 
-        logger.debug("Embeddings retrieved");
-        return generateEmbeddingResponse(embeddingRequest.getModel(), embeddingResponse);
+        if (this.embeddingCache == EmbeddingCache.NONE) {
+            EmbeddedTexts embedded = coalescedEmbedTexts(embeddingRequest, texts);
+            logger.debug("Embeddings retrieved");
+            return new EmbeddingResponse(embedded.embeddings(), generateMetadata(embeddingRequest.getModel(), embedded.totalTokens()));
+        }
+
+        // Serve cached vectors and send only the misses to DashScope.
+        String textType = embeddingRequest.getTextType() != null ? embeddingRequest.getTextType().name() : null;
+        EmbeddingCacheKey[] keys = new EmbeddingCacheKey[texts.size()];
+        List<Embedding> data = new ArrayList<>(texts.size());
+        List<String> missedTexts = new ArrayList<>();
+        List<Integer> missedIndices = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            keys[i] = EmbeddingCacheKey.of(embeddingRequest.getModel(), textType, texts.get(i));
+            float[] vector = this.embeddingCache.get(keys[i]);
+            if (vector != null) {
+                data.add(new Embedding(EmbeddingUtils.toDoubleList(vector), i));
+            }
+            else {
+                missedTexts.add(texts.get(i));
+                missedIndices.add(i);
+            }
+        }
+
+        long totalTokens = 0;
+        if (!missedTexts.isEmpty()) {
+            EmbeddedTexts embedded = coalescedEmbedTexts(embeddingRequest, missedTexts);
+            for (Embedding embedding : embedded.embeddings()) {
+                int index = missedIndices.get(embedding.getIndex());
+                this.embeddingCache.put(keys[index], EmbeddingUtils.toFloatArray(embedding.getOutput()));
+                data.add(new Embedding(embedding.getOutput(), index));
+            }
+            totalTokens = embedded.totalTokens();
+        }
+        data.sort(Comparator.comparing(Embedding::getIndex));
+
+        logger.debug("Embeddings retrieved, {} of {} from cache", texts.size() - missedTexts.size(), texts.size());
+        return new EmbeddingResponse(data, generateMetadata(embeddingRequest.getModel(), totalTokens));
+    }
+
+    private EmbeddedTexts coalescedEmbedTexts(TextEmbeddingParam embeddingRequest, List<String> texts) {
+        if (!this.coalesceRequests) {
+            return embedTexts(embeddingRequest, texts);
+        }
+        String textType = embeddingRequest.getTextType() != null ? embeddingRequest.getTextType().name() : null;
+        return this.embeddingFlights.execute(new EmbeddingFlightKey(embeddingRequest.getModel(), textType, List.copyOf(texts)),
+                () -> embedTexts(embeddingRequest, texts));
+    }
+
+    private EmbeddedTexts embedTexts(TextEmbeddingParam embeddingRequest, List<String> texts) {
+        List<EmbeddingBatcher.Batch> batches = split(embeddingRequest.getModel(), texts);
+        List<TextEmbeddingResult> embeddingResponses = executeBatches(embeddingRequest, batches);
+
+        List<Embedding> data = new ArrayList<>(texts.size());
+        long totalTokens = 0;
+        for (int i = 0; i < batches.size(); i++) {
+            TextEmbeddingResult embeddingResponse = embeddingResponses.get(i);
+            data.addAll(generateEmbeddingList(batches.get(i).offset(), embeddingResponse.getOutput().getEmbeddings()));
+            if (embeddingResponse.getUsage() != null && embeddingResponse.getUsage().getTotalTokens() != null) {
+                totalTokens += embeddingResponse.getUsage().getTotalTokens();
+            }
+        }
+        data.sort(Comparator.comparing(Embedding::getIndex));
+        return new EmbeddedTexts(data, totalTokens);
+    }
+
+    private List<EmbeddingBatcher.Batch> split(String model, List<String> texts) {
+        return this.batcher.split(texts, text -> this.tokenEstimator.estimate(model, text));
+    }
+
+    private List<TextEmbeddingResult> executeBatches(TextEmbeddingParam embeddingRequest, List<EmbeddingBatcher.Batch> batches) {
+        // Each batch is retried on its own so a failed chunk does not redo the whole request.
+        return this.batcher.execute(batches,
+                batch -> this.retryTemplate.execute(ctx -> {
+                    if (ctx.getRetryCount() > 0) {
+                        this.metrics.recordRetry(embeddingRequest.getModel(), AliyunAiDashscopeMetrics.OPERATION_EMBEDDING);
+                    }
+                    return checkBatchResult(batch, doEmbedding(embeddingRequest, batch));
+                }));
+    }
+
+    /**
+     * Reject a batch response that does not hold one vector per text, so that the embeddings never fall out of
+     * line with the input. Raised inside the retry, the batch is sent again when the retry policy allows it.
+     */
+    private static TextEmbeddingResult checkBatchResult(EmbeddingBatcher.Batch batch, TextEmbeddingResult result) {
+        if (result == null || result.getOutput() == null || result.getOutput().getEmbeddings() == null) {
+            throw new DashscopeSDKException("No embeddings returned for batch at offset " + batch.offset());
+        }
+        int received = result.getOutput().getEmbeddings().size();
+        if (received != batch.texts().size()) {
+            throw new DashscopeSDKException("Expected " + batch.texts().size() + " embeddings for batch at offset "
+                    + batch.offset() + " but received " + received);
+        }
+        return result;
+    }
+
+    private TextEmbeddingResult doEmbedding(TextEmbeddingParam embeddingRequest, EmbeddingBatcher.Batch batch) {
+        TextEmbeddingParam batchRequest = TextEmbeddingParam.builder()
+                .textType(embeddingRequest.getTextType())
+                .model(embeddingRequest.getModel())
+                .texts(batch.texts())
+                .build();
+        long estimatedTokens = batch.tokens();
+        // Isolation first, so that calls rejected by an open circuit use no rate-limit tokens.
+        DashscopeIsolation.Permit permit = this.isolation.acquire(batchRequest.getModel());
+        try {
+            this.rateLimiter.acquire(batchRequest.getModel(), estimatedTokens);
+        } catch (RuntimeException e) {
+            permit.complete(Duration.ZERO, e);
+            throw e;
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        Throwable failure = null;
+        try {
+            TextEmbeddingResult result = embedding.call(batchRequest);
+            success = true;
+            long actualTokens = 0;
+            if (result != null && result.getUsage() != null && result.getUsage().getTotalTokens() != null) {
+                actualTokens = result.getUsage().getTotalTokens();
+                this.metrics.recordTokenUsage(batchRequest.getModel(), AliyunAiDashscopeMetrics.OPERATION_EMBEDDING, actualTokens, 0);
+            }
+            this.rateLimiter.onSuccess(batchRequest.getModel(), estimatedTokens, actualTokens);
+            return result;
+        } catch (ApiException e) {
+            failure = e;
+            if (DashscopeErrorClassifier.isThrottled(e)) {
+                this.rateLimiter.onThrottled(batchRequest.getModel());
+            }
+            throw e;
+        } catch (NoApiKeyException e) {
+            failure = e;
+            throw new DashscopeSDKException(DashscopeErrorClassifier.describe(e), e);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            Duration latency = Duration.ofNanos(System.nanoTime() - start);
+            permit.complete(latency, failure);
+            this.metrics.recordRequest(batchRequest.getModel(), AliyunAiDashscopeMetrics.OPERATION_EMBEDDING, latency, success);
+        }
     }
 
     TextEmbeddingParam toEmbeddingRequest(EmbeddingRequest embeddingRequest, TextEmbeddingParam.TextType textType) {
@@ -92,25 +540,25 @@ public class AliyunAiDashscopeEmbeddingClient extends AbstractEmbeddingClient {
                 .build();
     }
 
-    private EmbeddingResponse generateEmbeddingResponse(String model, TextEmbeddingResult embeddingResponse) {
-        List<Embedding> data = generateEmbeddingList(embeddingResponse.getOutput().getEmbeddings());
-        EmbeddingResponseMetadata metadata = generateMetadata(model, embeddingResponse.getUsage());
-        return new EmbeddingResponse(data, metadata);
-    }
-
-    private List<Embedding> generateEmbeddingList(List<TextEmbeddingResultItem> nativeData) {
+    private List<Embedding> generateEmbeddingList(int offset, List<TextEmbeddingResultItem> nativeData) {
         List<Embedding> data = new ArrayList<>();
         for (TextEmbeddingResultItem nativeDatum : nativeData) {
-            Embedding embedding = new Embedding(nativeDatum.getEmbedding(), nativeDatum.getTextIndex());
+            Embedding embedding = new Embedding(nativeDatum.getEmbedding(), offset + Objects.requireNonNullElse(nativeDatum.getTextIndex(), 0));
             data.add(embedding);
         }
         return data;
     }
 
-    private EmbeddingResponseMetadata generateMetadata(String model, TextEmbeddingUsage embeddingsUsage) {
+    private record EmbeddedTexts(List<Embedding> embeddings, long totalTokens) {
+    }
+
+    private record EmbeddingFlightKey(String model, String textType, List<String> texts) {
+    }
+
+    private EmbeddingResponseMetadata generateMetadata(String model, long totalTokens) {
         EmbeddingResponseMetadata metadata = new EmbeddingResponseMetadata();
         metadata.put("model", model);
-        metadata.put("total-tokens", embeddingsUsage.getTotalTokens());
+        metadata.put("total-tokens", totalTokens);
         return metadata;
     }
 
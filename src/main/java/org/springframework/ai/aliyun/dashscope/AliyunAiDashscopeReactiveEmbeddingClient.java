@@ -0,0 +1,131 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import org.springframework.ai.aliyun.dashscope.embedding.EmbeddingBatchOptions;
+import org.springframework.ai.aliyun.dashscope.embedding.EmbeddingMatrix;
+import org.springframework.ai.aliyun.dashscope.util.DashscopeTaskExecutors;
+import org.springframework.ai.document.Document;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reactive front of {@link AliyunAiDashscopeEmbeddingClient} for ingestion pipelines. Documents are windowed into
+ * DashScope sized batches, at most {@code maxConcurrency} windows are embedded at a time, and only as many documents
+ * are requested from the source as the in-flight windows can hold.
+ */
+public class AliyunAiDashscopeReactiveEmbeddingClient implements Closeable {
+
+    private final AliyunAiDashscopeEmbeddingClient embeddingClient;
+
+    private final EmbeddingBatchOptions batchOptions;
+
+    private final Scheduler scheduler;
+
+    /**
+     * Executors this client created itself because no scheduler was given, shut down on {@link #close()}.
+     */
+    private DashscopeTaskExecutors ownedExecutors;
+
+    public AliyunAiDashscopeReactiveEmbeddingClient(AliyunAiDashscopeEmbeddingClient embeddingClient) {
+        this(embeddingClient, new DashscopeTaskExecutors());
+    }
+
+    private AliyunAiDashscopeReactiveEmbeddingClient(AliyunAiDashscopeEmbeddingClient embeddingClient, DashscopeTaskExecutors ownedExecutors) {
+        this(embeddingClient, EmbeddingBatchOptions.builder().build(),
+                Schedulers.fromExecutor(command -> ownedExecutors.get(DashscopeTaskExecutors.EMBEDDING_REACTIVE).execute(command)));
+        this.ownedExecutors = ownedExecutors;
+    }
+
+    /**
+     * Create a client embedding on the given scheduler, which this client does not dispose.
+     */
+
+    public AliyunAiDashscopeReactiveEmbeddingClient(AliyunAiDashscopeEmbeddingClient embeddingClient, EmbeddingBatchOptions batchOptions,
+                                                    Scheduler scheduler) {
+        Assert.notNull(embeddingClient, "AliyunAiDashscopeEmbeddingClient must not be null");
+        Assert.notNull(batchOptions, "EmbeddingBatchOptions must not be null");
+        Assert.notNull(scheduler, "Scheduler must not be null");
+        Assert.isTrue(batchOptions.getMaxConcurrency() > 0, "maxConcurrency must be greater than 0");
+        this.embeddingClient = embeddingClient;
+        this.batchOptions = batchOptions;
+        this.scheduler = scheduler;
+    }
+
+    public Mono<float[]> embed(String text) {
+        return Mono.fromCallable(() -> this.embeddingClient.embedToFloats(text)).subscribeOn(this.scheduler);
+    }
+
+    /**
+     * Embed a stream of documents. Pairs are emitted window by window as each one completes, so they are not
+     * necessarily in source order.
+     * @param documents the documents to embed
+     * @return the documents with their vectors
+     */
+    public Flux<DocumentEmbedding> embed(Flux<Document> documents) {
+        return documents
+                .map(document -> new PendingDocument(document, this.embeddingClient.getFormattedContent(document)))
+                .transform(this::window)
+                .flatMap(window -> Mono.fromCallable(() -> embedWindow(window))
+                        .subscribeOn(this.scheduler)
+                        .flatMapIterable(pairs -> pairs), this.batchOptions.getMaxConcurrency(), 1);
+    }
+
+    /**
+     * Cut a new window when the current one is full by text count or estimated tokens, the same way
+     * {@link org.springframework.ai.aliyun.dashscope.embedding.EmbeddingBatcher#split(List)} does.
+     */
+    private Flux<List<PendingDocument>> window(Flux<PendingDocument> documents) {
+        return Flux.defer(() -> {
+            int[] count = new int[1];
+            int[] tokens = new int[1];
+            return documents.bufferUntil(document -> {
+                int documentTokens = this.embeddingClient.estimateTokens(document.content());
+                boolean cut = count[0] > 0 && (count[0] >= this.batchOptions.getMaxTextsPerBatch()
+                        || tokens[0] + documentTokens > this.batchOptions.getMaxTokensPerBatch());
+                if (cut) {
+                    count[0] = 0;
+                    tokens[0] = 0;
+                }
+                count[0]++;
+                tokens[0] += documentTokens;
+                return cut;
+            }, true);
+        });
+    }
+
+    /**
+     * Shut down the executors this client created itself.
+     */
+    @Override
+    public void close() {
+        if (this.ownedExecutors != null) {
+            this.ownedExecutors.close();
+        }
+    }
+
+    private List<DocumentEmbedding> embedWindow(List<PendingDocument> window) {
+        List<String> texts = new ArrayList<>(window.size());
+        for (PendingDocument document : window) {
+            texts.add(document.content());
+        }
+        EmbeddingMatrix matrix = this.embeddingClient.embedToMatrix(texts);
+        List<DocumentEmbedding> pairs = new ArrayList<>(window.size());
+        for (int i = 0; i < window.size(); i++) {
+            pairs.add(new DocumentEmbedding(window.get(i).document(), matrix.row(i)));
+        }
+        return pairs;
+    }
+
+    private record PendingDocument(Document document, String content) {
+    }
+
+    public record DocumentEmbedding(Document document, float[] embedding) {
+    }
+
+}
@@ -3,18 +3,18 @@ package org.springframework.ai.aliyun.dashscope;
 import com.alibaba.dashscope.aigc.generation.GenerationResult;
 import com.alibaba.dashscope.common.ResultCallback;
 import com.alibaba.dashscope.common.Status;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
 import org.springframework.ai.aliyun.dashscope.util.ApiUtils;
 import org.springframework.ai.chat.ChatResponse;
 import reactor.core.publisher.FluxSink;
 
+/**
+ * Bridges DashScope stream events to a {@link FluxSink}. Nothing is logged per event, see
+ * {@link org.springframework.ai.aliyun.dashscope.stream.StreamTracer} for stream tracing.
+ */
 public class AliyunAiDashscopeResultCallback extends ResultCallback<GenerationResult> {
 
-    private final Logger log = LoggerFactory.getLogger(getClass());
-
-    private FluxSink<ChatResponse> sink;
+    private final FluxSink<ChatResponse> sink;
 
     public AliyunAiDashscopeResultCallback(FluxSink<ChatResponse> sink) {
         this.sink = sink;
@@ -22,25 +22,24 @@ public class AliyunAiDashscopeResultCallback extends ResultCallback<GenerationRe
 
     @Override
     public void onOpen(Status status) {
-        log.info("ResultCallback onOpen: requestId ----> {}", status.getRequestId());
     }
 
     @Override
     public void onEvent(GenerationResult message) {
-        log.info("ResultCallback onEvent: requestId ----> {} || output ----> {}", message.getRequestId(), message.getOutput());
+        if (sink.isCancelled()) {
+            return;
+        }
         sink.next(ApiUtils.toChatCompletion(message));
     }
 
     @Override
     public void onComplete() {
-        log.info("ResultCallback onComplete ");
         sink.complete();
     }
 
     @Override
     public void onError(Exception e) {
-        log.error("ResultCallback onError ");
-        sink.error(new DashscopeSDKException("Error occurred in stream callback with id: ", e));
+        sink.error(new DashscopeSDKException("Error occurred in stream callback", e));
     }
 
 }
@@ -0,0 +1,313 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeCallNotPermittedException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopePromptTooLargeException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeRateLimitException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+import org.springframework.ai.aliyun.dashscope.routing.ModelStats;
+import org.springframework.ai.aliyun.dashscope.routing.RoutingOptions;
+import org.springframework.ai.aliyun.dashscope.token.TokenEstimator;
+import org.springframework.ai.aliyun.dashscope.retry.DashscopeErrorClassifier;
+import org.springframework.ai.chat.ChatClient;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.StreamingChatClient;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.function.FunctionCallingOptions;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Routes each prompt over an ordered list of models in front of {@link AliyunAiDashscopeChatClient}.
+ * <p>
+ * Models whose input limit the prompt exceeds are skipped. Models whose rolling p95 latency is above the SLO, or
+ * whose error rate is above the limit, are moved to the end of the list, with one probe request let through per
+ * probe interval. A call fails over to the next model on the errors {@link DashscopeErrorClassifier} deems
+ * retryable (throttling, server and network errors, timeouts), or when the current model is rejected by its
+ * client-side rate limiter, circuit breaker or bulkhead; any other error is rethrown. With hedging enabled, the next model is also
+ * called when the current one has not answered within the hedge delay, and the first successful answer wins. The
+ * losing attempt is not cancelled: it runs to completion and its latency still feeds the stats.
+ * <p>
+ * Input limits are checked against the prompt as given, before any history compaction, so that routing never
+ * calls a summarizer model.
+ * <p>
+ * Streams fail over only before their first chunk and are never hedged.
+ */
+public class AliyunAiDashscopeRoutingChatClient implements ChatClient, StreamingChatClient {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final AliyunAiDashscopeChatClient delegate;
+
+    private final RoutingOptions options;
+
+    private final Map<String, ModelStats> stats = new ConcurrentHashMap<>();
+
+    private final boolean tokenLimited;
+
+    private TokenEstimator tokenEstimator = TokenEstimator.DEFAULT;
+
+    public AliyunAiDashscopeRoutingChatClient(AliyunAiDashscopeChatClient delegate, RoutingOptions options) {
+        Assert.notNull(delegate, "AliyunAiDashscopeChatClient must not be null");
+        Assert.notNull(options, "RoutingOptions must not be null");
+        Assert.notEmpty(options.getRoutes(), "At least one route must be configured");
+        Assert.isTrue(options.getWindowSize() > 0, "windowSize must be greater than 0");
+        Assert.notNull(options.getLatencySlo(), "latencySlo must not be null");
+        Assert.notNull(options.getProbeInterval(), "probeInterval must not be null");
+        for (RoutingOptions.Route route : options.getRoutes()) {
+            Assert.hasText(route.getModel(), "Route model must not be empty");
+            this.stats.put(route.getModel(), new ModelStats(options.getWindowSize()));
+        }
+        this.delegate = delegate;
+        this.options = options;
+        this.tokenLimited = options.getRoutes().stream().anyMatch(route -> route.getMaxInputTokens() > 0);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        List<String> candidates = candidates(prompt);
+        List<CompletableFuture<ChatResponse>> inFlight = new ArrayList<>();
+        int next = 0;
+        inFlight.add(attempt(prompt, candidates.get(next++)));
+        RuntimeException lastError = null;
+        while (!inFlight.isEmpty()) {
+            boolean hedge = this.options.isHedge() && next < candidates.size();
+            try {
+                CompletableFuture<Object> any = CompletableFuture.anyOf(inFlight.toArray(CompletableFuture[]::new));
+                if (hedge) {
+                    any.get(hedgeDelay(candidates.get(next - 1)).toNanos(), TimeUnit.NANOSECONDS);
+                }
+                else {
+                    any.get();
+                }
+            }
+            catch (TimeoutException ex) {
+                log.debug("No answer within the hedge delay, hedging with model {}", candidates.get(next));
+                inFlight.add(attempt(prompt, candidates.get(next++)));
+                continue;
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new DashscopeSDKException("Interrupted while waiting for chat response", ex);
+            }
+            catch (ExecutionException ex) {
+                // Inspected below, together with the other completed attempts.
+            }
+            for (var iterator = inFlight.iterator(); iterator.hasNext(); ) {
+                CompletableFuture<ChatResponse> attempt = iterator.next();
+                if (!attempt.isDone()) {
+                    continue;
+                }
+                iterator.remove();
+                try {
+                    return attempt.join();
+                }
+                catch (RuntimeException ex) {
+                    RuntimeException error = unwrap(ex);
+                    if (!isFailover(error)) {
+                        throw error;
+                    }
+                    lastError = error;
+                }
+            }
+            if (inFlight.isEmpty() && next < candidates.size()) {
+                log.debug("Failing over to model {} after: {}", candidates.get(next), lastError.getMessage());
+                inFlight.add(attempt(prompt, candidates.get(next++)));
+            }
+        }
+        throw lastError;
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> stream(prompt, candidates(prompt), 0));
+    }
+
+    private Flux<ChatResponse> stream(Prompt prompt, List<String> candidates, int index) {
+        String model = candidates.get(index);
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean emitted = new AtomicBoolean();
+            Flux<ChatResponse> chunks = this.delegate.stream(withModel(prompt, model));
+            if (this.options.getAttemptTimeout() != null) {
+                // Only the first chunk is timed, later chunks are paced by the model's output.
+                chunks = chunks.timeout(Mono.delay(this.options.getAttemptTimeout()), chunk -> Mono.never());
+            }
+            return chunks
+                    .doOnNext(chunk -> {
+                        if (emitted.compareAndSet(false, true)) {
+                            record(model, start, true);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (emitted.compareAndSet(false, true)) {
+                            record(model, start, true);
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (!emitted.get()) {
+                            record(model, start, false);
+                        }
+                    })
+                    .onErrorResume(error -> !emitted.get() && index + 1 < candidates.size() && isFailover(error),
+                            error -> {
+                                log.debug("Failing over stream to model {} after: {}", candidates.get(index + 1), error.getMessage());
+                                return stream(prompt, candidates, index + 1);
+                            });
+        });
+    }
+
+    /**
+     * Set the token counter used against the input limits of the routes. Defaults to {@link TokenEstimator#DEFAULT}.
+     * @param tokenEstimator the token estimator
+     */
+    public void setTokenEstimator(TokenEstimator tokenEstimator) {
+        Assert.notNull(tokenEstimator, "TokenEstimator must not be null");
+        this.tokenEstimator = tokenEstimator;
+    }
+
+    /**
+     * @param model the model name
+     * @return the rolling stats of the model, or null if it is not routed
+     */
+    public ModelStats getStats(String model) {
+        return this.stats.get(model);
+    }
+
+    /**
+     * The models to try for the prompt, in order.
+     */
+    List<String> candidates(Prompt prompt) {
+        long tokens = this.tokenLimited ? estimateTokens(prompt) : 0;
+        List<String> healthy = new ArrayList<>();
+        List<String> degraded = new ArrayList<>();
+        long largestLimit = 0;
+        for (RoutingOptions.Route route : this.options.getRoutes()) {
+            if (route.getMaxInputTokens() > 0 && tokens > route.getMaxInputTokens()) {
+                largestLimit = Math.max(largestLimit, route.getMaxInputTokens());
+                continue;
+            }
+            ModelStats modelStats = this.stats.get(route.getModel());
+            if (isHealthy(modelStats) || modelStats.tryProbe(this.options.getProbeInterval())) {
+                healthy.add(route.getModel());
+            }
+            else {
+                degraded.add(route.getModel());
+            }
+        }
+        healthy.addAll(degraded);
+        if (healthy.isEmpty()) {
+            throw new DashscopePromptTooLargeException(tokens, largestLimit);
+        }
+        return healthy;
+    }
+
+    private long estimateTokens(Prompt prompt) {
+        // Routes share the Qwen vocabulary, so one count serves them all.
+        String model = this.options.getRoutes().get(0).getModel();
+        long tokens = 0;
+        for (Message message : prompt.getInstructions()) {
+            tokens += this.tokenEstimator.estimate(model, message.getContent());
+        }
+        return tokens;
+    }
+
+    private boolean isHealthy(ModelStats modelStats) {
+        if (modelStats.samples() < this.options.getMinSamples()) {
+            return true;
+        }
+        return modelStats.p95().compareTo(this.options.getLatencySlo()) <= 0
+                && modelStats.errorRate() <= this.options.getMaxErrorRate();
+    }
+
+    private CompletableFuture<ChatResponse> attempt(Prompt prompt, String model) {
+        long start = System.nanoTime();
+        CompletableFuture<ChatResponse> future = this.delegate.callAsync(withModel(prompt, model));
+        if (this.options.getAttemptTimeout() != null) {
+            future = future.orTimeout(this.options.getAttemptTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return future.whenComplete((response, error) -> record(model, start, error == null));
+    }
+
+    private void record(String model, long start, boolean success) {
+        this.stats.get(model).record(Duration.ofNanos(System.nanoTime() - start), success);
+    }
+
+    private Duration hedgeDelay(String model) {
+        if (this.options.getHedgeDelay() != null) {
+            return this.options.getHedgeDelay();
+        }
+        ModelStats modelStats = this.stats.get(model);
+        return modelStats.samples() >= this.options.getMinSamples() ? modelStats.p95() : this.options.getLatencySlo();
+    }
+
+    /**
+     * Copy the prompt with the model overridden. Only the model changes: unset options keep falling back to the
+     * client defaults.
+     */
+    static Prompt withModel(Prompt prompt, String model) {
+        AliyunAiDashscopeChatOptions options;
+        if (prompt.getOptions() instanceof AliyunAiDashscopeChatOptions dashscopeOptions) {
+            options = AliyunAiDashscopeChatOptions.fromOptions(dashscopeOptions);
+        }
+        else {
+            ChatOptions runtimeOptions = prompt.getOptions();
+            options = AliyunAiDashscopeChatOptions.builder()
+                    .withTemperature(runtimeOptions != null ? runtimeOptions.getTemperature() : null)
+                    .withTopP(runtimeOptions != null ? runtimeOptions.getTopP() : null)
+                    .withTopK(runtimeOptions != null ? runtimeOptions.getTopK() : null)
+                    .build();
+            if (runtimeOptions instanceof FunctionCallingOptions functionCallingOptions) {
+                options.setFunctionCallbacks(new ArrayList<>(functionCallingOptions.getFunctionCallbacks()));
+                options.setFunctions(new HashSet<>(functionCallingOptions.getFunctions()));
+            }
+        }
+        options.setModel(model);
+        return new Prompt(prompt.getInstructions(), options);
+    }
+
+    static boolean isFailover(Throwable error) {
+        // Throttling, server and network errors, and timeouts.
+        if (DashscopeErrorClassifier.isRetryable(error)) {
+            return true;
+        }
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof DashscopeRateLimitException
+                    || current instanceof DashscopeCallNotPermittedException) {
+                return true;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static RuntimeException unwrap(RuntimeException error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            if (error.getCause() instanceof RuntimeException cause) {
+                return cause;
+            }
+            return new DashscopeSDKException("Error occurred while calling chat model", error.getCause());
+        }
+        return error;
+    }
+
+}
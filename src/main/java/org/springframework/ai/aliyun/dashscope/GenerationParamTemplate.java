@@ -0,0 +1,239 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import com.alibaba.dashscope.aigc.generation.GenerationParam;
+import com.alibaba.dashscope.common.Message;
+import com.alibaba.dashscope.tools.ToolBase;
+import com.alibaba.dashscope.tools.ToolFunction;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Pre-resolved {@link GenerationParam} settings. The default options are resolved once, runtime
+ * {@link ChatOptions} are merged with a field mapper cached per options type, and only the messages
+ * are filled in per request. No reflection or JSON round trip is involved.
+ * <p>
+ * {@code presence_penalty} and {@code user} have no typed field on the SDK {@link GenerationParam}, they are sent
+ * as extra request parameters.
+ */
+final class GenerationParamTemplate {
+
+    private static final String PRESENCE_PENALTY = "presence_penalty";
+
+    private static final String USER = "user";
+
+    private static final Map<Class<?>, BiFunction<GenerationParamTemplate, ChatOptions, GenerationParamTemplate>> MERGERS = new ConcurrentHashMap<>();
+
+    private String model;
+    private Integer seed;
+    private Integer maxTokens;
+    private Double topP;
+    private Integer topK;
+    private Float repetitionPenalty;
+    private Float presencePenalty;
+    private Float temperature;
+    private List<String> stop;
+    private Boolean enableSearch;
+    private String resultFormat = GenerationParam.ResultFormat.MESSAGE;
+    private Boolean incrementalOutput;
+    private List<ToolBase> tools;
+    private Object toolChoice;
+    private String user;
+
+    private GenerationParamTemplate() {
+    }
+
+    static GenerationParamTemplate from(AliyunAiDashscopeChatOptions options) {
+        return mergeDashscopeOptions(new GenerationParamTemplate(), options);
+    }
+
+    /**
+     * Merge the non-null runtime options over this template.
+     * @param runtimeOptions the prompt options
+     * @return a new template, this one is left untouched
+     */
+    GenerationParamTemplate merge(ChatOptions runtimeOptions) {
+        return MERGERS.computeIfAbsent(runtimeOptions.getClass(), GenerationParamTemplate::mergerFor).apply(this, runtimeOptions);
+    }
+
+    GenerationParamTemplate withTools(List<ToolFunction> tools) {
+        GenerationParamTemplate template = copy();
+        template.tools = List.copyOf(tools);
+        return template;
+    }
+
+    String model() {
+        return this.model;
+    }
+
+    GenerationParamTemplate withIncrementalOutput(boolean incrementalOutput) {
+        GenerationParamTemplate template = copy();
+        template.incrementalOutput = incrementalOutput;
+        return template;
+    }
+
+    GenerationParam build(List<Message> messages) {
+        var builder = GenerationParam.builder()
+                .messages(messages)
+                .resultFormat(this.resultFormat);
+        if (this.model != null) {
+            builder.model(this.model);
+        }
+        if (this.seed != null) {
+            builder.seed(this.seed);
+        }
+        if (this.maxTokens != null) {
+            builder.maxTokens(this.maxTokens);
+        }
+        if (this.topP != null) {
+            builder.topP(this.topP);
+        }
+        if (this.topK != null) {
+            builder.topK(this.topK);
+        }
+        if (this.repetitionPenalty != null) {
+            builder.repetitionPenalty(this.repetitionPenalty);
+        }
+        if (this.temperature != null) {
+            builder.temperature(this.temperature);
+        }
+        if (this.stop != null) {
+            builder.stopStrings(this.stop);
+        }
+        if (this.enableSearch != null) {
+            builder.enableSearch(this.enableSearch);
+        }
+        if (this.incrementalOutput != null) {
+            builder.incrementalOutput(this.incrementalOutput);
+        }
+        if (this.tools != null) {
+            builder.tools(this.tools);
+        }
+        if (this.toolChoice != null) {
+            builder.toolChoice(this.toolChoice);
+        }
+        if (this.presencePenalty != null) {
+            builder.parameter(PRESENCE_PENALTY, this.presencePenalty);
+        }
+        if (this.user != null) {
+            builder.parameter(USER, this.user);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Rebuild a request with the same settings and a new conversation, as needed by the tool-call loop.
+     */
+    static GenerationParam copy(GenerationParam source, List<Message> messages) {
+        GenerationParamTemplate template = new GenerationParamTemplate();
+        template.model = source.getModel();
+        template.seed = source.getSeed();
+        template.maxTokens = source.getMaxTokens();
+        template.topP = source.getTopP();
+        template.topK = source.getTopK();
+        template.repetitionPenalty = source.getRepetitionPenalty();
+        template.temperature = source.getTemperature();
+        template.stop = source.getStopStrings();
+        template.enableSearch = source.getEnableSearch();
+        template.incrementalOutput = source.getIncrementalOutput();
+        template.tools = source.getTools();
+        template.toolChoice = source.getToolChoice();
+        Map<String, Object> parameters = source.getParameters();
+        if (parameters.get(PRESENCE_PENALTY) instanceof Float presencePenalty) {
+            template.presencePenalty = presencePenalty;
+        }
+        if (parameters.get(USER) instanceof String user) {
+            template.user = user;
+        }
+        if (StringUtils.hasText(source.getResultFormat())) {
+            template.resultFormat = source.getResultFormat();
+        }
+        return template.build(messages);
+    }
+
+    private static BiFunction<GenerationParamTemplate, ChatOptions, GenerationParamTemplate> mergerFor(Class<?> optionsType) {
+        if (AliyunAiDashscopeChatOptions.class.isAssignableFrom(optionsType)) {
+            return (template, options) -> mergeDashscopeOptions(template.copy(), (AliyunAiDashscopeChatOptions) options);
+        }
+        return (template, options) -> mergePortableOptions(template.copy(), options);
+    }
+
+    private static GenerationParamTemplate mergeDashscopeOptions(GenerationParamTemplate template, AliyunAiDashscopeChatOptions options) {
+        mergePortableOptions(template, options);
+        if (options.getModel() != null) {
+            template.model = options.getModel();
+        }
+        if (options.getSeed() != null) {
+            template.seed = options.getSeed();
+        }
+        if (options.getMaxTokens() != null) {
+            template.maxTokens = options.getMaxTokens();
+        }
+        if (options.getRepetitionPenalty() != null) {
+            template.repetitionPenalty = options.getRepetitionPenalty();
+        }
+        if (options.getPresencePenalty() != null) {
+            template.presencePenalty = options.getPresencePenalty();
+        }
+        if (options.getStop() != null) {
+            template.stop = List.copyOf(options.getStop());
+        }
+        if (options.getEnableSearch() != null) {
+            template.enableSearch = options.getEnableSearch();
+        }
+        if (StringUtils.hasText(options.getResponseFormat())) {
+            template.resultFormat = options.getResponseFormat();
+        }
+        if (options.getIncrementalOutput() != null) {
+            template.incrementalOutput = options.getIncrementalOutput();
+        }
+        if (options.getTools() != null) {
+            template.tools = List.copyOf(options.getTools());
+        }
+        if (options.getToolChoice() != null) {
+            template.toolChoice = options.getToolChoice();
+        }
+        if (StringUtils.hasText(options.getUser())) {
+            template.user = options.getUser();
+        }
+        return template;
+    }
+
+    private static GenerationParamTemplate mergePortableOptions(GenerationParamTemplate template, ChatOptions options) {
+        if (options.getTemperature() != null) {
+            template.temperature = options.getTemperature();
+        }
+        if (options.getTopP() != null) {
+            template.topP = options.getTopP().doubleValue();
+        }
+        if (options.getTopK() != null) {
+            template.topK = options.getTopK();
+        }
+        return template;
+    }
+
+    private GenerationParamTemplate copy() {
+        GenerationParamTemplate template = new GenerationParamTemplate();
+        template.model = this.model;
+        template.seed = this.seed;
+        template.maxTokens = this.maxTokens;
+        template.topP = this.topP;
+        template.topK = this.topK;
+        template.repetitionPenalty = this.repetitionPenalty;
+        template.presencePenalty = this.presencePenalty;
+        template.temperature = this.temperature;
+        template.stop = this.stop;
+        template.enableSearch = this.enableSearch;
+        template.resultFormat = this.resultFormat;
+        template.incrementalOutput = this.incrementalOutput;
+        template.tools = this.tools;
+        template.toolChoice = this.toolChoice;
+        template.user = this.user;
+        return template;
+    }
+
+}
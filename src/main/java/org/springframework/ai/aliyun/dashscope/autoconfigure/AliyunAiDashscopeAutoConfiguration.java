@@ -2,14 +2,45 @@ package org.springframework.ai.aliyun.dashscope.autoconfigure;
 
 import com.alibaba.dashscope.aigc.generation.Generation;
 import com.alibaba.dashscope.embeddings.TextEmbedding;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.ai.aliyun.dashscope.AliyunAiDashscopeChatClient;
 import org.springframework.ai.aliyun.dashscope.AliyunAiDashscopeEmbeddingClient;
+import org.springframework.ai.aliyun.dashscope.AliyunAiDashscopeReactiveEmbeddingClient;
+import org.springframework.ai.aliyun.dashscope.AliyunAiDashscopeRoutingChatClient;
+import org.springframework.ai.aliyun.dashscope.cache.ChatResponseCache;
+import org.springframework.ai.aliyun.dashscope.cache.EmbeddingCache;
+import org.springframework.ai.aliyun.dashscope.cache.EmbeddingCacheOptions;
+import org.springframework.ai.aliyun.dashscope.cache.FileEmbeddingCache;
+import org.springframework.ai.aliyun.dashscope.cache.InMemoryChatResponseCache;
+import org.springframework.ai.aliyun.dashscope.cache.InMemoryEmbeddingCache;
+import org.springframework.ai.aliyun.dashscope.history.ChatClientHistorySummarizer;
+import org.springframework.ai.aliyun.dashscope.history.HistoryCompactionOptions;
+import org.springframework.ai.aliyun.dashscope.history.HistoryCompactor;
+import org.springframework.ai.aliyun.dashscope.history.HistorySummarizer;
+import org.springframework.ai.aliyun.dashscope.history.TokenBudgetHistoryCompactor;
+import org.springframework.ai.aliyun.dashscope.isolation.CircuitBreakerIsolation;
+import org.springframework.ai.aliyun.dashscope.isolation.DashscopeIsolation;
+import org.springframework.ai.aliyun.dashscope.metrics.AliyunAiDashscopeMetrics;
+import org.springframework.ai.aliyun.dashscope.metrics.MicrometerAliyunAiDashscopeMetrics;
+import org.springframework.ai.aliyun.dashscope.ratelimit.AdaptiveDashscopeRateLimiter;
+import org.springframework.ai.aliyun.dashscope.ratelimit.DashscopeRateLimiter;
+import org.springframework.ai.aliyun.dashscope.retry.DashscopeRetry;
+import org.springframework.ai.aliyun.dashscope.stream.Slf4jStreamTracer;
+import org.springframework.ai.aliyun.dashscope.stream.StreamTracer;
+import org.springframework.ai.aliyun.dashscope.token.QwenTokenEstimator;
+import org.springframework.ai.aliyun.dashscope.token.TokenEstimator;
+import org.springframework.ai.aliyun.dashscope.token.TokenizerOptions;
+import org.springframework.ai.aliyun.dashscope.tool.ToolCallExecutor;
+import org.springframework.ai.aliyun.dashscope.transport.DashscopeClients;
+import org.springframework.ai.aliyun.dashscope.transport.DashscopeGlobalTransportInitializer;
+import org.springframework.ai.aliyun.dashscope.util.DashscopeTaskExecutors;
 import org.springframework.ai.autoconfigure.mistralai.MistralAiEmbeddingProperties;
 import org.springframework.ai.autoconfigure.retry.SpringAiRetryAutoConfiguration;
 import org.springframework.ai.model.function.FunctionCallback;
 import org.springframework.ai.model.function.FunctionCallbackContext;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -17,40 +48,245 @@ import org.springframework.boot.autoconfigure.web.client.RestClientAutoConfigura
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
  * {@link AutoConfiguration Auto-configuration} for 百度千帆 Chat Client.
  */
-@AutoConfiguration(after = { RestClientAutoConfiguration.class, SpringAiRetryAutoConfiguration.class })
+@AutoConfiguration(after = { RestClientAutoConfiguration.class, SpringAiRetryAutoConfiguration.class },
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
 @EnableConfigurationProperties({ AliyunAiDashscopeChatProperties.class, AliyunAiDashscopeConnectionProperties.class, AliyunAiDashscopeEmbeddingProperties.class })
 @ConditionalOnClass(Generation.class)
 public class AliyunAiDashscopeAutoConfiguration {
 
+    /**
+     * Applies the transport settings to the SDK's JVM-global configuration, once per JVM.
+     */
+    @Bean(initMethod = "initialize")
+    @ConditionalOnMissingBean
+    public DashscopeGlobalTransportInitializer dashscopeGlobalTransportInitializer(AliyunAiDashscopeConnectionProperties connectionProperties) {
+        return new DashscopeGlobalTransportInitializer(connectionProperties.getTransport());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DashscopeClients dashscopeClients(AliyunAiDashscopeConnectionProperties connectionProperties,
+                                             DashscopeGlobalTransportInitializer transportInitializer) {
+        // Takes the initializer so that the SDK settings are in place before any client exists.
+        return new DashscopeClients(connectionProperties.getTransport());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DashscopeTaskExecutors dashscopeTaskExecutors() {
+        return new DashscopeTaskExecutors();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public Generation dashscopeGeneration(DashscopeClients dashscopeClients) {
+        return dashscopeClients.generation();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TextEmbedding dashscopeTextEmbedding(DashscopeClients dashscopeClients) {
+        return dashscopeClients.textEmbedding();
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = AliyunAiDashscopeChatProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
     public AliyunAiDashscopeChatClient qianfanAiChatClient(AliyunAiDashscopeChatProperties chatProperties,
+                                                           Generation generation,
                                                            List<FunctionCallback> toolFunctionCallbacks,
                                                            FunctionCallbackContext functionCallbackContext,
-                                                           ObjectProvider<RetryTemplate> retryTemplateProvider) {
+                                                           ObjectProvider<RetryTemplate> retryTemplateProvider,
+                                                           ObjectProvider<AliyunAiDashscopeMetrics> metricsProvider,
+                                                           DashscopeRateLimiter rateLimiter,
+                                                           DashscopeIsolation isolation,
+                                                           ObjectProvider<ChatResponseCache> responseCacheProvider,
+                                                           ObjectProvider<StreamTracer> streamTracerProvider,
+                                                           ObjectProvider<HistoryCompactor> historyCompactorProvider,
+                                                           ObjectProvider<TokenEstimator> tokenEstimatorProvider,
+                                                           ObjectProvider<DashscopeRetry> dashscopeRetryProvider,
+                                                           DashscopeTaskExecutors taskExecutors) {
         if (!CollectionUtils.isEmpty(toolFunctionCallbacks)) {
             chatProperties.getOptions().getFunctionCallbacks().addAll(toolFunctionCallbacks);
         }
-        Generation generation = new Generation();
-        RetryTemplate retryTemplate = retryTemplateProvider.getIfAvailable(() -> RetryTemplate.builder().build());
-        return new AliyunAiDashscopeChatClient(generation, chatProperties.getOptions(), functionCallbackContext, retryTemplate);
+        DashscopeRetry dashscopeRetry = dashscopeRetryProvider.getIfAvailable();
+        RetryTemplate retryTemplate = dashscopeRetry != null ? dashscopeRetry.retryTemplate()
+                : retryTemplateProvider.getIfAvailable(() -> RetryTemplate.builder().build());
+        AliyunAiDashscopeChatClient chatClient = new AliyunAiDashscopeChatClient(generation, chatProperties.getOptions(), functionCallbackContext, retryTemplate, chatProperties.getStream());
+        if (chatProperties.getTools().isParallel()) {
+            chatClient.setToolCallExecutor(new ToolCallExecutor(chatProperties.getTools(), taskExecutors.get(DashscopeTaskExecutors.TOOLS)));
+        }
+        chatClient.setAsyncExecutor(taskExecutors.get(DashscopeTaskExecutors.CHAT_ASYNC));
+        metricsProvider.ifAvailable(chatClient::setMetrics);
+        chatClient.setRateLimiter(rateLimiter);
+        chatClient.setIsolation(isolation);
+        responseCacheProvider.ifAvailable(chatClient::setResponseCache);
+        streamTracerProvider.ifAvailable(chatClient::setStreamTracer);
+        historyCompactorProvider.ifAvailable(chatClient::setHistoryCompactor);
+        if (dashscopeRetry != null) {
+            chatClient.setStreamRetry(dashscopeRetry);
+        }
+        tokenEstimatorProvider.ifAvailable(chatClient::setTokenEstimator);
+        chatClient.setMaxInputTokens(chatProperties.getMaxInputTokens());
+        chatClient.setCoalesceRequests(chatProperties.isCoalesceRequests());
+        return chatClient;
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(AliyunAiDashscopeChatClient.class)
+    @ConditionalOnProperty(prefix = AliyunAiDashscopeChatProperties.CONFIG_PREFIX + ".routing", name = "enabled", havingValue = "true")
+    public AliyunAiDashscopeRoutingChatClient dashscopeRoutingChatClient(AliyunAiDashscopeChatClient chatClient,
+                                                                         AliyunAiDashscopeChatProperties chatProperties,
+                                                                         ObjectProvider<TokenEstimator> tokenEstimatorProvider) {
+        AliyunAiDashscopeRoutingChatClient routingChatClient = new AliyunAiDashscopeRoutingChatClient(chatClient, chatProperties.getRouting());
+        tokenEstimatorProvider.ifAvailable(routingChatClient::setTokenEstimator);
+        return routingChatClient;
     }
 
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = MistralAiEmbeddingProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
-    public AliyunAiDashscopeEmbeddingClient qianfanAiEmbeddingClient(AliyunAiDashscopeEmbeddingProperties embeddingProperties) {
-        TextEmbedding embedding = new TextEmbedding();
-        return new AliyunAiDashscopeEmbeddingClient(embedding, embeddingProperties.getMetadataMode(), embeddingProperties.getOptions());
+    public AliyunAiDashscopeEmbeddingClient qianfanAiEmbeddingClient(AliyunAiDashscopeEmbeddingProperties embeddingProperties,
+                                                                     TextEmbedding embedding,
+                                                                     ObjectProvider<RetryTemplate> retryTemplateProvider,
+                                                                     ObjectProvider<AliyunAiDashscopeMetrics> metricsProvider,
+                                                                     DashscopeRateLimiter rateLimiter,
+                                                                     DashscopeIsolation isolation,
+                                                                     ObjectProvider<EmbeddingCache> embeddingCacheProvider,
+                                                                     ObjectProvider<TokenEstimator> tokenEstimatorProvider,
+                                                                     ObjectProvider<DashscopeRetry> dashscopeRetryProvider,
+                                                                     DashscopeTaskExecutors taskExecutors) {
+        DashscopeRetry dashscopeRetry = dashscopeRetryProvider.getIfAvailable();
+        RetryTemplate retryTemplate = dashscopeRetry != null ? dashscopeRetry.retryTemplate()
+                : retryTemplateProvider.getIfAvailable(() -> RetryTemplate.builder().build());
+        AliyunAiDashscopeEmbeddingClient embeddingClient = new AliyunAiDashscopeEmbeddingClient(embedding, embeddingProperties.getMetadataMode(), embeddingProperties.getOptions(),
+                embeddingProperties.getBatch(), retryTemplate, taskExecutors.get(DashscopeTaskExecutors.EMBEDDING));
+        embeddingClient.setAsyncExecutor(taskExecutors.get(DashscopeTaskExecutors.EMBEDDING_ASYNC));
+        metricsProvider.ifAvailable(embeddingClient::setMetrics);
+        embeddingClient.setRateLimiter(rateLimiter);
+        embeddingClient.setIsolation(isolation);
+        embeddingCacheProvider.ifAvailable(embeddingClient::setEmbeddingCache);
+        tokenEstimatorProvider.ifAvailable(embeddingClient::setTokenEstimator);
+        embeddingClient.setCoalesceRequests(embeddingProperties.isCoalesceRequests());
+        embeddingClient.setMicroBatchOptions(embeddingProperties.getMicroBatch());
+        return embeddingClient;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(AliyunAiDashscopeEmbeddingClient.class)
+    public AliyunAiDashscopeReactiveEmbeddingClient qianfanAiReactiveEmbeddingClient(AliyunAiDashscopeEmbeddingClient embeddingClient,
+                                                                                     AliyunAiDashscopeEmbeddingProperties embeddingProperties,
+                                                                                     DashscopeTaskExecutors taskExecutors) {
+        return new AliyunAiDashscopeReactiveEmbeddingClient(embeddingClient, embeddingProperties.getBatch(),
+                Schedulers.fromExecutor(taskExecutors.get(DashscopeTaskExecutors.EMBEDDING_REACTIVE)));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TokenEstimator dashscopeTokenEstimator(AliyunAiDashscopeConnectionProperties connectionProperties) {
+        TokenizerOptions tokenizer = connectionProperties.getTokenizer();
+        if (!StringUtils.hasText(tokenizer.getVocabulary())) {
+            return new QwenTokenEstimator();
+        }
+        Resource vocabulary = new DefaultResourceLoader().getResource(tokenizer.getVocabulary());
+        try (InputStream inputStream = vocabulary.getInputStream()) {
+            return QwenTokenEstimator.fromVocabulary(inputStream, tokenizer.getCacheSize());
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Failed to load Qwen vocabulary from " + tokenizer.getVocabulary(), ex);
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = AliyunAiDashscopeConnectionProperties.CONFIG_PREFIX + ".retry", name = "enabled", havingValue = "true")
+    public DashscopeRetry dashscopeRetry(AliyunAiDashscopeConnectionProperties connectionProperties) {
+        return new DashscopeRetry(connectionProperties.getRetry());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DashscopeRateLimiter dashscopeRateLimiter(AliyunAiDashscopeConnectionProperties connectionProperties) {
+        if (!connectionProperties.getRateLimit().isEnabled()) {
+            return DashscopeRateLimiter.UNLIMITED;
+        }
+        return new AdaptiveDashscopeRateLimiter(connectionProperties.getRateLimit());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DashscopeIsolation dashscopeIsolation(AliyunAiDashscopeConnectionProperties connectionProperties) {
+        if (!connectionProperties.getIsolation().isEnabled()) {
+            return DashscopeIsolation.NONE;
+        }
+        return new CircuitBreakerIsolation(connectionProperties.getIsolation());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = AliyunAiDashscopeChatProperties.CONFIG_PREFIX + ".cache", name = "enabled", havingValue = "true")
+    public ChatResponseCache dashscopeChatResponseCache(AliyunAiDashscopeChatProperties chatProperties) {
+        return new InMemoryChatResponseCache(chatProperties.getCache());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = AliyunAiDashscopeChatProperties.CONFIG_PREFIX + ".history", name = "enabled", havingValue = "true")
+    public HistoryCompactor dashscopeHistoryCompactor(AliyunAiDashscopeChatProperties chatProperties,
+                                                      ObjectProvider<TokenEstimator> tokenEstimatorProvider,
+                                                      ObjectProvider<HistorySummarizer> summarizerProvider,
+                                                      ObjectProvider<AliyunAiDashscopeChatClient> chatClientProvider) {
+        HistoryCompactionOptions historyOptions = chatProperties.getHistory();
+        HistorySummarizer summarizer = null;
+        if (historyOptions.isSummarize()) {
+            // Resolved on first use, the chat client itself depends on this compactor.
+            summarizer = summarizerProvider.getIfAvailable(() -> (model, dropped) ->
+                    new ChatClientHistorySummarizer(chatClientProvider.getObject()).summarize(model, dropped));
+        }
+        return new TokenBudgetHistoryCompactor(historyOptions, tokenEstimatorProvider.getIfAvailable(() -> TokenEstimator.DEFAULT), summarizer);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = AliyunAiDashscopeChatProperties.CONFIG_PREFIX + ".trace", name = "enabled", havingValue = "true")
+    public StreamTracer dashscopeStreamTracer(AliyunAiDashscopeChatProperties chatProperties) {
+        return new Slf4jStreamTracer(chatProperties.getTrace());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = AliyunAiDashscopeEmbeddingProperties.CONFIG_PREFIX + ".cache", name = "enabled", havingValue = "true")
+    public EmbeddingCache dashscopeEmbeddingCache(AliyunAiDashscopeEmbeddingProperties embeddingProperties) {
+        EmbeddingCacheOptions cacheOptions = embeddingProperties.getCache();
+        return switch (cacheOptions.getStorage()) {
+            case HEAP -> new InMemoryEmbeddingCache(cacheOptions.getMaxEntries(), false);
+            case OFF_HEAP -> new InMemoryEmbeddingCache(cacheOptions.getMaxEntries(), true);
+            case FILE -> {
+                Assert.hasText(cacheOptions.getPath(), "Embedding cache path must be set when storage is FILE");
+                yield new FileEmbeddingCache(Path.of(cacheOptions.getPath()), cacheOptions.getMaxEntries());
+            }
+        };
     }
 
     @Bean
@@ -61,4 +297,18 @@ public class AliyunAiDashscopeAutoConfiguration {
         return manager;
     }
 
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "spring.ai.aliyunai.dashscope.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public AliyunAiDashscopeMetrics aliyunAiDashscopeMetrics(MeterRegistry meterRegistry) {
+            return new MicrometerAliyunAiDashscopeMetrics(meterRegistry);
+        }
+
+    }
+
 }
@@ -1,6 +1,12 @@
 package org.springframework.ai.aliyun.dashscope.autoconfigure;
 
 import org.springframework.ai.aliyun.dashscope.AliyunAiDashscopeChatOptions;
+import org.springframework.ai.aliyun.dashscope.cache.ChatCacheOptions;
+import org.springframework.ai.aliyun.dashscope.history.HistoryCompactionOptions;
+import org.springframework.ai.aliyun.dashscope.routing.RoutingOptions;
+import org.springframework.ai.aliyun.dashscope.stream.StreamTraceOptions;
+import org.springframework.ai.aliyun.dashscope.stream.StreamingOptions;
+import org.springframework.ai.aliyun.dashscope.tool.ToolExecutionOptions;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -20,6 +26,16 @@ public class AliyunAiDashscopeChatProperties {
      */
     private boolean enabled = true;
 
+    /**
+     * Reject prompts whose estimated input tokens exceed this limit before sending them, 0 for no limit.
+     */
+    private long maxInputTokens = 0;
+
+    /**
+     * Share one upstream call, or one stream, between concurrent identical requests without functions.
+     */
+    private boolean coalesceRequests = false;
+
     /**
      * Client lever 百度千帆 options. Use this property to configure generative temperature,
      * topK and topP and alike parameters. The null values are ignored defaulting to the
@@ -32,6 +48,42 @@ public class AliyunAiDashscopeChatProperties {
             .withTopP(DEFAULT_TOP_P)
             .build();
 
+    /**
+     * Streaming buffer, overflow and retry-before-first-chunk settings.
+     */
+    @NestedConfigurationProperty
+    private StreamingOptions stream = StreamingOptions.builder().build();
+
+    /**
+     * Sampled per-stream tracing: counters and timings, chunk contents only for opted-in streams.
+     */
+    @NestedConfigurationProperty
+    private StreamTraceOptions trace = StreamTraceOptions.builder().build();
+
+    /**
+     * Execution of the tool calls returned in one assistant message.
+     */
+    @NestedConfigurationProperty
+    private ToolExecutionOptions tools = ToolExecutionOptions.builder().build();
+
+    /**
+     * In-memory cache of deterministic blocking chat responses.
+     */
+    @NestedConfigurationProperty
+    private ChatCacheOptions cache = ChatCacheOptions.builder().build();
+
+    /**
+     * Token budget and truncation strategy of the conversation history sent with each request.
+     */
+    @NestedConfigurationProperty
+    private HistoryCompactionOptions history = HistoryCompactionOptions.builder().build();
+
+    /**
+     * Model routing by prompt size and latency SLO, with failover on throttling or timeouts.
+     */
+    @NestedConfigurationProperty
+    private RoutingOptions routing = RoutingOptions.builder().build();
+
     public AliyunAiDashscopeChatOptions getOptions() {
         return this.options;
     }
@@ -40,6 +92,70 @@ public class AliyunAiDashscopeChatProperties {
         this.options = options;
     }
 
+    public StreamingOptions getStream() {
+        return this.stream;
+    }
+
+    public void setStream(StreamingOptions stream) {
+        this.stream = stream;
+    }
+
+    public StreamTraceOptions getTrace() {
+        return this.trace;
+    }
+
+    public void setTrace(StreamTraceOptions trace) {
+        this.trace = trace;
+    }
+
+    public ToolExecutionOptions getTools() {
+        return this.tools;
+    }
+
+    public void setTools(ToolExecutionOptions tools) {
+        this.tools = tools;
+    }
+
+    public ChatCacheOptions getCache() {
+        return this.cache;
+    }
+
+    public void setCache(ChatCacheOptions cache) {
+        this.cache = cache;
+    }
+
+    public HistoryCompactionOptions getHistory() {
+        return this.history;
+    }
+
+    public void setHistory(HistoryCompactionOptions history) {
+        this.history = history;
+    }
+
+    public RoutingOptions getRouting() {
+        return this.routing;
+    }
+
+    public void setRouting(RoutingOptions routing) {
+        this.routing = routing;
+    }
+
+    public long getMaxInputTokens() {
+        return this.maxInputTokens;
+    }
+
+    public void setMaxInputTokens(long maxInputTokens) {
+        this.maxInputTokens = maxInputTokens;
+    }
+
+    public boolean isCoalesceRequests() {
+        return this.coalesceRequests;
+    }
+
+    public void setCoalesceRequests(boolean coalesceRequests) {
+        this.coalesceRequests = coalesceRequests;
+    }
+
     public boolean isEnabled() {
         return this.enabled;
     }
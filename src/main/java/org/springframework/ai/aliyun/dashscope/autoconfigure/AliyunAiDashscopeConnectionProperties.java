@@ -1,34 +1,50 @@
 package org.springframework.ai.aliyun.dashscope.autoconfigure;
 
-import com.baidubce.qianfan.core.auth.Auth;
-import com.baidubce.qianfan.model.RateLimitConfig;
-import com.baidubce.qianfan.model.RetryConfig;
-import com.huaweicloud.pangu.dev.sdk.api.llms.LLMs;
+import org.springframework.ai.aliyun.dashscope.isolation.IsolationOptions;
+import org.springframework.ai.aliyun.dashscope.ratelimit.RateLimitOptions;
+import org.springframework.ai.aliyun.dashscope.retry.RetryOptions;
+import org.springframework.ai.aliyun.dashscope.token.TokenizerOptions;
+import org.springframework.ai.aliyun.dashscope.transport.TransportOptions;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 @ConfigurationProperties(AliyunAiDashscopeConnectionProperties.CONFIG_PREFIX)
 public class AliyunAiDashscopeConnectionProperties {
 
-    public static final String CONFIG_PREFIX = "spring.ai.qianfan";
+    public static final String CONFIG_PREFIX = "spring.ai.aliyunai.dashscope";
 
-    private LLMName llmName = LLMName.PANGU;
     private String accessKey;
     private String secretKey;
 
+    /**
+     * Client-side QPS / TPM limits per model, shared by the chat and embedding clients.
+     */
     @NestedConfigurationProperty
-    private RetryConfig retry = new RetryConfig();
+    private RateLimitOptions rateLimit = RateLimitOptions.builder().build();
 
+    /**
+     * Per-model bulkheads and circuit breakers, shared by the chat and embedding clients.
+     */
     @NestedConfigurationProperty
-    private RateLimitConfig rateLimit = new RateLimitConfig();
+    private IsolationOptions isolation = IsolationOptions.builder().build();
 
-    public AuthType getType() {
-        return type;
-    }
+    /**
+     * Error-classified retries with decorrelated jitter and a per-request budget, shared by the chat and embedding clients.
+     */
+    @NestedConfigurationProperty
+    private RetryOptions retry = RetryOptions.builder().build();
 
-    public void setType(AuthType type) {
-        this.type = type;
-    }
+    /**
+     * Protocol, timeouts and connection pool of the DashScope SDK, shared by the chat and embedding clients.
+     */
+    @NestedConfigurationProperty
+    private TransportOptions transport = TransportOptions.builder().build();
+
+    /**
+     * Offline Qwen token counting, shared by the chat and embedding clients.
+     */
+    @NestedConfigurationProperty
+    private TokenizerOptions tokenizer = TokenizerOptions.builder().build();
 
     public String getAccessKey() {
         return accessKey;
@@ -46,34 +62,44 @@ public class AliyunAiDashscopeConnectionProperties {
         this.secretKey = secretKey;
     }
 
-    public RetryConfig getRetry() {
+    public RateLimitOptions getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(RateLimitOptions rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    public IsolationOptions getIsolation() {
+        return isolation;
+    }
+
+    public void setIsolation(IsolationOptions isolation) {
+        this.isolation = isolation;
+    }
+
+    public RetryOptions getRetry() {
         return retry;
     }
 
-    public void setRetry(RetryConfig retry) {
+    public void setRetry(RetryOptions retry) {
         this.retry = retry;
     }
 
-    public RateLimitConfig getRateLimit() {
-        return rateLimit;
+    public TokenizerOptions getTokenizer() {
+        return tokenizer;
     }
 
-    public void setRateLimit(RateLimitConfig rateLimit) {
-        this.rateLimit = rateLimit;
+    public void setTokenizer(TokenizerOptions tokenizer) {
+        this.tokenizer = tokenizer;
     }
 
-    public enum LLMName {
-        PANGU(LLMs.PANGU),
-        OPENAI(LLMs.OPENAI),
-        GALLERY(LLMs.OPENAI);
-
-        private String value;
-        LLMName(String value) {
-            this.value = value;
-        }
+    public TransportOptions getTransport() {
+        return transport;
+    }
 
-        public String getValue() {
-            return value;
-        }
+    public void setTransport(TransportOptions transport) {
+        this.transport = transport;
     }
+
 }
@@ -1,6 +1,9 @@
 package org.springframework.ai.aliyun.dashscope.autoconfigure;
 
 import org.springframework.ai.aliyun.dashscope.AliyunAiDashscopeEmbeddingOptions;
+import org.springframework.ai.aliyun.dashscope.cache.EmbeddingCacheOptions;
+import org.springframework.ai.aliyun.dashscope.embedding.EmbeddingBatchOptions;
+import org.springframework.ai.aliyun.dashscope.embedding.MicroBatchOptions;
 import org.springframework.ai.document.MetadataMode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -17,6 +20,11 @@ public class AliyunAiDashscopeEmbeddingProperties {
      */
     private boolean enabled = true;
 
+    /**
+     * Share one upstream call between concurrent requests embedding the same texts.
+     */
+    private boolean coalesceRequests = false;
+
     public MetadataMode metadataMode = MetadataMode.EMBED;
 
     /**
@@ -29,6 +37,24 @@ public class AliyunAiDashscopeEmbeddingProperties {
             .withModel(DEFAULT_EMBEDDING_MODEL)
             .build();
 
+    /**
+     * Batching of large embedding requests: texts per request, token budget and concurrency.
+     */
+    @NestedConfigurationProperty
+    private EmbeddingBatchOptions batch = EmbeddingBatchOptions.builder().build();
+
+    /**
+     * Gathering of concurrent single-document requests into one batch: batch size and maximum delay.
+     */
+    @NestedConfigurationProperty
+    private MicroBatchOptions microBatch = MicroBatchOptions.builder().build();
+
+    /**
+     * Cache of embedding vectors keyed by model, text type and content hash.
+     */
+    @NestedConfigurationProperty
+    private EmbeddingCacheOptions cache = EmbeddingCacheOptions.builder().build();
+
     public AliyunAiDashscopeEmbeddingOptions getOptions() {
         return this.options;
     }
@@ -37,6 +63,30 @@ public class AliyunAiDashscopeEmbeddingProperties {
         this.options = options;
     }
 
+    public EmbeddingBatchOptions getBatch() {
+        return this.batch;
+    }
+
+    public void setBatch(EmbeddingBatchOptions batch) {
+        this.batch = batch;
+    }
+
+    public MicroBatchOptions getMicroBatch() {
+        return this.microBatch;
+    }
+
+    public void setMicroBatch(MicroBatchOptions microBatch) {
+        this.microBatch = microBatch;
+    }
+
+    public EmbeddingCacheOptions getCache() {
+        return this.cache;
+    }
+
+    public void setCache(EmbeddingCacheOptions cache) {
+        this.cache = cache;
+    }
+
     public MetadataMode getMetadataMode() {
         return this.metadataMode;
     }
@@ -45,6 +95,14 @@ public class AliyunAiDashscopeEmbeddingProperties {
         this.metadataMode = metadataMode;
     }
 
+    public boolean isCoalesceRequests() {
+        return this.coalesceRequests;
+    }
+
+    public void setCoalesceRequests(boolean coalesceRequests) {
+        this.coalesceRequests = coalesceRequests;
+    }
+
     public boolean isEnabled() {
         return this.enabled;
     }
@@ -0,0 +1,116 @@
+package org.springframework.ai.aliyun.dashscope.cache;
+
+import com.alibaba.dashscope.aigc.generation.GenerationParam;
+import com.alibaba.dashscope.common.Message;
+import com.alibaba.dashscope.tools.ToolBase;
+import com.alibaba.dashscope.tools.ToolCallBase;
+import com.alibaba.dashscope.tools.ToolCallFunction;
+import com.alibaba.dashscope.tools.ToolFunction;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Stable keys for {@link GenerationParam}s: a SHA-256 of the messages, including their tool calls, the model,
+ * sampling options and tools.
+ * Every field is length-prefixed so that different requests cannot produce the same canonical form.
+ */
+public class ChatCacheKey {
+
+    public static String of(GenerationParam request) {
+        StringBuilder canonical = new StringBuilder(256);
+        append(canonical, request.getModel());
+        append(canonical, request.getResultFormat());
+        append(canonical, request.getTemperature());
+        append(canonical, request.getTopP());
+        append(canonical, request.getTopK());
+        append(canonical, request.getSeed());
+        append(canonical, request.getMaxTokens());
+        append(canonical, request.getRepetitionPenalty());
+        append(canonical, request.getEnableSearch());
+        append(canonical, request.getIncrementalOutput());
+        appendList(canonical, request.getStopStrings());
+        append(canonical, request.getToolChoice());
+        List<ToolBase> tools = request.getTools();
+        canonical.append(tools != null ? tools.size() : -1).append('|');
+        if (tools != null) {
+            for (ToolBase tool : tools) {
+                append(canonical, tool.getType());
+                if (tool instanceof ToolFunction toolFunction && toolFunction.getFunction() != null) {
+                    append(canonical, toolFunction.getFunction().getName());
+                    append(canonical, toolFunction.getFunction().getDescription());
+                    append(canonical, toolFunction.getFunction().getParameters());
+                }
+            }
+        }
+        List<Message> messages = request.getMessages();
+        canonical.append(messages != null ? messages.size() : -1).append('|');
+        if (messages != null) {
+            for (Message message : messages) {
+                append(canonical, message.getRole());
+                append(canonical, message.getContent());
+                append(canonical, message.getName());
+                append(canonical, message.getToolCallId());
+                appendToolCalls(canonical, message.getToolCalls());
+            }
+        }
+        return sha256(canonical.toString());
+    }
+
+    /**
+     * A request is deterministic enough to cache when it samples greedily, with a zero temperature or top-k of 1,
+     * and does not ask for internet search results. A fixed seed alone is not enough: with a temperature above 0
+     * DashScope does not guarantee the same answer for the same seed.
+     */
+    public static boolean isDeterministic(GenerationParam request) {
+        if (Boolean.TRUE.equals(request.getEnableSearch())) {
+            return false;
+        }
+        return (request.getTemperature() != null && request.getTemperature() <= 0f)
+                || (request.getTopK() != null && request.getTopK() == 1);
+    }
+
+    private static void appendToolCalls(StringBuilder canonical, List<ToolCallBase> toolCalls) {
+        canonical.append(toolCalls != null ? toolCalls.size() : -1).append('|');
+        if (toolCalls != null) {
+            for (ToolCallBase toolCall : toolCalls) {
+                append(canonical, toolCall.getType());
+                if (toolCall instanceof ToolCallFunction toolCallFunction) {
+                    append(canonical, toolCallFunction.getId());
+                    append(canonical, toolCallFunction.getFunction() != null ? toolCallFunction.getFunction().getName() : null);
+                    append(canonical, toolCallFunction.getFunction() != null ? toolCallFunction.getFunction().getArguments() : null);
+                }
+            }
+        }
+    }
+
+    private static void appendList(StringBuilder canonical, List<String> values) {
+        canonical.append(values != null ? values.size() : -1).append('|');
+        if (values != null) {
+            values.forEach(value -> append(canonical, value));
+        }
+    }
+
+    private static void append(StringBuilder canonical, Object value) {
+        if (value == null) {
+            canonical.append("-1|");
+            return;
+        }
+        String text = value.toString();
+        canonical.append(text.length()).append(':').append(text).append('|');
+    }
+
+    private static String sha256(String canonical) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+}
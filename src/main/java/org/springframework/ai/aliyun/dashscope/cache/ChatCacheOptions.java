@@ -0,0 +1,97 @@
+package org.springframework.ai.aliyun.dashscope.cache;
+
+import java.time.Duration;
+
+public class ChatCacheOptions {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    /**
+     * 是否缓存同步调用（call）的响应。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 内存缓存最多保存的响应数，超出时淘汰最久未使用的响应。
+     */
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    /**
+     * 缓存响应的有效期。
+     */
+    private Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    /**
+     * 是否只缓存确定性的请求（temperature 为 0 或 top_k 为 1 的贪心采样，且未开启互联网搜索）；带工具的请求总是不缓存。
+     */
+    private boolean deterministicOnly = true;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final ChatCacheOptions options = new ChatCacheOptions();
+
+        public Builder withEnabled(boolean enabled) {
+            this.options.setEnabled(enabled);
+            return this;
+        }
+
+        public Builder withMaxSize(int maxSize) {
+            this.options.setMaxSize(maxSize);
+            return this;
+        }
+
+        public Builder withTimeToLive(Duration timeToLive) {
+            this.options.setTimeToLive(timeToLive);
+            return this;
+        }
+
+        public Builder withDeterministicOnly(boolean deterministicOnly) {
+            this.options.setDeterministicOnly(deterministicOnly);
+            return this;
+        }
+
+        public ChatCacheOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public boolean isDeterministicOnly() {
+        return deterministicOnly;
+    }
+
+    public void setDeterministicOnly(boolean deterministicOnly) {
+        this.deterministicOnly = deterministicOnly;
+    }
+
+}
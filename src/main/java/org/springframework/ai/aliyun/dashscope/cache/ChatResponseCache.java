@@ -0,0 +1,49 @@
+package org.springframework.ai.aliyun.dashscope.cache;
+
+import com.alibaba.dashscope.aigc.generation.GenerationParam;
+import org.springframework.ai.chat.ChatResponse;
+
+/**
+ * SPI for caching {@link ChatResponse}s of the blocking chat path, keyed by {@link ChatCacheKey}.
+ * Implement it to back the cache with an external store. The chat client uses {@link #NONE} unless a
+ * cache is set.
+ */
+public interface ChatResponseCache {
+
+    ChatResponseCache NONE = new ChatResponseCache() {
+
+        @Override
+        public boolean isCacheable(GenerationParam request) {
+            return false;
+        }
+
+        @Override
+        public ChatResponse get(String key) {
+            return null;
+        }
+
+        @Override
+        public void put(String key, ChatResponse response) {
+        }
+
+    };
+
+    /**
+     * Whether the response of this request may be served from or stored in the cache.
+     * Defaults to deterministic requests only, see {@link ChatCacheKey#isDeterministic(GenerationParam)}.
+     * Requests with tools are never cached by the chat client, whatever this returns, so that their tool calls
+     * always run.
+     */
+    default boolean isCacheable(GenerationParam request) {
+        return ChatCacheKey.isDeterministic(request);
+    }
+
+    /**
+     * @param key the request key
+     * @return the cached response, or {@code null} on a miss
+     */
+    ChatResponse get(String key);
+
+    void put(String key, ChatResponse response);
+
+}
@@ -0,0 +1,30 @@
+package org.springframework.ai.aliyun.dashscope.cache;
+
+/**
+ * SPI for caching embedding vectors by {@link EmbeddingCacheKey}. The embedding client uses {@link #NONE}
+ * unless a cache is set, and sends only the cache misses of a request to DashScope.
+ */
+public interface EmbeddingCache {
+
+    EmbeddingCache NONE = new EmbeddingCache() {
+
+        @Override
+        public float[] get(EmbeddingCacheKey key) {
+            return null;
+        }
+
+        @Override
+        public void put(EmbeddingCacheKey key, float[] vector) {
+        }
+
+    };
+
+    /**
+     * @param key the cache key
+     * @return the cached vector, or {@code null} on a miss
+     */
+    float[] get(EmbeddingCacheKey key);
+
+    void put(EmbeddingCacheKey key, float[] vector);
+
+}
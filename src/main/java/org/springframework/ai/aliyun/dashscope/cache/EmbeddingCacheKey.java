@@ -0,0 +1,24 @@
+package org.springframework.ai.aliyun.dashscope.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Identifies a vector by model, text type and the SHA-256 of the embedded text.
+ */
+public record EmbeddingCacheKey(String model, String textType, String contentHash) {
+
+    public static EmbeddingCacheKey of(String model, String textType, String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String contentHash = HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+            return new EmbeddingCacheKey(model != null ? model : "", textType != null ? textType : "", contentHash);
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.springframework.ai.aliyun.dashscope.cache;
+
+public class EmbeddingCacheOptions {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    /**
+     * 是否缓存文本向量。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 最多缓存的向量数，超出时淘汰最久未使用的向量。
+     */
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    /**
+     * 向量存储方式：HEAP 堆内，OFF_HEAP 堆外，FILE 持久化到文件，重启后仍然有效。
+     */
+    private Storage storage = Storage.HEAP;
+
+    /**
+     * storage 为 FILE 时的缓存文件路径。
+     */
+    private String path;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final EmbeddingCacheOptions options = new EmbeddingCacheOptions();
+
+        public Builder withEnabled(boolean enabled) {
+            this.options.setEnabled(enabled);
+            return this;
+        }
+
+        public Builder withMaxEntries(int maxEntries) {
+            this.options.setMaxEntries(maxEntries);
+            return this;
+        }
+
+        public Builder withStorage(Storage storage) {
+            this.options.setStorage(storage);
+            return this;
+        }
+
+        public Builder withPath(String path) {
+            this.options.setPath(path);
+            return this;
+        }
+
+        public EmbeddingCacheOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public void setStorage(Storage storage) {
+        this.storage = storage;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public enum Storage {
+        HEAP, OFF_HEAP, FILE
+    }
+
+}
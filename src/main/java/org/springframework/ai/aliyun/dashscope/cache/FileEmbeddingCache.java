@@ -0,0 +1,308 @@
+package org.springframework.ai.aliyun.dashscope.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Embedding cache persisted to an append-only file so that it survives restarts. Only the index of
+ * record offsets lives on the heap; vectors are read back from the file on demand. The index is an LRU
+ * bounded by {@code maxEntries}. Space of evicted or overwritten records is reclaimed by rewriting the file
+ * once it holds more dead than live bytes, on open and after writes.
+ */
+public class FileEmbeddingCache implements EmbeddingCache, Closeable {
+
+    private static final int MAGIC = 0x44534543;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 8;
+
+    private static final int HASH_BYTES = 32;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Path path;
+
+    private final Map<EmbeddingCacheKey, Location> index;
+
+    private FileChannel channel;
+
+    private long end;
+
+    /**
+     * Bytes of the records in the index; everything else after the header is dead.
+     */
+    private long liveBytes;
+
+    public FileEmbeddingCache(Path path, int maxEntries) {
+        Assert.notNull(path, "path must not be null");
+        Assert.isTrue(maxEntries > 0, "maxEntries must be greater than 0");
+        this.path = path;
+        this.index = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EmbeddingCacheKey, Location> eldest) {
+                if (size() > maxEntries) {
+                    liveBytes -= eldest.getValue().recordBytes();
+                    return true;
+                }
+                return false;
+            }
+        };
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            open();
+            if (isMostlyDead()) {
+                compact();
+            }
+        }
+        catch (IOException ex) {
+            throw new DashscopeSDKException("Failed to open embedding cache file: " + path, ex);
+        }
+    }
+
+    @Override
+    public synchronized float[] get(EmbeddingCacheKey key) {
+        Location location = this.index.get(key);
+        if (location == null) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(location.dimensions() * Float.BYTES);
+            readFully(buffer, location.vectorOffset());
+            float[] vector = new float[location.dimensions()];
+            buffer.flip().asFloatBuffer().get(vector);
+            return vector;
+        }
+        catch (IOException ex) {
+            log.warn("Failed to read embedding from cache file {}", this.path, ex);
+            remove(key);
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void put(EmbeddingCacheKey key, float[] vector) {
+        byte[] model = key.model().getBytes(StandardCharsets.UTF_8);
+        byte[] textType = key.textType().getBytes(StandardCharsets.UTF_8);
+        if (model.length > Short.MAX_VALUE || textType.length > Short.MAX_VALUE) {
+            log.warn("Not caching embedding of model '{}': model or text type longer than {} bytes", key.model(), Short.MAX_VALUE);
+            return;
+        }
+        ByteBuffer record = ByteBuffer.allocate(recordBytes(model.length, textType.length, vector.length));
+        record.putShort((short) model.length).put(model)
+                .putShort((short) textType.length).put(textType)
+                .put(HexFormat.of().parseHex(key.contentHash()))
+                .putInt(vector.length);
+        record.asFloatBuffer().put(vector);
+        record.position(0);
+        try {
+            long offset = this.end;
+            writeFully(record, offset);
+            this.end += record.capacity();
+            index(key, new Location(offset, vector.length, record.capacity()));
+        }
+        catch (IOException ex) {
+            log.warn("Failed to write embedding to cache file {}", this.path, ex);
+            return;
+        }
+        if (isMostlyDead()) {
+            try {
+                compact();
+            }
+            catch (IOException ex) {
+                log.warn("Failed to compact embedding cache file {}", this.path, ex);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return this.index.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.channel.close();
+    }
+
+    private void open() throws IOException {
+        this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (this.channel.size() < HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+            this.channel.truncate(0);
+            writeFully(header, 0);
+            this.end = HEADER_BYTES;
+            return;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not an embedding cache file: " + this.path);
+        }
+        replay();
+    }
+
+    /**
+     * Rebuild the index from the records; later records win. A truncated last record, left by a crash
+     * during a write, is cut off.
+     */
+    private void replay() throws IOException {
+        long size = this.channel.size();
+        long position = HEADER_BYTES;
+        ByteBuffer length = ByteBuffer.allocate(Short.BYTES);
+        while (position < size) {
+            try {
+                length.clear();
+                readFully(length, position);
+                int modelLength = length.flip().getShort();
+                // A negative or oversized length can only come from a torn or corrupt record.
+                if (modelLength < 0 || position + recordBytes(modelLength, 0, 0) > size) {
+                    break;
+                }
+                ByteBuffer model = ByteBuffer.allocate(modelLength);
+                readFully(model, position + Short.BYTES);
+                length.clear();
+                readFully(length, position + Short.BYTES + modelLength);
+                int textTypeLength = length.flip().getShort();
+                if (textTypeLength < 0 || position + recordBytes(modelLength, textTypeLength, 0) > size) {
+                    break;
+                }
+                ByteBuffer rest = ByteBuffer.allocate(textTypeLength + HASH_BYTES + Integer.BYTES);
+                readFully(rest, position + 2L * Short.BYTES + modelLength);
+                rest.flip();
+                byte[] textType = new byte[textTypeLength];
+                byte[] hash = new byte[HASH_BYTES];
+                rest.get(textType).get(hash);
+                int dimensions = rest.getInt();
+                if (dimensions < 0 || position + recordBytes(modelLength, textTypeLength, 0) + (long) dimensions * Float.BYTES > size) {
+                    break;
+                }
+                int recordBytes = recordBytes(modelLength, textTypeLength, dimensions);
+                EmbeddingCacheKey key = new EmbeddingCacheKey(new String(model.array(), StandardCharsets.UTF_8),
+                        new String(textType, StandardCharsets.UTF_8), HexFormat.of().formatHex(hash));
+                index(key, new Location(position, dimensions, recordBytes));
+                position += recordBytes;
+            }
+            catch (IOException ex) {
+                break;
+            }
+        }
+        if (position < size) {
+            log.warn("Truncating incomplete or corrupt record at offset {} of embedding cache file {}", position, this.path);
+            this.channel.truncate(position);
+        }
+        this.end = position;
+    }
+
+    /**
+     * Copy the live records, in LRU order, to a new file and swap it in. The current file is kept until the
+     * copy is complete, so a failed compaction leaves the cache as it was.
+     */
+    private void compact() throws IOException {
+        Path compacted = this.path.resolveSibling(this.path.getFileName() + ".compact");
+        Map<EmbeddingCacheKey, Location> live = new LinkedHashMap<>();
+        long position = HEADER_BYTES;
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            writeFully(target, ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip(), 0);
+            for (Map.Entry<EmbeddingCacheKey, Location> entry : this.index.entrySet()) {
+                Location location = entry.getValue();
+                ByteBuffer record = ByteBuffer.allocate(location.recordBytes());
+                readFully(record, location.offset());
+                writeFully(target, record.flip(), position);
+                live.put(entry.getKey(), new Location(position, location.dimensions(), location.recordBytes()));
+                position += location.recordBytes();
+            }
+        }
+        catch (IOException ex) {
+            Files.deleteIfExists(compacted);
+            throw ex;
+        }
+        this.channel.close();
+        try {
+            Files.move(compacted, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            this.channel = FileChannel.open(this.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        this.index.clear();
+        this.index.putAll(live);
+        this.end = position;
+        this.liveBytes = position - HEADER_BYTES;
+        log.debug("Compacted embedding cache file {} to {} records", this.path, live.size());
+    }
+
+    private void index(EmbeddingCacheKey key, Location location) {
+        Location previous = this.index.put(key, location);
+        this.liveBytes += location.recordBytes();
+        if (previous != null) {
+            this.liveBytes -= previous.recordBytes();
+        }
+    }
+
+    private void remove(EmbeddingCacheKey key) {
+        Location previous = this.index.remove(key);
+        if (previous != null) {
+            this.liveBytes -= previous.recordBytes();
+        }
+    }
+
+    private boolean isMostlyDead() {
+        return this.end - HEADER_BYTES - this.liveBytes > this.liveBytes;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        readFully(this.channel, buffer, position);
+    }
+
+    private void readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (source.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of embedding cache file: " + this.path);
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        writeFully(this.channel, buffer, position);
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static int recordBytes(int modelLength, int textTypeLength, int dimensions) {
+        return 2 * Short.BYTES + modelLength + textTypeLength + HASH_BYTES + Integer.BYTES + dimensions * Float.BYTES;
+    }
+
+    /**
+     * @param offset the file offset of the record
+     */
+    private record Location(long offset, int dimensions, int recordBytes) {
+
+        long vectorOffset() {
+            return this.offset + this.recordBytes - (long) this.dimensions * Float.BYTES;
+        }
+
+    }
+
+}
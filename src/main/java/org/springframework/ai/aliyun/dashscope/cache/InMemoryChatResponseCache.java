@@ -0,0 +1,64 @@
+package org.springframework.ai.aliyun.dashscope.cache;
+
+import com.alibaba.dashscope.aigc.generation.GenerationParam;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.util.Assert;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-memory LRU cache whose entries expire after a fixed time to live.
+ */
+public class InMemoryChatResponseCache implements ChatResponseCache {
+
+    private final ChatCacheOptions options;
+
+    private final long timeToLiveNanos;
+
+    private final Map<String, Entry> entries;
+
+    public InMemoryChatResponseCache(ChatCacheOptions options) {
+        Assert.notNull(options, "ChatCacheOptions must not be null");
+        Assert.isTrue(options.getMaxSize() > 0, "maxSize must be greater than 0");
+        this.options = options;
+        this.timeToLiveNanos = options.getTimeToLive().toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > options.getMaxSize();
+            }
+        };
+    }
+
+    @Override
+    public boolean isCacheable(GenerationParam request) {
+        return !this.options.isDeterministicOnly() || ChatCacheKey.isDeterministic(request);
+    }
+
+    @Override
+    public synchronized ChatResponse get(String key) {
+        Entry entry = this.entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.createdAt() > this.timeToLiveNanos) {
+            this.entries.remove(key);
+            return null;
+        }
+        return entry.response();
+    }
+
+    @Override
+    public synchronized void put(String key, ChatResponse response) {
+        this.entries.put(key, new Entry(response, System.nanoTime()));
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    private record Entry(ChatResponse response, long createdAt) {
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.springframework.ai.aliyun.dashscope.cache;
+
+import org.springframework.util.Assert;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of packed float vectors, kept either as heap {@code float[]} or in direct buffers
+ * outside the Java heap.
+ */
+public class InMemoryEmbeddingCache implements EmbeddingCache {
+
+    private final boolean offHeap;
+
+    private final Map<EmbeddingCacheKey, Object> vectors;
+
+    public InMemoryEmbeddingCache(int maxEntries, boolean offHeap) {
+        Assert.isTrue(maxEntries > 0, "maxEntries must be greater than 0");
+        this.offHeap = offHeap;
+        this.vectors = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EmbeddingCacheKey, Object> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized float[] get(EmbeddingCacheKey key) {
+        Object stored = this.vectors.get(key);
+        if (stored == null) {
+            return null;
+        }
+        if (stored instanceof FloatBuffer buffer) {
+            float[] vector = new float[buffer.capacity()];
+            buffer.get(0, vector);
+            return vector;
+        }
+        return ((float[]) stored).clone();
+    }
+
+    @Override
+    public synchronized void put(EmbeddingCacheKey key, float[] vector) {
+        if (this.offHeap) {
+            FloatBuffer buffer = ByteBuffer.allocateDirect(vector.length * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+            buffer.put(0, vector);
+            this.vectors.put(key, buffer);
+        }
+        else {
+            this.vectors.put(key, vector.clone());
+        }
+    }
+
+    public synchronized int size() {
+        return this.vectors.size();
+    }
+
+    public synchronized void clear() {
+        this.vectors.clear();
+    }
+
+}
@@ -0,0 +1,65 @@
+package org.springframework.ai.aliyun.dashscope.coalesce;
+
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller runs the call, callers arriving while it is in
+ * flight wait for and share its result or its error. Nothing is kept once the call completes.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * @param key the canonical request key
+     * @param call the upstream call, run on the calling thread of the first caller
+     * @return the result of the shared call
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = this.flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+        try {
+            V value = call.get();
+            flight.complete(value);
+            return value;
+        }
+        catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        }
+        finally {
+            this.flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * @return the number of calls currently in flight
+     */
+    public int inFlight() {
+        return this.flights.size();
+    }
+
+    private static <V> V join(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        }
+        catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new DashscopeSDKException("Error occurred in coalesced call", ex.getCause());
+        }
+    }
+
+}
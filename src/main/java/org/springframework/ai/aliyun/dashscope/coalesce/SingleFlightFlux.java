@@ -0,0 +1,41 @@
+package org.springframework.ai.aliyun.dashscope.coalesce;
+
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent streams with the same key into one upstream subscription. Subscribers joining a stream in
+ * flight first receive the chunks already emitted, so every subscriber sees the complete stream. The upstream is
+ * cancelled once all subscribers have cancelled, and the key is released when the upstream terminates.
+ */
+public class SingleFlightFlux<K, T> {
+
+    private final ConcurrentHashMap<K, Flux<T>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * @param key the canonical request key
+     * @param source the upstream stream, subscribed to once per flight
+     * @return a stream sharing the upstream with the other subscribers of the same key
+     */
+    public Flux<T> share(K key, Supplier<Flux<T>> source) {
+        return Flux.defer(() -> this.flights.computeIfAbsent(key, k -> {
+            AtomicReference<Flux<T>> flight = new AtomicReference<>();
+            flight.set(Flux.defer(source)
+                    .doFinally(signal -> this.flights.remove(k, flight.get()))
+                    .replay()
+                    .refCount());
+            return flight.get();
+        }));
+    }
+
+    /**
+     * @return the number of streams currently in flight
+     */
+    public int inFlight() {
+        return this.flights.size();
+    }
+
+}
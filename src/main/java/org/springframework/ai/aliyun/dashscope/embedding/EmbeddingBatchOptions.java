@@ -0,0 +1,85 @@
+package org.springframework.ai.aliyun.dashscope.embedding;
+
+public class EmbeddingBatchOptions {
+
+    /**
+     * DashScope 通用文本向量 text-embedding-v1/v2 单次请求最多支持 25 条文本。
+     */
+    public static final int DEFAULT_MAX_TEXTS_PER_BATCH = 25;
+
+    /**
+     * 单次请求的 token 预算，单条文本最长 2048 tokens。
+     */
+    public static final int DEFAULT_MAX_TOKENS_PER_BATCH = 25 * 2048;
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+    /**
+     * 单次请求最多包含的文本条数。
+     */
+    private int maxTextsPerBatch = DEFAULT_MAX_TEXTS_PER_BATCH;
+
+    /**
+     * 单次请求中所有文本的估算 token 总数上限。
+     */
+    private int maxTokensPerBatch = DEFAULT_MAX_TOKENS_PER_BATCH;
+
+    /**
+     * 同时发送到 DashScope 的批次数上限。
+     */
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final EmbeddingBatchOptions options = new EmbeddingBatchOptions();
+
+        public Builder withMaxTextsPerBatch(int maxTextsPerBatch) {
+            this.options.setMaxTextsPerBatch(maxTextsPerBatch);
+            return this;
+        }
+
+        public Builder withMaxTokensPerBatch(int maxTokensPerBatch) {
+            this.options.setMaxTokensPerBatch(maxTokensPerBatch);
+            return this;
+        }
+
+        public Builder withMaxConcurrency(int maxConcurrency) {
+            this.options.setMaxConcurrency(maxConcurrency);
+            return this;
+        }
+
+        public EmbeddingBatchOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public int getMaxTextsPerBatch() {
+        return maxTextsPerBatch;
+    }
+
+    public void setMaxTextsPerBatch(int maxTextsPerBatch) {
+        this.maxTextsPerBatch = maxTextsPerBatch;
+    }
+
+    public int getMaxTokensPerBatch() {
+        return maxTokensPerBatch;
+    }
+
+    public void setMaxTokensPerBatch(int maxTokensPerBatch) {
+        this.maxTokensPerBatch = maxTokensPerBatch;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.springframework.ai.aliyun.dashscope.embedding;
+
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+import org.springframework.ai.aliyun.dashscope.token.TokenEstimator;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Splits embedding input into DashScope sized batches and executes them with bounded concurrency.
+ */
+public class EmbeddingBatcher {
+
+    private final EmbeddingBatchOptions options;
+
+    private final Executor executor;
+
+    public EmbeddingBatcher(EmbeddingBatchOptions options, Executor executor) {
+        Assert.notNull(options, "EmbeddingBatchOptions must not be null");
+        Assert.notNull(executor, "Executor must not be null");
+        Assert.isTrue(options.getMaxTextsPerBatch() > 0, "maxTextsPerBatch must be greater than 0");
+        Assert.isTrue(options.getMaxTokensPerBatch() > 0, "maxTokensPerBatch must be greater than 0");
+        this.options = options;
+        this.executor = executor;
+    }
+
+    /**
+     * Split the texts by per-request text count and token budget, keeping their original order.
+     * A single text above the token budget is sent alone and left to DashScope to accept or reject.
+     * @param texts the texts to embed
+     * @return the batches, each one carrying the offset of its first text
+     */
+    public List<Batch> split(List<String> texts) {
+        return split(texts, text -> TokenEstimator.DEFAULT.estimate(null, text));
+    }
+
+    /**
+     * Split the texts, counting their tokens with the given counter.
+     * @param texts the texts to embed
+     * @param tokenCounter the token count of one text
+     * @return the batches, each one carrying the offset of its first text
+     */
+    public List<Batch> split(List<String> texts, ToIntFunction<String> tokenCounter) {
+        List<Batch> batches = new ArrayList<>();
+        int start = 0;
+        int tokens = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            int textTokens = tokenCounter.applyAsInt(texts.get(i));
+            int count = i - start;
+            if (count > 0 && (count >= options.getMaxTextsPerBatch() || tokens + textTokens > options.getMaxTokensPerBatch())) {
+                batches.add(new Batch(start, texts.subList(start, i), tokens));
+                start = i;
+                tokens = 0;
+            }
+            tokens += textTokens;
+        }
+        if (start < texts.size()) {
+            batches.add(new Batch(start, texts.subList(start, texts.size()), tokens));
+        }
+        return batches;
+    }
+
+    /**
+     * Execute the batches with at most {@code maxConcurrency} in flight and return the results in batch order.
+     * @param batches the batches to execute
+     * @param call the call made for each batch, expected to handle its own retries
+     * @return the results, one per batch
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> execute(List<Batch> batches, Function<Batch, T> call) {
+        int workers = Math.min(options.getMaxConcurrency(), batches.size());
+        if (workers <= 1) {
+            return batches.stream().map(call).toList();
+        }
+        Object[] results = new Object[batches.size()];
+        AtomicInteger next = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture[workers];
+        for (int w = 0; w < workers; w++) {
+            futures[w] = CompletableFuture.runAsync(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < batches.size()) {
+                    try {
+                        results[index] = call.apply(batches.get(index));
+                    }
+                    catch (RuntimeException ex) {
+                        // Stop the other workers from picking up new batches.
+                        next.set(batches.size());
+                        throw ex;
+                    }
+                }
+            }, executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        }
+        catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DashscopeSDKException("Error occurred while embedding batch", ex.getCause());
+        }
+        return (List<T>) Arrays.asList(results);
+    }
+
+    /**
+     * @param tokens the estimated token count of the texts
+     */
+    public record Batch(int offset, List<String> texts, int tokens) {
+    }
+
+}
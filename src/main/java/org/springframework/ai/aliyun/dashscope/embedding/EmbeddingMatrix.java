@@ -0,0 +1,85 @@
+package org.springframework.ai.aliyun.dashscope.embedding;
+
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Row-major matrix of float embedding vectors packed into a single array, one row per input text.
+ */
+public class EmbeddingMatrix {
+
+    private final float[] data;
+
+    private final int rows;
+
+    private final int dimensions;
+
+    public EmbeddingMatrix(int rows, int dimensions) {
+        Assert.isTrue(rows >= 0, "rows must not be negative");
+        Assert.isTrue(dimensions >= 0, "dimensions must not be negative");
+        this.data = new float[Math.multiplyExact(rows, dimensions)];
+        this.rows = rows;
+        this.dimensions = dimensions;
+    }
+
+    public int rows() {
+        return this.rows;
+    }
+
+    public int dimensions() {
+        return this.dimensions;
+    }
+
+    /**
+     * The backing array, row {@code i} starting at {@code i * dimensions()}.
+     * @return the packed vectors, not copied
+     */
+    public float[] data() {
+        return this.data;
+    }
+
+    public float get(int row, int column) {
+        return this.data[offset(row) + column];
+    }
+
+    /**
+     * Copy one row out of the matrix.
+     * @param row the row index
+     * @return a new array holding the vector
+     */
+    public float[] row(int row) {
+        int offset = offset(row);
+        return Arrays.copyOfRange(this.data, offset, offset + this.dimensions);
+    }
+
+    public void setRow(int row, float[] vector) {
+        checkDimensions(vector.length);
+        System.arraycopy(vector, 0, this.data, offset(row), this.dimensions);
+    }
+
+    /**
+     * Narrow a vector as returned by the DashScope SDK straight into the given row.
+     * @param row the row index
+     * @param vector the SDK vector
+     */
+    public void setRow(int row, List<Double> vector) {
+        checkDimensions(vector.size());
+        int offset = offset(row);
+        for (int i = 0; i < this.dimensions; i++) {
+            this.data[offset + i] = vector.get(i).floatValue();
+        }
+    }
+
+    private int offset(int row) {
+        Assert.isTrue(row >= 0 && row < this.rows, () -> "row " + row + " out of range [0, " + this.rows + ")");
+        return row * this.dimensions;
+    }
+
+    private void checkDimensions(int length) {
+        Assert.isTrue(length == this.dimensions,
+                () -> "vector has " + length + " dimensions, matrix expects " + this.dimensions);
+    }
+
+}
@@ -0,0 +1,170 @@
+package org.springframework.ai.aliyun.dashscope.embedding;
+
+import com.alibaba.dashscope.exception.NoApiKeyException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeCallNotPermittedException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeRateLimitException;
+import org.springframework.ai.aliyun.dashscope.retry.DashscopeErrorClassifier;
+import org.springframework.ai.aliyun.dashscope.util.ExecutorUtils;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Gathers single texts submitted concurrently and embeds them together, once {@code maxBatchSize} texts are
+ * pending or the first of them has waited {@code maxDelay}. Each caller's future is completed with its own row of
+ * the batch result. When the batch fails with an error that retrying cannot fix, such as one text DashScope
+ * rejects, every text is sent again on its own so that each caller gets its own result; other errors fail every
+ * future of the batch.
+ */
+public class EmbeddingMicroBatcher implements Closeable {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            ExecutorUtils.daemonThreadFactory("dashscope-embedding-micro-batch-"));
+
+    private final MicroBatchOptions options;
+
+    private final Function<List<String>, EmbeddingMatrix> call;
+
+    private final Executor executor;
+
+    private final Object lock = new Object();
+
+    private List<Pending> pending = new ArrayList<>();
+
+    private ScheduledFuture<?> flushTimer;
+
+    private boolean closed;
+
+    /**
+     * @param options the batch size and delay limits
+     * @param call the batch call, returning one row per text in input order
+     * @param executor the executor running the batch calls
+     */
+    public EmbeddingMicroBatcher(MicroBatchOptions options, Function<List<String>, EmbeddingMatrix> call, Executor executor) {
+        Assert.notNull(options, "MicroBatchOptions must not be null");
+        Assert.notNull(call, "call must not be null");
+        Assert.notNull(executor, "Executor must not be null");
+        Assert.isTrue(options.getMaxBatchSize() > 0, "maxBatchSize must be greater than 0");
+        Assert.notNull(options.getMaxDelay(), "maxDelay must not be null");
+        this.options = options;
+        this.call = call;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<float[]> submit(String text) {
+        Pending request = new Pending(text, new CompletableFuture<>());
+        List<Pending> batch = null;
+        synchronized (this.lock) {
+            if (this.closed) {
+                request.future().completeExceptionally(new IllegalStateException("EmbeddingMicroBatcher has been closed"));
+                return request.future();
+            }
+            this.pending.add(request);
+            if (this.pending.size() >= this.options.getMaxBatchSize()) {
+                batch = drain();
+            }
+            else if (this.flushTimer == null) {
+                this.flushTimer = this.timer.schedule(this::flush, this.options.getMaxDelay().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+        return request.future();
+    }
+
+    /**
+     * Send the pending texts at once and stop the flush timer. Texts submitted afterwards are rejected.
+     */
+    @Override
+    public void close() {
+        List<Pending> batch;
+        synchronized (this.lock) {
+            this.closed = true;
+            batch = drain();
+        }
+        this.timer.shutdownNow();
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private void flush() {
+        List<Pending> batch;
+        synchronized (this.lock) {
+            batch = drain();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private List<Pending> drain() {
+        List<Pending> batch = this.pending;
+        this.pending = new ArrayList<>();
+        if (this.flushTimer != null) {
+            this.flushTimer.cancel(false);
+            this.flushTimer = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(List<Pending> batch) {
+        try {
+            this.executor.execute(() -> embed(batch));
+        }
+        catch (RuntimeException ex) {
+            batch.forEach(request -> request.future().completeExceptionally(ex));
+        }
+    }
+
+    private void embed(List<Pending> batch) {
+        try {
+            EmbeddingMatrix matrix = this.call.apply(batch.stream().map(Pending::text).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete(matrix.row(i));
+            }
+        }
+        catch (Throwable ex) {
+            if (batch.size() > 1 && isPerTextError(ex)) {
+                batch.forEach(request -> dispatch(List.of(request)));
+            }
+            else {
+                batch.forEach(request -> request.future().completeExceptionally(ex));
+            }
+        }
+    }
+
+    /**
+     * Whether the error may come from a single text of the batch. Throttling, open circuits and a missing API key
+     * affect every text alike, and splitting the batch would only multiply the failing calls.
+     */
+    private static boolean isPerTextError(Throwable error) {
+        if (DashscopeErrorClassifier.isRetryable(error)) {
+            return false;
+        }
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof DashscopeRateLimitException || current instanceof DashscopeCallNotPermittedException
+                    || current instanceof NoApiKeyException) {
+                return false;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    private record Pending(String text, CompletableFuture<float[]> future) {
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.springframework.ai.aliyun.dashscope.embedding;
+
+import java.time.Duration;
+
+public class MicroBatchOptions {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = EmbeddingBatchOptions.DEFAULT_MAX_TEXTS_PER_BATCH;
+
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(10);
+
+    /**
+     * 是否合并并发的单文档 embed(Document) 请求，批量发送到 DashScope。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 收集到该数量的文本后立即发送。
+     */
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    /**
+     * 第一条文本最多等待的时间，超时后即使未凑满也发送。
+     */
+    private Duration maxDelay = DEFAULT_MAX_DELAY;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final MicroBatchOptions options = new MicroBatchOptions();
+
+        public Builder withEnabled(boolean enabled) {
+            this.options.setEnabled(enabled);
+            return this;
+        }
+
+        public Builder withMaxBatchSize(int maxBatchSize) {
+            this.options.setMaxBatchSize(maxBatchSize);
+            return this;
+        }
+
+        public Builder withMaxDelay(Duration maxDelay) {
+            this.options.setMaxDelay(maxDelay);
+            return this;
+        }
+
+        public MicroBatchOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public void setMaxDelay(Duration maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+
+}
@@ -0,0 +1,19 @@
+package org.springframework.ai.aliyun.dashscope.exception;
+
+/**
+ * Thrown without calling DashScope when the circuit breaker of the model is open or its bulkhead is full.
+ */
+public class DashscopeCallNotPermittedException extends DashscopeSDKException {
+
+    private final String model;
+
+    public DashscopeCallNotPermittedException(String model, String message) {
+        super(message);
+        this.model = model;
+    }
+
+    public String getModel() {
+        return this.model;
+    }
+
+}
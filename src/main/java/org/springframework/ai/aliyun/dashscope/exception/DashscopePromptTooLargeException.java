@@ -0,0 +1,26 @@
+package org.springframework.ai.aliyun.dashscope.exception;
+
+/**
+ * Thrown before sending a request whose estimated input tokens exceed the configured limit.
+ */
+public class DashscopePromptTooLargeException extends DashscopeSDKException {
+
+    private final long estimatedTokens;
+
+    private final long maxTokens;
+
+    public DashscopePromptTooLargeException(long estimatedTokens, long maxTokens) {
+        super("Prompt has an estimated " + estimatedTokens + " input tokens, more than the limit of " + maxTokens);
+        this.estimatedTokens = estimatedTokens;
+        this.maxTokens = maxTokens;
+    }
+
+    public long getEstimatedTokens() {
+        return this.estimatedTokens;
+    }
+
+    public long getMaxTokens() {
+        return this.maxTokens;
+    }
+
+}
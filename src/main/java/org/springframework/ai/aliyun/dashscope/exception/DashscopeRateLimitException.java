@@ -0,0 +1,12 @@
+package org.springframework.ai.aliyun.dashscope.exception;
+
+/**
+ * Thrown when the client-side rate limiter rejects a request instead of sending it to DashScope.
+ */
+public class DashscopeRateLimitException extends DashscopeSDKException {
+
+    public DashscopeRateLimitException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,39 @@
+package org.springframework.ai.aliyun.dashscope.history;
+
+import org.springframework.ai.chat.ChatClient;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+/**
+ * Asks a chat model for the summary of the dropped messages. This is one extra blocking model call for every
+ * request that needs compaction, so it is best combined with a cheap model.
+ */
+public class ChatClientHistorySummarizer implements HistorySummarizer {
+
+    static final String INSTRUCTION = "Summarize the following conversation in a few sentences. "
+            + "Keep names, facts, decisions and open questions; leave out pleasantries.";
+
+    private final ChatClient chatClient;
+
+    public ChatClientHistorySummarizer(ChatClient chatClient) {
+        Assert.notNull(chatClient, "ChatClient must not be null");
+        this.chatClient = chatClient;
+    }
+
+    @Override
+    public String summarize(String model, List<Message> dropped) {
+        StringBuilder transcript = new StringBuilder();
+        for (Message message : dropped) {
+            transcript.append(message.getMessageType().getValue()).append(": ").append(message.getContent()).append('\n');
+        }
+        ChatResponse response = this.chatClient.call(new Prompt(List.of(new SystemMessage(INSTRUCTION), new UserMessage(transcript.toString()))));
+        return response.getResult() != null ? response.getResult().getOutput().getContent() : null;
+    }
+
+}
@@ -0,0 +1,147 @@
+package org.springframework.ai.aliyun.dashscope.history;
+
+public class HistoryCompactionOptions {
+
+    public static final int DEFAULT_MAX_TOKENS = 6000;
+
+    public static final int DEFAULT_KEEP_LAST_MESSAGES = 20;
+
+    public static final int DEFAULT_SUMMARY_RESERVE_TOKENS = 500;
+
+    public enum Strategy {
+
+        /**
+         * 保留系统消息，其余消息从最新往前保留到 token 预算用完为止。
+         */
+        SLIDING_WINDOW,
+
+        /**
+         * 保留系统消息和最后 N 条消息，仍超出预算时继续丢弃其中最早的消息。
+         */
+        KEEP_SYSTEM_AND_LAST_N
+
+    }
+
+    /**
+     * 是否在发送前压缩对话历史。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 压缩策略。
+     */
+    private Strategy strategy = Strategy.SLIDING_WINDOW;
+
+    /**
+     * 发送的对话历史（含摘要）的估算 token 总数上限。
+     */
+    private int maxTokens = DEFAULT_MAX_TOKENS;
+
+    /**
+     * KEEP_SYSTEM_AND_LAST_N 策略保留的非系统消息条数。
+     */
+    private int keepLastMessages = DEFAULT_KEEP_LAST_MESSAGES;
+
+    /**
+     * 是否用摘要替代被丢弃的消息，需要提供 HistorySummarizer。
+     */
+    private boolean summarize = false;
+
+    /**
+     * 启用摘要时预先为摘要保留的 token 数；摘要实际更长时，会继续丢弃最早的消息并对全部丢弃的消息重新生成摘要。
+     */
+    private int summaryReserveTokens = DEFAULT_SUMMARY_RESERVE_TOKENS;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final HistoryCompactionOptions options = new HistoryCompactionOptions();
+
+        public Builder withEnabled(boolean enabled) {
+            this.options.setEnabled(enabled);
+            return this;
+        }
+
+        public Builder withStrategy(Strategy strategy) {
+            this.options.setStrategy(strategy);
+            return this;
+        }
+
+        public Builder withMaxTokens(int maxTokens) {
+            this.options.setMaxTokens(maxTokens);
+            return this;
+        }
+
+        public Builder withKeepLastMessages(int keepLastMessages) {
+            this.options.setKeepLastMessages(keepLastMessages);
+            return this;
+        }
+
+        public Builder withSummarize(boolean summarize) {
+            this.options.setSummarize(summarize);
+            return this;
+        }
+
+        public Builder withSummaryReserveTokens(int summaryReserveTokens) {
+            this.options.setSummaryReserveTokens(summaryReserveTokens);
+            return this;
+        }
+
+        public HistoryCompactionOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    public void setMaxTokens(int maxTokens) {
+        this.maxTokens = maxTokens;
+    }
+
+    public int getKeepLastMessages() {
+        return keepLastMessages;
+    }
+
+    public void setKeepLastMessages(int keepLastMessages) {
+        this.keepLastMessages = keepLastMessages;
+    }
+
+    public boolean isSummarize() {
+        return summarize;
+    }
+
+    public void setSummarize(boolean summarize) {
+        this.summarize = summarize;
+    }
+
+    public int getSummaryReserveTokens() {
+        return summaryReserveTokens;
+    }
+
+    public void setSummaryReserveTokens(int summaryReserveTokens) {
+        this.summaryReserveTokens = summaryReserveTokens;
+    }
+
+}
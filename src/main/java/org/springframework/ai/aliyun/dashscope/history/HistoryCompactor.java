@@ -0,0 +1,18 @@
+package org.springframework.ai.aliyun.dashscope.history;
+
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+
+/**
+ * Shrinks the conversation of a prompt before it is sent. Implementations must keep the last message and
+ * the relative order of the messages they keep.
+ */
+@FunctionalInterface
+public interface HistoryCompactor {
+
+    HistoryCompactor NONE = (model, messages) -> messages;
+
+    List<Message> compact(String model, List<Message> messages);
+
+}
@@ -0,0 +1,20 @@
+package org.springframework.ai.aliyun.dashscope.history;
+
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+
+/**
+ * Summarizes the messages dropped by a {@link HistoryCompactor} so the summary can stand in for them.
+ */
+@FunctionalInterface
+public interface HistorySummarizer {
+
+    /**
+     * @param model the model of the request being compacted
+     * @param dropped the dropped messages, oldest first
+     * @return the summary, or null to insert none
+     */
+    String summarize(String model, List<Message> dropped);
+
+}
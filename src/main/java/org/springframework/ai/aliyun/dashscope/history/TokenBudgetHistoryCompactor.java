@@ -0,0 +1,212 @@
+package org.springframework.ai.aliyun.dashscope.history;
+
+import org.springframework.ai.aliyun.dashscope.token.TokenEstimator;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the conversation inside a token budget. System messages are always kept, in place, then the most recent
+ * other messages are kept, by {@link HistoryCompactionOptions.Strategy}, while they fit the budget. The last message
+ * is kept even if it alone exceeds the budget. When a {@link HistorySummarizer} is given, the dropped messages are
+ * replaced by a system message holding their summary, for which
+ * {@link HistoryCompactionOptions#getSummaryReserveTokens()} are set aside. Summaries are cached by dropped
+ * messages, so compacting the same conversation again does not call the summarizer again.
+ */
+public class TokenBudgetHistoryCompactor implements HistoryCompactor {
+
+    /**
+     * Role and separator tokens DashScope adds around each message.
+     */
+    static final int MESSAGE_OVERHEAD_TOKENS = 4;
+
+    static final String SUMMARY_PREFIX = "Summary of the earlier conversation:\n";
+
+    static final int MAX_CACHED_SUMMARIES = 64;
+
+    private final HistoryCompactionOptions options;
+
+    private final TokenEstimator tokenEstimator;
+
+    @Nullable
+    private final HistorySummarizer summarizer;
+
+    private final Map<String, String> summaries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_CACHED_SUMMARIES;
+        }
+    };
+
+    public TokenBudgetHistoryCompactor(HistoryCompactionOptions options, TokenEstimator tokenEstimator) {
+        this(options, tokenEstimator, null);
+    }
+
+    public TokenBudgetHistoryCompactor(HistoryCompactionOptions options, TokenEstimator tokenEstimator, @Nullable HistorySummarizer summarizer) {
+        Assert.notNull(options, "HistoryCompactionOptions must not be null");
+        Assert.notNull(tokenEstimator, "TokenEstimator must not be null");
+        Assert.isTrue(options.getMaxTokens() > 0, "maxTokens must be greater than 0");
+        Assert.isTrue(options.getKeepLastMessages() > 0, "keepLastMessages must be greater than 0");
+        Assert.isTrue(summarizer == null || (options.getSummaryReserveTokens() >= 0 && options.getSummaryReserveTokens() < options.getMaxTokens()),
+                "summaryReserveTokens must be between 0 and maxTokens");
+        this.options = options;
+        this.tokenEstimator = tokenEstimator;
+        this.summarizer = summarizer;
+    }
+
+    @Override
+    public List<Message> compact(String model, List<Message> messages) {
+        if (messages.size() <= 1) {
+            return messages;
+        }
+        // Indexes of the non-system messages, the only ones that can be dropped.
+        List<Integer> others = new ArrayList<>();
+        int systemTokens = 0;
+        for (int i = 0; i < messages.size(); i++) {
+            if (messages.get(i).getMessageType() == MessageType.SYSTEM) {
+                systemTokens += estimate(model, messages.get(i));
+            }
+            else {
+                others.add(i);
+            }
+        }
+        if (others.isEmpty()) {
+            return messages;
+        }
+        int[] tokens = new int[others.size()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = estimate(model, messages.get(others.get(i)));
+        }
+
+        int start = keepFrom(tokens, systemTokens, this.options.getMaxTokens());
+        if (start == 0) {
+            return messages;
+        }
+        Message summary = null;
+        if (this.summarizer != null) {
+            start = skipOrphanedToolResponses(messages, others,
+                    keepFrom(tokens, systemTokens, this.options.getMaxTokens() - this.options.getSummaryReserveTokens()));
+            while (true) {
+                summary = summarize(model, messages, others, start);
+                if (summary == null) {
+                    break;
+                }
+                int used = systemTokens + estimate(model, summary);
+                for (int i = start; i < tokens.length; i++) {
+                    used += tokens[i];
+                }
+                int fitted = start;
+                while (fitted < tokens.length - 1 && used > this.options.getMaxTokens()) {
+                    used -= tokens[fitted];
+                    fitted++;
+                }
+                fitted = skipOrphanedToolResponses(messages, others, fitted);
+                if (fitted == start) {
+                    break;
+                }
+                // The summary outgrew its reserve; summarize again so that it also covers the newly dropped messages.
+                start = fitted;
+            }
+        }
+        if (summary == null) {
+            start = skipOrphanedToolResponses(messages, others, keepFrom(tokens, systemTokens, this.options.getMaxTokens()));
+        }
+
+        int firstKept = others.get(start);
+        int firstDropped = others.get(0);
+        List<Message> compacted = new ArrayList<>(messages.size() - start + 1);
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            if (i == firstDropped && summary != null) {
+                compacted.add(summary);
+            }
+            if (i >= firstKept || message.getMessageType() == MessageType.SYSTEM) {
+                compacted.add(message);
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * @return the index, into the non-system messages, of the oldest one kept within the budget
+     */
+    private int keepFrom(int[] tokens, int systemTokens, int budget) {
+        int limit = this.options.getStrategy() == HistoryCompactionOptions.Strategy.KEEP_SYSTEM_AND_LAST_N
+                ? this.options.getKeepLastMessages() : tokens.length;
+        int last = tokens.length - 1;
+        int start = last;
+        int used = systemTokens + tokens[last];
+        while (start > 0 && last - start + 1 < limit && used + tokens[start - 1] <= budget) {
+            start--;
+            used += tokens[start];
+        }
+        return start;
+    }
+
+    @Nullable
+    private Message summarize(String model, List<Message> messages, List<Integer> others, int start) {
+        List<Message> dropped = new ArrayList<>(start);
+        for (int i = 0; i < start; i++) {
+            dropped.add(messages.get(others.get(i)));
+        }
+        String key = cacheKey(model, dropped);
+        String summary;
+        synchronized (this.summaries) {
+            summary = this.summaries.get(key);
+        }
+        if (summary == null) {
+            summary = this.summarizer.summarize(model, dropped);
+            if (!StringUtils.hasText(summary)) {
+                return null;
+            }
+            synchronized (this.summaries) {
+                this.summaries.put(key, summary);
+            }
+        }
+        return new SystemMessage(SUMMARY_PREFIX + summary);
+    }
+
+    private static String cacheKey(String model, List<Message> dropped) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(model).getBytes(StandardCharsets.UTF_8));
+            for (Message message : dropped) {
+                digest.update((byte) 0);
+                digest.update(message.getMessageType().getValue().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(String.valueOf(message.getContent()).getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Tool responses are meaningless without the assistant message that asked for them.
+     */
+    private static int skipOrphanedToolResponses(List<Message> messages, List<Integer> others, int start) {
+        while (start < others.size() - 1 && messages.get(others.get(start)).getMessageType() == MessageType.FUNCTION) {
+            start++;
+        }
+        return start;
+    }
+
+    private int estimate(String model, Message message) {
+        return this.tokenEstimator.estimate(model, message.getContent()) + MESSAGE_OVERHEAD_TOKENS;
+    }
+
+}
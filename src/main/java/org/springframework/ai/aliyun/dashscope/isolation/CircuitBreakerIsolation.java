@@ -0,0 +1,273 @@
+package org.springframework.ai.aliyun.dashscope.isolation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeCallNotPermittedException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+import org.springframework.ai.aliyun.dashscope.retry.DashscopeErrorClassifier;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A bulkhead and a count-based circuit breaker per model. The bulkhead caps the calls in flight to the model. The
+ * breaker opens once the failure rate or the slow-call rate of the last {@code slidingWindowSize} calls reaches its
+ * threshold, rejects calls for {@code openDuration}, then lets {@code halfOpenCalls} trial calls through and closes
+ * again if all of them succeed. Only throttling, server errors and timeouts count as failures: a rejected input says
+ * nothing about the health of the model, so a trial ending in such an error frees its trial slot for another call. A
+ * trial still running after the slow-call duration reopens the breaker, so a hung call cannot keep it half-open.
+ */
+public class CircuitBreakerIsolation implements DashscopeIsolation {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final IsolationOptions options;
+
+    private final Map<String, ModelGuard> guards = new ConcurrentHashMap<>();
+
+    public CircuitBreakerIsolation(IsolationOptions options) {
+        Assert.notNull(options, "IsolationOptions must not be null");
+        Assert.isTrue(options.getMaxConcurrentCalls() > 0, "maxConcurrentCalls must be greater than 0");
+        Assert.isTrue(options.getSlidingWindowSize() > 0, "slidingWindowSize must be greater than 0");
+        Assert.isTrue(options.getHalfOpenCalls() > 0, "halfOpenCalls must be greater than 0");
+        Assert.notNull(options.getMaxWait(), "maxWait must not be null");
+        Assert.notNull(options.getSlowCallDuration(), "slowCallDuration must not be null");
+        Assert.notNull(options.getOpenDuration(), "openDuration must not be null");
+        this.options = options;
+    }
+
+    @Override
+    public Permit acquire(String model) {
+        return this.guards.computeIfAbsent(model != null ? model : "", this::createGuard).acquire();
+    }
+
+    private ModelGuard createGuard(String model) {
+        int maxConcurrentCalls = this.options.getMaxConcurrentCalls();
+        Duration slowCallDuration = this.options.getSlowCallDuration();
+        IsolationOptions.ModelLimits limits = this.options.getModels().get(model);
+        if (limits != null) {
+            if (limits.getMaxConcurrentCalls() != null) {
+                maxConcurrentCalls = limits.getMaxConcurrentCalls();
+            }
+            if (limits.getSlowCallDuration() != null) {
+                slowCallDuration = limits.getSlowCallDuration();
+            }
+        }
+        return new ModelGuard(model, maxConcurrentCalls, slowCallDuration);
+    }
+
+    private enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * One half-open trial call, compared by identity.
+     */
+    private static final class Trial {
+
+        private final long startedAt;
+
+        Trial(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        long startedAt() {
+            return this.startedAt;
+        }
+
+    }
+
+    private final class ModelGuard {
+
+        private final String model;
+
+        private final Semaphore bulkhead;
+
+        private final int maxConcurrentCalls;
+
+        private final long slowCallNanos;
+
+        private final boolean[] failed;
+
+        private final boolean[] slow;
+
+        private int next;
+
+        private int count;
+
+        private int failedCount;
+
+        private int slowCount;
+
+        private State state = State.CLOSED;
+
+        private long openedAt;
+
+        private int trialPermits;
+
+        private int trialSuccesses;
+
+        /**
+         * Trial calls of the current half-open period still in flight.
+         */
+        private final Set<Trial> trials = new HashSet<>();
+
+        ModelGuard(String model, int maxConcurrentCalls, Duration slowCallDuration) {
+            this.model = model;
+            this.bulkhead = new Semaphore(maxConcurrentCalls);
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            this.slowCallNanos = slowCallDuration.toNanos();
+            this.failed = new boolean[options.getSlidingWindowSize()];
+            this.slow = new boolean[options.getSlidingWindowSize()];
+        }
+
+        Permit acquire() {
+            Trial trial = admit();
+            if (!tryAcquireBulkhead()) {
+                if (trial != null) {
+                    returnTrialPermit(trial);
+                }
+                throw new DashscopeCallNotPermittedException(this.model,
+                        "Bulkhead of model " + this.model + " is full with " + this.maxConcurrentCalls + " calls in flight");
+            }
+            AtomicBoolean completed = new AtomicBoolean();
+            return (latency, error) -> {
+                if (completed.compareAndSet(false, true)) {
+                    this.bulkhead.release();
+                    record(trial, latency, error);
+                }
+            };
+        }
+
+        private boolean tryAcquireBulkhead() {
+            if (options.getMaxWait().isZero()) {
+                return this.bulkhead.tryAcquire();
+            }
+            try {
+                return this.bulkhead.tryAcquire(options.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new DashscopeSDKException("Interrupted while waiting for bulkhead of model: " + this.model, ex);
+            }
+        }
+
+        /**
+         * @return the trial, if the call is a half-open trial, or null
+         */
+        private synchronized Trial admit() {
+            if (this.state == State.HALF_OPEN && hasTimedOutTrial()) {
+                open("trial call did not complete within " + Duration.ofNanos(this.slowCallNanos));
+            }
+            if (this.state == State.OPEN) {
+                if (System.nanoTime() - this.openedAt < options.getOpenDuration().toNanos()) {
+                    throw new DashscopeCallNotPermittedException(this.model, "Circuit breaker of model " + this.model + " is open");
+                }
+                this.state = State.HALF_OPEN;
+                this.trialPermits = options.getHalfOpenCalls();
+                this.trialSuccesses = 0;
+                log.info("Circuit breaker of model {} is half-open", this.model);
+            }
+            if (this.state == State.HALF_OPEN) {
+                if (this.trialPermits == 0) {
+                    throw new DashscopeCallNotPermittedException(this.model,
+                            "Circuit breaker of model " + this.model + " is half-open with all trial calls in flight");
+                }
+                this.trialPermits--;
+                Trial trial = new Trial(System.nanoTime());
+                this.trials.add(trial);
+                return trial;
+            }
+            return null;
+        }
+
+        private boolean hasTimedOutTrial() {
+            long now = System.nanoTime();
+            for (Trial trial : this.trials) {
+                if (now - trial.startedAt() > this.slowCallNanos) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized void returnTrialPermit(Trial trial) {
+            if (this.trials.remove(trial)) {
+                this.trialPermits++;
+            }
+        }
+
+        private synchronized void record(Trial trial, Duration latency, Throwable error) {
+            boolean isFailure = error != null && DashscopeErrorClassifier.isRetryable(error);
+            boolean isSlow = latency.toNanos() > this.slowCallNanos;
+            if (this.state == State.HALF_OPEN) {
+                // Calls admitted before the breaker opened, and trials of an earlier half-open period, are ignored.
+                if (trial == null || !this.trials.remove(trial)) {
+                    return;
+                }
+                if (error != null && !isFailure) {
+                    this.trialPermits++;
+                }
+                else if (isFailure || isSlow) {
+                    open("trial call " + (isFailure ? "failed" : "was slow"));
+                }
+                else if (++this.trialSuccesses >= options.getHalfOpenCalls()) {
+                    close();
+                }
+                return;
+            }
+            if (this.state != State.CLOSED || (error != null && !isFailure)) {
+                return;
+            }
+            if (this.count == this.failed.length) {
+                this.failedCount -= this.failed[this.next] ? 1 : 0;
+                this.slowCount -= this.slow[this.next] ? 1 : 0;
+            }
+            else {
+                this.count++;
+            }
+            this.failed[this.next] = isFailure;
+            this.slow[this.next] = isSlow;
+            this.failedCount += isFailure ? 1 : 0;
+            this.slowCount += isSlow ? 1 : 0;
+            this.next = (this.next + 1) % this.failed.length;
+            if (this.count < options.getMinimumCalls()) {
+                return;
+            }
+            double failureRate = (double) this.failedCount / this.count;
+            double slowCallRate = (double) this.slowCount / this.count;
+            if (failureRate >= options.getFailureRateThreshold()) {
+                open(String.format("failure rate %.2f", failureRate));
+            }
+            else if (slowCallRate >= options.getSlowCallRateThreshold()) {
+                open(String.format("slow call rate %.2f", slowCallRate));
+            }
+        }
+
+        private void open(String reason) {
+            this.state = State.OPEN;
+            this.trials.clear();
+            this.openedAt = System.nanoTime();
+            log.warn("Circuit breaker of model {} opened for {}: {}", this.model, options.getOpenDuration(), reason);
+        }
+
+        private void close() {
+            this.state = State.CLOSED;
+            this.trials.clear();
+            this.next = 0;
+            this.count = 0;
+            this.failedCount = 0;
+            this.slowCount = 0;
+            log.info("Circuit breaker of model {} closed", this.model);
+        }
+
+    }
+
+}
@@ -0,0 +1,37 @@
+package org.springframework.ai.aliyun.dashscope.isolation;
+
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeCallNotPermittedException;
+
+import java.time.Duration;
+
+/**
+ * Per-model isolation placed around every DashScope call, before the rate limiter. The clients use {@link #NONE}
+ * unless an implementation, such as {@link CircuitBreakerIsolation}, is set.
+ */
+public interface DashscopeIsolation {
+
+    DashscopeIsolation NONE = model -> Permit.NOOP;
+
+    /**
+     * Take a slot for one call to the model.
+     * @param model the model name
+     * @return the permit, to be completed once the call ends
+     * @throws DashscopeCallNotPermittedException if the circuit is open or no slot is free
+     */
+    Permit acquire(String model);
+
+    interface Permit {
+
+        Permit NOOP = (latency, error) -> {
+        };
+
+        /**
+         * Record the outcome of the call and free its slot. Only the first completion counts.
+         * @param latency the call latency, or the time to first chunk for streams
+         * @param error the error the call failed with, or null
+         */
+        void complete(Duration latency, Throwable error);
+
+    }
+
+}
@@ -0,0 +1,267 @@
+package org.springframework.ai.aliyun.dashscope.isolation;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+public class IsolationOptions {
+
+    public static final int DEFAULT_MAX_CONCURRENT_CALLS = 32;
+
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+
+    public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 0.8;
+
+    public static final Duration DEFAULT_SLOW_CALL_DURATION = Duration.ofSeconds(30);
+
+    public static final int DEFAULT_SLIDING_WINDOW_SIZE = 50;
+
+    public static final int DEFAULT_MINIMUM_CALLS = 20;
+
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    public static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+    /**
+     * 是否启用按模型隔离（舱壁和熔断）。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 每个模型同时进行的最大调用数（舱壁）。
+     */
+    private int maxConcurrentCalls = DEFAULT_MAX_CONCURRENT_CALLS;
+
+    /**
+     * 舱壁已满时最长等待时间，0 表示立即拒绝。
+     */
+    private Duration maxWait = Duration.ZERO;
+
+    /**
+     * 失败率达到该值时熔断。只统计限流、服务端错误和超时，不统计参数错误等客户端错误。
+     */
+    private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+
+    /**
+     * 慢调用比例达到该值时熔断。
+     */
+    private double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+
+    /**
+     * 超过该时间的调用视为慢调用；流式调用按首个分片的到达时间计算。
+     */
+    private Duration slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+
+    /**
+     * 统计失败率和慢调用比例的最近调用数。
+     */
+    private int slidingWindowSize = DEFAULT_SLIDING_WINDOW_SIZE;
+
+    /**
+     * 窗口内调用数少于该值时不熔断。
+     */
+    private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+
+    /**
+     * 熔断后拒绝调用的时间，之后进入半开状态放行试探调用。
+     */
+    private Duration openDuration = DEFAULT_OPEN_DURATION;
+
+    /**
+     * 半开状态下放行的试探调用数，全部成功后恢复；任一失败、变慢或超过慢调用时间仍未结束则再次熔断。因客户端错误失败的试探调用不计结果，由后续调用补上。
+     */
+    private int halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+
+    /**
+     * 按模型名覆盖的并发上限和慢调用时间。
+     */
+    private Map<String, ModelLimits> models = new HashMap<>();
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final IsolationOptions options = new IsolationOptions();
+
+        public Builder withEnabled(boolean enabled) {
+            this.options.setEnabled(enabled);
+            return this;
+        }
+
+        public Builder withMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.options.setMaxConcurrentCalls(maxConcurrentCalls);
+            return this;
+        }
+
+        public Builder withMaxWait(Duration maxWait) {
+            this.options.setMaxWait(maxWait);
+            return this;
+        }
+
+        public Builder withFailureRateThreshold(double failureRateThreshold) {
+            this.options.setFailureRateThreshold(failureRateThreshold);
+            return this;
+        }
+
+        public Builder withSlowCallRateThreshold(double slowCallRateThreshold) {
+            this.options.setSlowCallRateThreshold(slowCallRateThreshold);
+            return this;
+        }
+
+        public Builder withSlowCallDuration(Duration slowCallDuration) {
+            this.options.setSlowCallDuration(slowCallDuration);
+            return this;
+        }
+
+        public Builder withSlidingWindowSize(int slidingWindowSize) {
+            this.options.setSlidingWindowSize(slidingWindowSize);
+            return this;
+        }
+
+        public Builder withMinimumCalls(int minimumCalls) {
+            this.options.setMinimumCalls(minimumCalls);
+            return this;
+        }
+
+        public Builder withOpenDuration(Duration openDuration) {
+            this.options.setOpenDuration(openDuration);
+            return this;
+        }
+
+        public Builder withHalfOpenCalls(int halfOpenCalls) {
+            this.options.setHalfOpenCalls(halfOpenCalls);
+            return this;
+        }
+
+        public Builder withModel(String model, ModelLimits limits) {
+            this.options.models.put(model, limits);
+            return this;
+        }
+
+        public IsolationOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public void setSlowCallDuration(Duration slowCallDuration) {
+        this.slowCallDuration = slowCallDuration;
+    }
+
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    public void setSlidingWindowSize(int slidingWindowSize) {
+        this.slidingWindowSize = slidingWindowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    public void setHalfOpenCalls(int halfOpenCalls) {
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public Map<String, ModelLimits> getModels() {
+        return models;
+    }
+
+    public void setModels(Map<String, ModelLimits> models) {
+        this.models = models;
+    }
+
+    public static class ModelLimits {
+
+        /**
+         * 该模型同时进行的最大调用数，为空时使用全局配置。
+         */
+        private Integer maxConcurrentCalls;
+
+        /**
+         * 该模型的慢调用时间，为空时使用全局配置。
+         */
+        private Duration slowCallDuration;
+
+        public Integer getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(Integer maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public Duration getSlowCallDuration() {
+            return slowCallDuration;
+        }
+
+        public void setSlowCallDuration(Duration slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+        }
+
+    }
+
+}
@@ -21,19 +21,28 @@ public class AliyunAiDashscopeUsage implements Usage {
         return this.usage;
     }
 
+    /**
+     * DashScope leaves out the counts it does not report, such as the output tokens of a failed generation;
+     * they are reported as 0.
+     */
     @Override
     public Long getPromptTokens() {
-        return getUsage().getInputTokens().longValue();
+        return toLong(getUsage().getInputTokens());
     }
 
     @Override
     public Long getGenerationTokens() {
-        return getUsage().getOutputTokens().longValue();
+        return toLong(getUsage().getOutputTokens());
     }
 
     @Override
     public Long getTotalTokens() {
-        return getUsage().getTotalTokens().longValue();
+        Integer totalTokens = getUsage().getTotalTokens();
+        return totalTokens != null ? totalTokens.longValue() : getPromptTokens() + getGenerationTokens();
+    }
+
+    private static long toLong(Integer tokens) {
+        return tokens != null ? tokens.longValue() : 0L;
     }
 
     @Override
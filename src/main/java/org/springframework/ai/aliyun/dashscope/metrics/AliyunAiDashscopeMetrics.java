@@ -0,0 +1,44 @@
+package org.springframework.ai.aliyun.dashscope.metrics;
+
+import java.time.Duration;
+
+/**
+ * Instrumentation hooks of the DashScope chat and embedding clients. Every measurement is tagged by model.
+ * The clients use {@link #NOOP} unless an implementation, such as {@link MicrometerAliyunAiDashscopeMetrics}, is set.
+ */
+public interface AliyunAiDashscopeMetrics {
+
+    String OPERATION_CHAT = "chat";
+
+    String OPERATION_STREAM = "stream";
+
+    String OPERATION_EMBEDDING = "embedding";
+
+    AliyunAiDashscopeMetrics NOOP = new AliyunAiDashscopeMetrics() {
+    };
+
+    /**
+     * One upstream request, from sending it to the complete response or the end of the stream.
+     */
+    default void recordRequest(String model, String operation, Duration latency, boolean success) {
+    }
+
+    default void recordTimeToFirstToken(String model, Duration latency) {
+    }
+
+    default void recordInterTokenLatency(String model, Duration latency) {
+    }
+
+    default void recordTokenUsage(String model, String operation, long inputTokens, long outputTokens) {
+    }
+
+    default void recordRetry(String model, String operation) {
+    }
+
+    default void recordToolCallRound(String model) {
+    }
+
+    default void recordToolExecution(String model, String toolName, Duration latency, boolean success) {
+    }
+
+}
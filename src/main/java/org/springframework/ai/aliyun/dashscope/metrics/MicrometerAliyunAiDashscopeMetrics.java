@@ -0,0 +1,118 @@
+package org.springframework.ai.aliyun.dashscope.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MicrometerAliyunAiDashscopeMetrics implements AliyunAiDashscopeMetrics {
+
+    public static final String METRIC_PREFIX = "dashscope.client";
+
+    private static final String UNKNOWN_MODEL = "unknown";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Meters already registered, by name and tags, so that recording does not go through a builder and the
+     * registry lookup on every call.
+     */
+    private final Map<MeterId, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<MeterId, Counter> counters = new ConcurrentHashMap<>();
+
+    public MicrometerAliyunAiDashscopeMetrics(MeterRegistry registry) {
+        Assert.notNull(registry, "MeterRegistry must not be null");
+        this.registry = registry;
+    }
+
+    @Override
+    public void recordRequest(String model, String operation, Duration latency, boolean success) {
+        timer(METRIC_PREFIX + ".requests", "Latency of DashScope requests", true,
+                "model", model(model), "operation", operation, "outcome", outcome(success))
+                .record(latency);
+    }
+
+    @Override
+    public void recordTimeToFirstToken(String model, Duration latency) {
+        timer(METRIC_PREFIX + ".stream.time.to.first.token", "Time from subscribing to a DashScope stream to its first chunk", true,
+                "model", model(model))
+                .record(latency);
+    }
+
+    @Override
+    public void recordInterTokenLatency(String model, Duration latency) {
+        timer(METRIC_PREFIX + ".stream.inter.token.latency", "Time between consecutive chunks of a DashScope stream", false,
+                "model", model(model))
+                .record(latency);
+    }
+
+    @Override
+    public void recordTokenUsage(String model, String operation, long inputTokens, long outputTokens) {
+        if (inputTokens > 0) {
+            tokens(model, operation, "input").increment(inputTokens);
+        }
+        if (outputTokens > 0) {
+            tokens(model, operation, "output").increment(outputTokens);
+        }
+    }
+
+    @Override
+    public void recordRetry(String model, String operation) {
+        counter(METRIC_PREFIX + ".retries", "Retried DashScope requests",
+                "model", model(model), "operation", operation)
+                .increment();
+    }
+
+    @Override
+    public void recordToolCallRound(String model) {
+        counter(METRIC_PREFIX + ".tool.rounds", "Assistant messages answered with tool calls",
+                "model", model(model))
+                .increment();
+    }
+
+    @Override
+    public void recordToolExecution(String model, String toolName, Duration latency, boolean success) {
+        timer(METRIC_PREFIX + ".tool.executions", "Execution time of tool callbacks", false,
+                "model", model(model), "tool", toolName, "outcome", outcome(success))
+                .record(latency);
+    }
+
+    private Counter tokens(String model, String operation, String type) {
+        return counter(METRIC_PREFIX + ".tokens", "Tokens reported by DashScope usage",
+                "model", model(model), "operation", operation, "type", type);
+    }
+
+    private Timer timer(String name, String description, boolean percentileHistogram, String... tags) {
+        return this.timers.computeIfAbsent(new MeterId(name, Arrays.asList(tags)), id -> Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(this.registry));
+    }
+
+    private Counter counter(String name, String description, String... tags) {
+        return this.counters.computeIfAbsent(new MeterId(name, Arrays.asList(tags)), id -> Counter.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(this.registry));
+    }
+
+    private static String model(String model) {
+        return model != null ? model : UNKNOWN_MODEL;
+    }
+
+    private static String outcome(boolean success) {
+        return success ? "success" : "error";
+    }
+
+    private record MeterId(String name, List<String> tags) {
+    }
+
+}
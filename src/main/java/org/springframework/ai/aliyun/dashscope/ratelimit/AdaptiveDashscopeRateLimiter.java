@@ -0,0 +1,174 @@
+package org.springframework.ai.aliyun.dashscope.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeRateLimitException;
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-model token buckets for requests per second and tokens per minute. Callers reserve permits ahead
+ * of time and wait their turn, so the request bucket going negative is the wait queue; it is bounded by
+ * {@link RateLimitOptions#getMaxQueueSize()}. Throttling responses halve the request rate of the model,
+ * which then recovers additively with each successful call.
+ */
+public class AdaptiveDashscopeRateLimiter implements DashscopeRateLimiter {
+
+    private static final double DECREASE_FACTOR = 0.5;
+
+    private static final double INCREASE_STEP = 0.05;
+
+    private static final double MIN_RATE_FACTOR = 0.05;
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final RateLimitOptions options;
+
+    private final Map<String, ModelLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveDashscopeRateLimiter(RateLimitOptions options) {
+        Assert.notNull(options, "RateLimitOptions must not be null");
+        Assert.isTrue(options.getRequestsPerSecond() > 0, "requestsPerSecond must be greater than 0");
+        this.options = options;
+    }
+
+    @Override
+    public long reserve(String model, long estimatedTokens) {
+        return limiter(model).reserve(estimatedTokens);
+    }
+
+    @Override
+    public void release(String model, long estimatedTokens) {
+        limiter(model).release(estimatedTokens);
+    }
+
+    @Override
+    public void onSuccess(String model, long estimatedTokens, long actualTokens) {
+        limiter(model).onSuccess(estimatedTokens, actualTokens);
+    }
+
+    @Override
+    public void onThrottled(String model) {
+        limiter(model).onThrottled();
+    }
+
+    private ModelLimiter limiter(String model) {
+        return this.limiters.computeIfAbsent(model != null ? model : "", this::createLimiter);
+    }
+
+    private ModelLimiter createLimiter(String model) {
+        double requestsPerSecond = this.options.getRequestsPerSecond();
+        long tokensPerMinute = this.options.getTokensPerMinute();
+        RateLimitOptions.ModelQuota quota = this.options.getModels().get(model);
+        if (quota != null) {
+            if (quota.getRequestsPerSecond() != null) {
+                Assert.isTrue(quota.getRequestsPerSecond() > 0, "requestsPerSecond of model '" + model + "' must be greater than 0");
+                requestsPerSecond = quota.getRequestsPerSecond();
+            }
+            if (quota.getTokensPerMinute() != null) {
+                Assert.isTrue(quota.getTokensPerMinute() > 0, "tokensPerMinute of model '" + model + "' must be greater than 0");
+                tokensPerMinute = quota.getTokensPerMinute();
+            }
+        }
+        return new ModelLimiter(model, requestsPerSecond, tokensPerMinute);
+    }
+
+    private final class ModelLimiter {
+
+        private final String model;
+
+        private final double configuredRequestsPerSecond;
+
+        private final double requestCapacity;
+
+        private final long tokensPerMinute;
+
+        private double requestsPerSecond;
+
+        private double requestPermits;
+
+        private double tokenPermits;
+
+        private long lastRefill = System.nanoTime();
+
+        ModelLimiter(String model, double requestsPerSecond, long tokensPerMinute) {
+            this.model = model;
+            this.configuredRequestsPerSecond = requestsPerSecond;
+            this.requestsPerSecond = requestsPerSecond;
+            this.requestCapacity = Math.max(1, requestsPerSecond);
+            this.tokensPerMinute = tokensPerMinute;
+            this.requestPermits = this.requestCapacity;
+            this.tokenPermits = tokensPerMinute;
+        }
+
+        synchronized long reserve(long estimatedTokens) {
+            refill(System.nanoTime());
+            double requestsAfter = this.requestPermits - 1;
+            if (requestsAfter < -options.getMaxQueueSize()) {
+                throw new DashscopeRateLimitException("Rate limit queue of model '" + this.model + "' is full");
+            }
+            // A single request larger than the whole minute budget is let through once the bucket is full.
+            double tokensAfter = this.tokenPermits - Math.min(estimatedTokens, this.tokensPerMinute);
+            long waitNanos = 0;
+            if (requestsAfter < 0) {
+                waitNanos = (long) (-requestsAfter / this.requestsPerSecond * NANOS_PER_SECOND);
+            }
+            if (this.tokensPerMinute > 0 && tokensAfter < 0) {
+                waitNanos = Math.max(waitNanos, (long) (-tokensAfter / tokensPerSecond() * NANOS_PER_SECOND));
+            }
+            if (waitNanos > options.getMaxWait().toNanos()) {
+                throw new DashscopeRateLimitException("Rate limit of model '" + this.model + "' would delay the request by more than " + options.getMaxWait());
+            }
+            this.requestPermits = requestsAfter;
+            if (this.tokensPerMinute > 0) {
+                this.tokenPermits = tokensAfter;
+            }
+            return waitNanos;
+        }
+
+        synchronized void release(long estimatedTokens) {
+            refill(System.nanoTime());
+            this.requestPermits = Math.min(this.requestCapacity, this.requestPermits + 1);
+            if (this.tokensPerMinute > 0) {
+                this.tokenPermits = Math.min(this.tokensPerMinute, this.tokenPermits + Math.min(estimatedTokens, this.tokensPerMinute));
+            }
+        }
+
+        synchronized void onSuccess(long estimatedTokens, long actualTokens) {
+            refill(System.nanoTime());
+            if (this.tokensPerMinute > 0 && actualTokens > 0) {
+                this.tokenPermits -= actualTokens - Math.min(estimatedTokens, this.tokensPerMinute);
+                this.tokenPermits = Math.min(this.tokenPermits, this.tokensPerMinute);
+            }
+            this.requestsPerSecond = Math.min(this.configuredRequestsPerSecond,
+                    this.requestsPerSecond + this.configuredRequestsPerSecond * INCREASE_STEP);
+        }
+
+        synchronized void onThrottled() {
+            refill(System.nanoTime());
+            this.requestsPerSecond = Math.max(this.configuredRequestsPerSecond * MIN_RATE_FACTOR,
+                    this.requestsPerSecond * DECREASE_FACTOR);
+            this.requestPermits = Math.min(this.requestPermits, 0);
+            log.debug("Model '{}' throttled by DashScope, request rate lowered to {}/s", this.model, this.requestsPerSecond);
+        }
+
+        private void refill(long now) {
+            double elapsedSeconds = (now - this.lastRefill) / NANOS_PER_SECOND;
+            this.lastRefill = now;
+            this.requestPermits = Math.min(this.requestCapacity, this.requestPermits + elapsedSeconds * this.requestsPerSecond);
+            if (this.tokensPerMinute > 0) {
+                this.tokenPermits = Math.min(this.tokensPerMinute, this.tokenPermits + elapsedSeconds * tokensPerSecond());
+            }
+        }
+
+        private double tokensPerSecond() {
+            return this.tokensPerMinute / 60d;
+        }
+
+    }
+
+}
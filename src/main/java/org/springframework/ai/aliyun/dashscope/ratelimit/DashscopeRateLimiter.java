@@ -0,0 +1,65 @@
+package org.springframework.ai.aliyun.dashscope.ratelimit;
+
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeRateLimitException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side limiter placed in front of every DashScope call. The clients use {@link #UNLIMITED}
+ * unless an implementation, such as {@link AdaptiveDashscopeRateLimiter}, is set.
+ */
+public interface DashscopeRateLimiter {
+
+    DashscopeRateLimiter UNLIMITED = new DashscopeRateLimiter() {
+    };
+
+    /**
+     * Reserve one request and the estimated tokens for the model.
+     * @param model the model name
+     * @param estimatedTokens the estimated input plus output tokens
+     * @return the nanoseconds to wait before sending the request
+     * @throws DashscopeRateLimitException if the wait queue is full or the wait would be too long
+     */
+    default long reserve(String model, long estimatedTokens) {
+        return 0;
+    }
+
+    /**
+     * Reserve and block until the request may be sent.
+     * @see #reserve(String, long)
+     */
+    default void acquire(String model, long estimatedTokens) {
+        long waitNanos = reserve(model, estimatedTokens);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            catch (InterruptedException ex) {
+                release(model, estimatedTokens);
+                Thread.currentThread().interrupt();
+                throw new DashscopeSDKException("Interrupted while waiting for rate limit of model: " + model, ex);
+            }
+        }
+    }
+
+    /**
+     * Give back a reservation whose request was never sent, such as a stream cancelled while waiting its turn.
+     * @see #reserve(String, long)
+     */
+    default void release(String model, long estimatedTokens) {
+    }
+
+    /**
+     * Report a successful call so the estimate can be corrected with the actual usage.
+     */
+    default void onSuccess(String model, long estimatedTokens, long actualTokens) {
+    }
+
+    /**
+     * Report a throttling response from DashScope.
+     */
+    default void onThrottled(String model) {
+    }
+
+}
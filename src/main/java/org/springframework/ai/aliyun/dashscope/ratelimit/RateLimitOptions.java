@@ -0,0 +1,167 @@
+package org.springframework.ai.aliyun.dashscope.ratelimit;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+public class RateLimitOptions {
+
+    public static final double DEFAULT_REQUESTS_PER_SECOND = 10;
+
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 100;
+
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(30);
+
+    /**
+     * 是否启用客户端限流。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 每个模型每秒最多发送的请求数（QPS）。
+     */
+    private double requestsPerSecond = DEFAULT_REQUESTS_PER_SECOND;
+
+    /**
+     * 每个模型每分钟最多消耗的 token 数（TPM），0 表示不限制。
+     */
+    private long tokensPerMinute = 0;
+
+    /**
+     * 每个模型最多排队等待的请求数，超出时立即拒绝。
+     */
+    private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+
+    /**
+     * 单个请求最长等待时间，超出时立即拒绝。
+     */
+    private Duration maxWait = DEFAULT_MAX_WAIT;
+
+    /**
+     * 按模型名覆盖的 QPS / TPM 配额。
+     */
+    private Map<String, ModelQuota> models = new HashMap<>();
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final RateLimitOptions options = new RateLimitOptions();
+
+        public Builder withEnabled(boolean enabled) {
+            this.options.setEnabled(enabled);
+            return this;
+        }
+
+        public Builder withRequestsPerSecond(double requestsPerSecond) {
+            this.options.setRequestsPerSecond(requestsPerSecond);
+            return this;
+        }
+
+        public Builder withTokensPerMinute(long tokensPerMinute) {
+            this.options.setTokensPerMinute(tokensPerMinute);
+            return this;
+        }
+
+        public Builder withMaxQueueSize(int maxQueueSize) {
+            this.options.setMaxQueueSize(maxQueueSize);
+            return this;
+        }
+
+        public Builder withMaxWait(Duration maxWait) {
+            this.options.setMaxWait(maxWait);
+            return this;
+        }
+
+        public Builder withModel(String model, ModelQuota quota) {
+            this.options.models.put(model, quota);
+            return this;
+        }
+
+        public RateLimitOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public long getTokensPerMinute() {
+        return tokensPerMinute;
+    }
+
+    public void setTokensPerMinute(long tokensPerMinute) {
+        this.tokensPerMinute = tokensPerMinute;
+    }
+
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public void setMaxQueueSize(int maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public Map<String, ModelQuota> getModels() {
+        return models;
+    }
+
+    public void setModels(Map<String, ModelQuota> models) {
+        this.models = models;
+    }
+
+    public static class ModelQuota {
+
+        /**
+         * 该模型每秒最多发送的请求数，为空时使用全局配置。
+         */
+        private Double requestsPerSecond;
+
+        /**
+         * 该模型每分钟最多消耗的 token 数，为空时使用全局配置。
+         */
+        private Long tokensPerMinute;
+
+        public Double getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public void setRequestsPerSecond(Double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+        }
+
+        public Long getTokensPerMinute() {
+            return tokensPerMinute;
+        }
+
+        public void setTokensPerMinute(Long tokensPerMinute) {
+            this.tokensPerMinute = tokensPerMinute;
+        }
+
+    }
+
+}
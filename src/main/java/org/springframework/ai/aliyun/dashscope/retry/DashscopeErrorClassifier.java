@@ -0,0 +1,110 @@
+package org.springframework.ai.aliyun.dashscope.retry;
+
+import com.alibaba.dashscope.exception.ApiException;
+import com.alibaba.dashscope.exception.InputRequiredException;
+import com.alibaba.dashscope.exception.NoApiKeyException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeCallNotPermittedException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopePromptTooLargeException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeRateLimitException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sorts DashScope SDK errors into throttling, transient and non-retryable ones, by HTTP status and DashScope
+ * error code.
+ */
+public final class DashscopeErrorClassifier {
+
+    public enum ErrorClass {
+
+        /**
+         * Rate or quota limit hit on the DashScope side (HTTP 429 or a {@code Throttling*} code): retry after a
+         * longer wait.
+         */
+        THROTTLED,
+
+        /**
+         * Server error, timeout or connection failure: retry with backoff.
+         */
+        TRANSIENT,
+
+        /**
+         * Invalid input, authentication, content inspection, or a client-side rejection: retrying cannot help.
+         */
+        NON_RETRYABLE
+
+    }
+
+    private DashscopeErrorClassifier() {
+    }
+
+    public static ErrorClass classify(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof DashscopeRateLimitException || current instanceof DashscopeCallNotPermittedException
+                    || current instanceof DashscopePromptTooLargeException
+                    || current instanceof NoApiKeyException || current instanceof InputRequiredException) {
+                return ErrorClass.NON_RETRYABLE;
+            }
+            if (current instanceof ApiException apiException) {
+                return classify(apiException);
+            }
+            if (current instanceof IOException || current instanceof TimeoutException) {
+                return ErrorClass.TRANSIENT;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return ErrorClass.NON_RETRYABLE;
+    }
+
+    public static boolean isRetryable(Throwable error) {
+        return classify(error) != ErrorClass.NON_RETRYABLE;
+    }
+
+    /**
+     * Whether DashScope rejected the request because of rate or quota limits.
+     * @param error the error to inspect
+     * @return true if the error is {@link ErrorClass#THROTTLED}
+     */
+    public static boolean isThrottled(Throwable error) {
+        return classify(error) == ErrorClass.THROTTLED;
+    }
+
+    /**
+     * Describe the error with the DashScope request id, status and code, when known.
+     * @param error the error
+     * @return a one-line description
+     */
+    public static String describe(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof ApiException apiException && apiException.getStatus() != null) {
+                var status = apiException.getStatus();
+                return "DashScope request " + status.getRequestId() + " failed with status " + status.getStatusCode()
+                        + " [" + status.getCode() + "]: " + status.getMessage();
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return "DashScope request failed: " + error.getMessage();
+    }
+
+    private static ErrorClass classify(ApiException error) {
+        var status = error.getStatus();
+        if (status == null) {
+            // Raised by the SDK for network failures before any response was read.
+            return ErrorClass.TRANSIENT;
+        }
+        String code = status.getCode() != null ? status.getCode() : "";
+        if (status.getStatusCode() == 429 || code.startsWith("Throttling")) {
+            return ErrorClass.THROTTLED;
+        }
+        if (status.getStatusCode() >= 500 || status.getStatusCode() == 408 || code.equals("RequestTimeOut")) {
+            return ErrorClass.TRANSIENT;
+        }
+        return ErrorClass.NON_RETRYABLE;
+    }
+
+}
@@ -0,0 +1,176 @@
+package org.springframework.ai.aliyun.dashscope.retry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.BackOffPolicy;
+import org.springframework.retry.context.RetryContextSupport;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * DashScope-aware retries: only throttling and transient errors are retried, waits follow decorrelated jitter
+ * ({@code min(maxBackoff, random(initialBackoff, 3 * previous))}), throttling waits at least
+ * {@code throttledBackoff}, and no retry starts once the next wait would overrun the per-request budget.
+ * <p>
+ * The DashScope SDK does not expose the response headers, so a Retry-After header cannot be read; the throttling
+ * floor stands in for it.
+ */
+public class DashscopeRetry {
+
+    private static final Logger log = LoggerFactory.getLogger(DashscopeRetry.class);
+
+    private static final String ATTEMPTS_ATTRIBUTE = DashscopeRetry.class.getName() + ".attempts";
+
+    private final RetryOptions options;
+
+    public DashscopeRetry(RetryOptions options) {
+        Assert.notNull(options, "RetryOptions must not be null");
+        Assert.isTrue(options.getMaxAttempts() > 0, "maxAttempts must be greater than 0");
+        Assert.notNull(options.getInitialBackoff(), "initialBackoff must not be null");
+        Assert.notNull(options.getMaxBackoff(), "maxBackoff must not be null");
+        Assert.notNull(options.getThrottledBackoff(), "throttledBackoff must not be null");
+        Assert.notNull(options.getBudget(), "budget must not be null");
+        this.options = options;
+    }
+
+    /**
+     * A {@link RetryTemplate} applying this policy, for blocking chat and embedding calls.
+     */
+    public RetryTemplate retryTemplate() {
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(new ClassifyingRetryPolicy());
+        retryTemplate.setBackOffPolicy(new JitterBackOffPolicy());
+        return retryTemplate;
+    }
+
+    /**
+     * A Reactor {@link Retry} applying this policy, for resubscribing to streams.
+     * @param filter further condition for a retry, such as no chunk having been emitted yet
+     * @param beforeRetry called with the error before each retry
+     */
+    public Retry reactorRetry(Predicate<Throwable> filter, Consumer<Throwable> beforeRetry) {
+        return Retry.from(signals -> {
+            Attempts attempts = new Attempts();
+            return signals.concatMap(signal -> {
+                Throwable error = signal.failure();
+                Duration delay = filter.test(error) ? attempts.next(error) : null;
+                if (delay == null) {
+                    return Mono.error(error);
+                }
+                beforeRetry.accept(error);
+                return Mono.delay(delay);
+            });
+        });
+    }
+
+    /**
+     * The retry state of one request.
+     */
+    private final class Attempts {
+
+        private final long start = System.nanoTime();
+
+        private int attempts = 1;
+
+        private Duration previous = options.getInitialBackoff();
+
+        private Duration next;
+
+        /**
+         * Register a failed attempt.
+         * @return the wait before the next attempt, or null if the request must not be retried
+         */
+        Duration next(Throwable error) {
+            this.next = null;
+            DashscopeErrorClassifier.ErrorClass errorClass = DashscopeErrorClassifier.classify(error);
+            if (errorClass == DashscopeErrorClassifier.ErrorClass.NON_RETRYABLE || this.attempts >= options.getMaxAttempts()) {
+                return null;
+            }
+            long base = options.getInitialBackoff().toNanos();
+            long upper = Math.max(base, Math.min(options.getMaxBackoff().toNanos(), this.previous.toNanos() * 3));
+            Duration delay = Duration.ofNanos(base < upper ? ThreadLocalRandom.current().nextLong(base, upper) : upper);
+            if (errorClass == DashscopeErrorClassifier.ErrorClass.THROTTLED && delay.compareTo(options.getThrottledBackoff()) < 0) {
+                delay = options.getThrottledBackoff();
+            }
+            if (System.nanoTime() - this.start + delay.toNanos() > options.getBudget().toNanos()) {
+                log.debug("Retry budget of {} exhausted, giving up: {}", options.getBudget(), DashscopeErrorClassifier.describe(error));
+                return null;
+            }
+            log.debug("Retrying in {} ms after {} error: {}", delay.toMillis(), errorClass, DashscopeErrorClassifier.describe(error));
+            this.attempts++;
+            this.previous = delay;
+            this.next = delay;
+            return delay;
+        }
+
+    }
+
+    private final class ClassifyingRetryPolicy implements RetryPolicy {
+
+        @Override
+        public boolean canRetry(RetryContext context) {
+            if (context.getLastThrowable() == null) {
+                return true;
+            }
+            Attempts attempts = (Attempts) context.getAttribute(ATTEMPTS_ATTRIBUTE);
+            return attempts.next != null;
+        }
+
+        @Override
+        public RetryContext open(RetryContext parent) {
+            RetryContextSupport context = new RetryContextSupport(parent);
+            context.setAttribute(ATTEMPTS_ATTRIBUTE, new Attempts());
+            return context;
+        }
+
+        @Override
+        public void close(RetryContext context) {
+        }
+
+        @Override
+        public void registerThrowable(RetryContext context, Throwable throwable) {
+            ((RetryContextSupport) context).registerThrowable(throwable);
+            ((Attempts) context.getAttribute(ATTEMPTS_ATTRIBUTE)).next(throwable);
+        }
+
+    }
+
+    private static final class JitterBackOffPolicy implements BackOffPolicy {
+
+        @Override
+        public BackOffContext start(RetryContext context) {
+            return new JitterBackOffContext(context);
+        }
+
+        @Override
+        public void backOff(BackOffContext backOffContext) throws BackOffInterruptedException {
+            Attempts attempts = (Attempts) ((JitterBackOffContext) backOffContext).retryContext().getAttribute(ATTEMPTS_ATTRIBUTE);
+            if (attempts == null || attempts.next == null) {
+                return;
+            }
+            try {
+                Thread.sleep(attempts.next.toMillis());
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new BackOffInterruptedException("Thread interrupted while sleeping", ex);
+            }
+        }
+
+    }
+
+    private record JitterBackOffContext(RetryContext retryContext) implements BackOffContext {
+    }
+
+}
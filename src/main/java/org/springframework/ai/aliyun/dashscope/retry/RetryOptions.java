@@ -0,0 +1,139 @@
+package org.springframework.ai.aliyun.dashscope.retry;
+
+import java.time.Duration;
+
+public class RetryOptions {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(500);
+
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(20);
+
+    public static final Duration DEFAULT_THROTTLED_BACKOFF = Duration.ofSeconds(2);
+
+    public static final Duration DEFAULT_BUDGET = Duration.ofSeconds(60);
+
+    /**
+     * 是否按错误类型重试 DashScope 请求。开启时替换容器中的 RetryTemplate；关闭时（默认）使用容器中的 RetryTemplate，即 Spring AI 的默认重试或用户自定义的重试。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 每个请求的最大尝试次数（包括第一次）。
+     */
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    /**
+     * 退避时间的下限，也是第一次重试前的基准等待时间。
+     */
+    private Duration initialBackoff = DEFAULT_INITIAL_BACKOFF;
+
+    /**
+     * 单次退避时间的上限。
+     */
+    private Duration maxBackoff = DEFAULT_MAX_BACKOFF;
+
+    /**
+     * 被 DashScope 限流（HTTP 429 或 Throttling 错误码）后至少等待的时间。
+     */
+    private Duration throttledBackoff = DEFAULT_THROTTLED_BACKOFF;
+
+    /**
+     * 每个请求用于重试的总时间预算，下一次等待会超出预算时不再重试。
+     */
+    private Duration budget = DEFAULT_BUDGET;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final RetryOptions options = new RetryOptions();
+
+        public Builder withEnabled(boolean enabled) {
+            this.options.setEnabled(enabled);
+            return this;
+        }
+
+        public Builder withMaxAttempts(int maxAttempts) {
+            this.options.setMaxAttempts(maxAttempts);
+            return this;
+        }
+
+        public Builder withInitialBackoff(Duration initialBackoff) {
+            this.options.setInitialBackoff(initialBackoff);
+            return this;
+        }
+
+        public Builder withMaxBackoff(Duration maxBackoff) {
+            this.options.setMaxBackoff(maxBackoff);
+            return this;
+        }
+
+        public Builder withThrottledBackoff(Duration throttledBackoff) {
+            this.options.setThrottledBackoff(throttledBackoff);
+            return this;
+        }
+
+        public Builder withBudget(Duration budget) {
+            this.options.setBudget(budget);
+            return this;
+        }
+
+        public RetryOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public Duration getThrottledBackoff() {
+        return throttledBackoff;
+    }
+
+    public void setThrottledBackoff(Duration throttledBackoff) {
+        this.throttledBackoff = throttledBackoff;
+    }
+
+    public Duration getBudget() {
+        return budget;
+    }
+
+    public void setBudget(Duration budget) {
+        this.budget = budget;
+    }
+
+}
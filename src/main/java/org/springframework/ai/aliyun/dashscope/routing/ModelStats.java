@@ -0,0 +1,97 @@
+package org.springframework.ai.aliyun.dashscope.routing;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Latency and outcome of the last {@code windowSize} requests to one model. The window is also kept in latency
+ * order, updated on every {@link #record}, so that reading the p95 does not sort it.
+ */
+public class ModelStats {
+
+    private final long[] latencies;
+
+    private final boolean[] failures;
+
+    /**
+     * The latencies of the window in ascending order, in the first {@code count} slots.
+     */
+    private final long[] sorted;
+
+    private int next;
+
+    private int count;
+
+    private int failed;
+
+    private long lastProbe = System.nanoTime();
+
+    public ModelStats(int windowSize) {
+        this.latencies = new long[windowSize];
+        this.failures = new boolean[windowSize];
+        this.sorted = new long[windowSize];
+    }
+
+    public synchronized void record(Duration latency, boolean success) {
+        int size = this.count;
+        if (size == this.latencies.length) {
+            // The oldest sample leaves the window.
+            int index = Arrays.binarySearch(this.sorted, 0, size, this.latencies[this.next]);
+            System.arraycopy(this.sorted, index + 1, this.sorted, index, size - index - 1);
+            size--;
+            if (this.failures[this.next]) {
+                this.failed--;
+            }
+        }
+        long value = latency.toNanos();
+        int index = Arrays.binarySearch(this.sorted, 0, size, value);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        System.arraycopy(this.sorted, index, this.sorted, index + 1, size - index);
+        this.sorted[index] = value;
+        this.latencies[this.next] = value;
+        this.failures[this.next] = !success;
+        if (!success) {
+            this.failed++;
+        }
+        this.next = (this.next + 1) % this.latencies.length;
+        this.count = size + 1;
+    }
+
+    public synchronized int samples() {
+        return this.count;
+    }
+
+    /**
+     * @return the 95th percentile latency of the window, {@link Duration#ZERO} without samples
+     */
+    public synchronized Duration p95() {
+        if (this.count == 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(this.sorted[(int) Math.ceil(this.count * 0.95) - 1]);
+    }
+
+    /**
+     * Let one request through to an unhealthy model once per interval, so that its stats can recover.
+     * @param interval the minimum time between probes
+     * @return true if the caller should send the probe
+     */
+    public synchronized boolean tryProbe(Duration interval) {
+        long now = System.nanoTime();
+        if (now - this.lastProbe < interval.toNanos()) {
+            return false;
+        }
+        this.lastProbe = now;
+        return true;
+    }
+
+    public synchronized double errorRate() {
+        if (this.count == 0) {
+            return 0;
+        }
+        return (double) this.failed / this.count;
+    }
+
+}
@@ -0,0 +1,251 @@
+package org.springframework.ai.aliyun.dashscope.routing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RoutingOptions {
+
+    public static final Duration DEFAULT_LATENCY_SLO = Duration.ofSeconds(10);
+
+    public static final double DEFAULT_MAX_ERROR_RATE = 0.2;
+
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+
+    public static final int DEFAULT_MIN_SAMPLES = 10;
+
+    public static final Duration DEFAULT_PROBE_INTERVAL = Duration.ofSeconds(30);
+
+    /**
+     * 是否启用模型路由。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 候选模型，按优先级排列；出现限流或超时时依次切换到后面更便宜或更快的模型。
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    /**
+     * 延迟目标：模型最近请求的 p95 延迟超过该值时视为不健康，优先选择后面的模型。
+     */
+    private Duration latencySlo = DEFAULT_LATENCY_SLO;
+
+    /**
+     * 模型最近请求的错误率超过该值时视为不健康。
+     */
+    private double maxErrorRate = DEFAULT_MAX_ERROR_RATE;
+
+    /**
+     * 统计 p95 延迟和错误率的最近请求数。
+     */
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+
+    /**
+     * 样本数少于该值时不判断模型健康状况。
+     */
+    private int minSamples = DEFAULT_MIN_SAMPLES;
+
+    /**
+     * 不健康的模型每隔该时间放行一个探测请求，以便在恢复后重新成为首选。
+     */
+    private Duration probeInterval = DEFAULT_PROBE_INTERVAL;
+
+    /**
+     * 单次尝试的超时时间，超时后切换到下一个模型；为空时不限制。
+     */
+    private Duration attemptTimeout;
+
+    /**
+     * 是否启用对冲请求：首选模型在对冲延迟内未返回时，同时向下一个模型发送请求，取先返回的结果。
+     */
+    private boolean hedge = false;
+
+    /**
+     * 对冲延迟；为空时使用首选模型的 p95 延迟。
+     */
+    private Duration hedgeDelay;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final RoutingOptions options = new RoutingOptions();
+
+        public Builder withEnabled(boolean enabled) {
+            this.options.setEnabled(enabled);
+            return this;
+        }
+
+        public Builder withRoute(String model, long maxInputTokens) {
+            this.options.routes.add(new Route(model, maxInputTokens));
+            return this;
+        }
+
+        public Builder withLatencySlo(Duration latencySlo) {
+            this.options.setLatencySlo(latencySlo);
+            return this;
+        }
+
+        public Builder withMaxErrorRate(double maxErrorRate) {
+            this.options.setMaxErrorRate(maxErrorRate);
+            return this;
+        }
+
+        public Builder withWindowSize(int windowSize) {
+            this.options.setWindowSize(windowSize);
+            return this;
+        }
+
+        public Builder withMinSamples(int minSamples) {
+            this.options.setMinSamples(minSamples);
+            return this;
+        }
+
+        public Builder withProbeInterval(Duration probeInterval) {
+            this.options.setProbeInterval(probeInterval);
+            return this;
+        }
+
+        public Builder withAttemptTimeout(Duration attemptTimeout) {
+            this.options.setAttemptTimeout(attemptTimeout);
+            return this;
+        }
+
+        public Builder withHedge(boolean hedge) {
+            this.options.setHedge(hedge);
+            return this;
+        }
+
+        public Builder withHedgeDelay(Duration hedgeDelay) {
+            this.options.setHedgeDelay(hedgeDelay);
+            return this;
+        }
+
+        public RoutingOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Route> routes) {
+        this.routes = routes;
+    }
+
+    public Duration getLatencySlo() {
+        return latencySlo;
+    }
+
+    public void setLatencySlo(Duration latencySlo) {
+        this.latencySlo = latencySlo;
+    }
+
+    public double getMaxErrorRate() {
+        return maxErrorRate;
+    }
+
+    public void setMaxErrorRate(double maxErrorRate) {
+        this.maxErrorRate = maxErrorRate;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public Duration getProbeInterval() {
+        return probeInterval;
+    }
+
+    public void setProbeInterval(Duration probeInterval) {
+        this.probeInterval = probeInterval;
+    }
+
+    public Duration getAttemptTimeout() {
+        return attemptTimeout;
+    }
+
+    public void setAttemptTimeout(Duration attemptTimeout) {
+        this.attemptTimeout = attemptTimeout;
+    }
+
+    public boolean isHedge() {
+        return hedge;
+    }
+
+    public void setHedge(boolean hedge) {
+        this.hedge = hedge;
+    }
+
+    public Duration getHedgeDelay() {
+        return hedgeDelay;
+    }
+
+    public void setHedgeDelay(Duration hedgeDelay) {
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    public static class Route {
+
+        /**
+         * 模型名。
+         */
+        private String model;
+
+        /**
+         * 该模型接受的最大输入 token 数，超出时跳过该模型；0 表示不限制。
+         */
+        private long maxInputTokens = 0;
+
+        public Route() {
+        }
+
+        public Route(String model, long maxInputTokens) {
+            this.model = model;
+            this.maxInputTokens = maxInputTokens;
+        }
+
+        public String getModel() {
+            return model;
+        }
+
+        public void setModel(String model) {
+            this.model = model;
+        }
+
+        public long getMaxInputTokens() {
+            return maxInputTokens;
+        }
+
+        public void setMaxInputTokens(long maxInputTokens) {
+            this.maxInputTokens = maxInputTokens;
+        }
+
+    }
+
+}
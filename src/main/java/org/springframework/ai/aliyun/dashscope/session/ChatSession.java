@@ -0,0 +1,121 @@
+package org.springframework.ai.aliyun.dashscope.session;
+
+import org.springframework.ai.aliyun.dashscope.util.ApiUtils;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A conversation kept in DashScope SDK form. Every message is converted once, when it is added, so a turn only
+ * converts the new user message and the answer instead of the whole history.
+ * <p>
+ * One session holds one conversation: its turns must not overlap, and starting a turn while another one is in
+ * flight fails. Tool calls and tool responses exchanged within a turn are not kept, as with prompt-based calls; the
+ * session records the user message and the final answer of every successful turn, which for streamed turns with
+ * tool calls is the text of the last round only. History compaction does not apply to sessions.
+ */
+public class ChatSession {
+
+    private final ChatOptions options;
+
+    private final List<com.alibaba.dashscope.common.Message> messages = new ArrayList<>();
+
+    private boolean turnInFlight;
+
+    public ChatSession() {
+        this(null);
+    }
+
+    /**
+     * @param options the options of every turn, merged over the client defaults, may be null
+     */
+    public ChatSession(ChatOptions options) {
+        this.options = options;
+    }
+
+    public ChatOptions getOptions() {
+        return this.options;
+    }
+
+    /**
+     * Add a message, such as a system message or earlier history, without sending it. Only user, assistant and
+     * system messages are kept; function messages and other types are skipped.
+     * @param message the message
+     * @return this session
+     */
+    public synchronized ChatSession add(Message message) {
+        if (ApiUtils.isSessionMessage(message)) {
+            this.messages.add(ApiUtils.toConversationMessage(message));
+        }
+        return this;
+    }
+
+    public synchronized ChatSession addAll(List<Message> messages) {
+        messages.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * The conversation followed by the next message, as sent for a turn. Only references are copied.
+     * @param next the converted message of the turn, or null
+     * @return a new mutable list
+     */
+    public synchronized List<com.alibaba.dashscope.common.Message> conversation(com.alibaba.dashscope.common.Message next) {
+        List<com.alibaba.dashscope.common.Message> conversation = new ArrayList<>(this.messages.size() + 1);
+        conversation.addAll(this.messages);
+        if (next != null) {
+            conversation.add(next);
+        }
+        return conversation;
+    }
+
+    /**
+     * Mark the start of a turn.
+     * @throws IllegalStateException if another turn of this session is in flight
+     */
+    public synchronized void startTurn() {
+        Assert.state(!this.turnInFlight, "Another turn of this session is in flight");
+        this.turnInFlight = true;
+    }
+
+    /**
+     * Mark the end of the current turn, whether it completed, failed or was cancelled.
+     */
+    public synchronized void endTurn() {
+        this.turnInFlight = false;
+    }
+
+    /**
+     * Record a completed turn.
+     * @param message the converted message of the turn, or null
+     * @param response the final answer
+     */
+    public synchronized void complete(com.alibaba.dashscope.common.Message message, ChatResponse response) {
+        if (message != null) {
+            this.messages.add(message);
+        }
+        if (response != null && response.getResult() != null && response.getResult().getOutput() != null) {
+            this.messages.add(ApiUtils.toConversationMessage(response.getResult().getOutput()));
+        }
+    }
+
+    /**
+     * @return the converted conversation, read-only
+     */
+    public synchronized List<com.alibaba.dashscope.common.Message> getMessages() {
+        return List.copyOf(this.messages);
+    }
+
+    public synchronized int size() {
+        return this.messages.size();
+    }
+
+    public synchronized void clear() {
+        this.messages.clear();
+    }
+
+}
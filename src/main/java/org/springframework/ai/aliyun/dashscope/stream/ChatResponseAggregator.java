@@ -0,0 +1,96 @@
+package org.springframework.ai.aliyun.dashscope.stream;
+
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.Generation;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.Usage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Rebuilds the full assistant message from the incremental chunks of one stream. Each delta is appended to a
+ * running buffer per generation, so the total cost is linear in the length of the answer. The finish reason
+ * and usage of the last chunk that carries them are kept. Not thread-safe, use one instance per stream.
+ */
+public class ChatResponseAggregator {
+
+    private final List<StringBuilder> contents = new ArrayList<>(1);
+
+    private final List<Map<String, Object>> properties = new ArrayList<>(1);
+
+    private final List<String> finishReasons = new ArrayList<>(1);
+
+    private Usage usage;
+
+    private ChatResponseMetadata metadata;
+
+    /**
+     * Aggregate the deltas into a single response emitted when the stream completes.
+     * @param deltas the incremental chunks
+     * @return the aggregated response
+     */
+    public static Mono<ChatResponse> aggregate(Flux<ChatResponse> deltas) {
+        return Mono.defer(() -> {
+            ChatResponseAggregator aggregator = new ChatResponseAggregator();
+            return deltas.doOnNext(aggregator::append).then(Mono.fromSupplier(aggregator::aggregate));
+        });
+    }
+
+    /**
+     * Pass the deltas through and hand the aggregated response to the consumer when the stream completes.
+     * @param deltas the incremental chunks
+     * @param onAggregate called once with the full response, not called on error or cancellation
+     * @return the same deltas
+     */
+    public static Flux<ChatResponse> aggregate(Flux<ChatResponse> deltas, Consumer<ChatResponse> onAggregate) {
+        return Flux.defer(() -> {
+            ChatResponseAggregator aggregator = new ChatResponseAggregator();
+            return deltas.doOnNext(aggregator::append).doOnComplete(() -> onAggregate.accept(aggregator.aggregate()));
+        });
+    }
+
+    public void append(ChatResponse delta) {
+        List<Generation> generations = delta.getResults();
+        for (int i = 0; i < generations.size(); i++) {
+            Generation generation = generations.get(i);
+            if (this.contents.size() <= i) {
+                this.contents.add(new StringBuilder());
+                this.properties.add(Map.of());
+                this.finishReasons.add(null);
+            }
+            if (generation.getContent() != null) {
+                this.contents.get(i).append(generation.getContent());
+            }
+            if (generation.getProperties() != null) {
+                this.properties.set(i, generation.getProperties());
+            }
+            ChatGenerationMetadata generationMetadata = generation.getMetadata();
+            if (generationMetadata != null && generationMetadata.getFinishReason() != null) {
+                this.finishReasons.set(i, generationMetadata.getFinishReason());
+            }
+        }
+        ChatResponseMetadata responseMetadata = delta.getMetadata();
+        if (responseMetadata != null) {
+            this.metadata = responseMetadata;
+            if (responseMetadata.getUsage() != null) {
+                this.usage = responseMetadata.getUsage();
+            }
+        }
+    }
+
+    public ChatResponse aggregate() {
+        List<Generation> generations = new ArrayList<>(this.contents.size());
+        for (int i = 0; i < this.contents.size(); i++) {
+            generations.add(new Generation(this.contents.get(i).toString(), this.properties.get(i))
+                    .withGenerationMetadata(ChatGenerationMetadata.from(this.finishReasons.get(i), this.usage)));
+        }
+        return this.metadata != null ? new ChatResponse(generations, this.metadata) : new ChatResponse(generations);
+    }
+
+}
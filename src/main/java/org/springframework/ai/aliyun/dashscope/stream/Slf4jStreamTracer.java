@@ -0,0 +1,118 @@
+package org.springframework.ai.aliyun.dashscope.stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.aliyun.dashscope.metadata.AliyunAiDashscopeChatResponseMetadata;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.Generation;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Logs one summary line per sampled stream at INFO: request id, outcome, chunk and character counts,
+ * time to first chunk and duration. Chunk contents are logged at DEBUG for streams that asked for payload tracing.
+ */
+public class Slf4jStreamTracer implements StreamTracer {
+
+    private final Logger log;
+
+    private final double sampleRate;
+
+    private final DoubleSupplier random;
+
+    public Slf4jStreamTracer(StreamTraceOptions options) {
+        this(options, LoggerFactory.getLogger(Slf4jStreamTracer.class), () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param log the logger the traces are written to
+     * @param random the source of the sampling decisions, uniform in [0, 1)
+     */
+    Slf4jStreamTracer(StreamTraceOptions options, Logger log, DoubleSupplier random) {
+        Assert.notNull(options, "StreamTraceOptions must not be null");
+        Assert.isTrue(options.getSampleRate() >= 0 && options.getSampleRate() <= 1, "sampleRate must be between 0 and 1");
+        this.log = log;
+        this.sampleRate = options.getSampleRate();
+        this.random = random;
+    }
+
+    @Override
+    public Trace start(String model, boolean payload) {
+        if (!payload && (this.sampleRate == 0 || this.random.getAsDouble() >= this.sampleRate)) {
+            return null;
+        }
+        if (!this.log.isInfoEnabled()) {
+            return null;
+        }
+        return new LoggingTrace(model, payload && this.log.isDebugEnabled());
+    }
+
+    private final class LoggingTrace implements Trace {
+
+        private final String model;
+
+        private final boolean payload;
+
+        private final long start = System.nanoTime();
+
+        private long firstChunk;
+
+        private int chunks;
+
+        private long characters;
+
+        private String requestId;
+
+        LoggingTrace(String model, boolean payload) {
+            this.model = model;
+            this.payload = payload;
+        }
+
+        @Override
+        public void onChunk(ChatResponse chunk) {
+            if (this.chunks++ == 0) {
+                this.firstChunk = System.nanoTime();
+            }
+            if (this.requestId == null && chunk.getMetadata() instanceof AliyunAiDashscopeChatResponseMetadata metadata) {
+                this.requestId = metadata.getId();
+            }
+            for (Generation generation : chunk.getResults()) {
+                String content = generation.getOutput().getContent();
+                if (content != null) {
+                    this.characters += content.length();
+                    if (this.payload) {
+                        log.debug("DashScope stream chunk: requestId={}, content={}", this.requestId, content);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            finish("complete");
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            finish("error: " + error.getClass().getSimpleName());
+        }
+
+        @Override
+        public void onCancel() {
+            finish("cancel");
+        }
+
+        private void finish(String outcome) {
+            long end = System.nanoTime();
+            long timeToFirstChunk = this.chunks > 0 ? TimeUnit.NANOSECONDS.toMillis(this.firstChunk - this.start) : -1;
+            log.info("DashScope stream: model={}, requestId={}, outcome={}, chunks={}, chars={}, ttftMs={}, durationMs={}",
+                    this.model, this.requestId, outcome, this.chunks, this.characters, timeToFirstChunk,
+                    TimeUnit.NANOSECONDS.toMillis(end - this.start));
+        }
+
+    }
+
+}
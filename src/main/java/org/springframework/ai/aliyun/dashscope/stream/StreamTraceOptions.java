@@ -0,0 +1,55 @@
+package org.springframework.ai.aliyun.dashscope.stream;
+
+public class StreamTraceOptions {
+
+    /**
+     * 是否启用流式输出追踪。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 被追踪的流的采样比例，取值 0 到 1；显式请求输出内容追踪的流总是被追踪。
+     */
+    private double sampleRate = 0.01;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final StreamTraceOptions options = new StreamTraceOptions();
+
+        public Builder withEnabled(boolean enabled) {
+            this.options.setEnabled(enabled);
+            return this;
+        }
+
+        public Builder withSampleRate(double sampleRate) {
+            this.options.setSampleRate(sampleRate);
+            return this;
+        }
+
+        public StreamTraceOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.springframework.ai.aliyun.dashscope.stream;
+
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.lang.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * Per-stream tracing of the DashScope chat client. A tracer decides for each stream whether it is traced, and a
+ * traced stream only keeps counters and timings unless payload tracing was requested for it, by subscribing with
+ * {@link #payloadTracing()} in the Reactor context:
+ * <pre>
+ * chatClient.stream(prompt).contextWrite(StreamTracer.payloadTracing())
+ * </pre>
+ * The client uses {@link #NOOP} unless an implementation, such as {@link Slf4jStreamTracer}, is set.
+ */
+public interface StreamTracer {
+
+    String PAYLOAD_CONTEXT_KEY = StreamTracer.class.getName() + ".payload";
+
+    StreamTracer NOOP = (model, payload) -> null;
+
+    static Context payloadTracing() {
+        return Context.of(PAYLOAD_CONTEXT_KEY, Boolean.TRUE);
+    }
+
+    /**
+     * Start tracing one stream.
+     * @param model the requested model
+     * @param payload whether the subscriber asked for the chunk contents to be traced
+     * @return the trace, or null if this stream is not traced
+     */
+    @Nullable
+    Trace start(String model, boolean payload);
+
+    interface Trace {
+
+        void onChunk(ChatResponse chunk);
+
+        void onComplete();
+
+        void onError(Throwable error);
+
+        void onCancel();
+
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.springframework.ai.aliyun.dashscope.stream;
+
+import reactor.core.publisher.BufferOverflowStrategy;
+
+import java.time.Duration;
+
+public class StreamingOptions {
+
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(500);
+
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(10);
+
+    /**
+     * 下游消费不及时时，最多缓存的流式分片数。
+     */
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    /**
+     * 缓存已满时的处理策略：ERROR 终止流，DROP_OLDEST / DROP_LATEST 丢弃分片。
+     */
+    private BufferOverflowStrategy overflowStrategy = BufferOverflowStrategy.ERROR;
+
+    /**
+     * 收到第一个分片之前的最大尝试次数（含首次请求）。
+     */
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    /**
+     * 首次重试的退避时间，之后按指数增长。
+     */
+    private Duration initialBackoff = DEFAULT_INITIAL_BACKOFF;
+
+    /**
+     * 重试退避时间上限。
+     */
+    private Duration maxBackoff = DEFAULT_MAX_BACKOFF;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final StreamingOptions options = new StreamingOptions();
+
+        public Builder withBufferSize(int bufferSize) {
+            this.options.setBufferSize(bufferSize);
+            return this;
+        }
+
+        public Builder withOverflowStrategy(BufferOverflowStrategy overflowStrategy) {
+            this.options.setOverflowStrategy(overflowStrategy);
+            return this;
+        }
+
+        public Builder withMaxAttempts(int maxAttempts) {
+            this.options.setMaxAttempts(maxAttempts);
+            return this;
+        }
+
+        public Builder withInitialBackoff(Duration initialBackoff) {
+            this.options.setInitialBackoff(initialBackoff);
+            return this;
+        }
+
+        public Builder withMaxBackoff(Duration maxBackoff) {
+            this.options.setMaxBackoff(maxBackoff);
+            return this;
+        }
+
+        public StreamingOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public BufferOverflowStrategy getOverflowStrategy() {
+        return overflowStrategy;
+    }
+
+    public void setOverflowStrategy(BufferOverflowStrategy overflowStrategy) {
+        this.overflowStrategy = overflowStrategy;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+}
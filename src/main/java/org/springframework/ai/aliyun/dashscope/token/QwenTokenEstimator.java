@@ -0,0 +1,171 @@
+package org.springframework.ai.aliyun.dashscope.token;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offline token counter for the Qwen model family. Text is split with the Qwen pre-tokenizer pattern and every
+ * piece is counted once, then served from a bounded cache, so repeated words cost a map lookup.
+ * <p>
+ * Given the Qwen vocabulary ({@code qwen.tiktoken}: one base64 token and its rank per line), pieces are counted
+ * exactly with byte-level BPE. Without it, pieces are estimated from their script: about 1.5 Han characters,
+ * or 6 Latin letters, per token, and one token per digit, symbol or whitespace run.
+ */
+public class QwenTokenEstimator implements TokenEstimator {
+
+    public static final int DEFAULT_CACHE_SIZE = 100_000;
+
+    private static final Pattern PRE_TOKENIZER = Pattern.compile(
+            "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+");
+
+    /**
+     * Ranks keyed by the token bytes as ISO-8859-1 characters, null for the estimating mode.
+     */
+    @Nullable
+    private final Map<String, Integer> ranks;
+
+    private final int cacheSize;
+
+    private final Map<String, Integer> cache = new ConcurrentHashMap<>();
+
+    public QwenTokenEstimator() {
+        this(null, DEFAULT_CACHE_SIZE);
+    }
+
+    private QwenTokenEstimator(@Nullable Map<String, Integer> ranks, int cacheSize) {
+        Assert.isTrue(cacheSize >= 0, "cacheSize must not be negative");
+        this.ranks = ranks;
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Load the Qwen BPE vocabulary.
+     * @param vocabulary the {@code qwen.tiktoken} content, closed by the caller
+     * @param cacheSize the number of distinct pieces to keep counts for
+     * @return an exact token counter
+     */
+    public static QwenTokenEstimator fromVocabulary(InputStream vocabulary, int cacheSize) throws IOException {
+        Map<String, Integer> ranks = new HashMap<>(1 << 18);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(vocabulary, StandardCharsets.US_ASCII));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int separator = line.indexOf(' ');
+            if (separator <= 0) {
+                continue;
+            }
+            byte[] token = Base64.getDecoder().decode(line.substring(0, separator));
+            ranks.put(new String(token, StandardCharsets.ISO_8859_1), Integer.parseInt(line.substring(separator + 1).trim()));
+        }
+        Assert.isTrue(!ranks.isEmpty(), "Qwen vocabulary is empty");
+        return new QwenTokenEstimator(ranks, cacheSize);
+    }
+
+    public boolean isExact() {
+        return this.ranks != null;
+    }
+
+    /**
+     * All Qwen models share one vocabulary, so the model is not used.
+     */
+    @Override
+    public int estimate(String model, String text) {
+        return count(text);
+    }
+
+    public int count(@Nullable String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int tokens = 0;
+        Matcher matcher = PRE_TOKENIZER.matcher(text);
+        while (matcher.find()) {
+            tokens += countPiece(matcher.group());
+        }
+        return tokens;
+    }
+
+    private int countPiece(String piece) {
+        Integer cached = this.cache.get(piece);
+        if (cached != null) {
+            return cached;
+        }
+        int tokens = this.ranks != null ? encodedLength(piece) : estimatePiece(piece);
+        if (this.cacheSize > 0) {
+            // Dropping everything is cheaper than LRU bookkeeping, and frequent pieces come back at once.
+            if (this.cache.size() >= this.cacheSize) {
+                this.cache.clear();
+            }
+            this.cache.put(piece, tokens);
+        }
+        return tokens;
+    }
+
+    /**
+     * Byte-level BPE: repeatedly merge the adjacent pair with the lowest rank.
+     */
+    private int encodedLength(String piece) {
+        String bytes = new String(piece.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+        if (this.ranks.containsKey(bytes)) {
+            return 1;
+        }
+        List<String> parts = new ArrayList<>(bytes.length());
+        for (int i = 0; i < bytes.length(); i++) {
+            parts.add(bytes.substring(i, i + 1));
+        }
+        while (parts.size() > 1) {
+            int bestIndex = -1;
+            int bestRank = Integer.MAX_VALUE;
+            for (int i = 0; i < parts.size() - 1; i++) {
+                Integer rank = this.ranks.get(parts.get(i) + parts.get(i + 1));
+                if (rank != null && rank < bestRank) {
+                    bestRank = rank;
+                    bestIndex = i;
+                }
+            }
+            if (bestIndex < 0) {
+                break;
+            }
+            parts.set(bestIndex, parts.get(bestIndex) + parts.remove(bestIndex + 1));
+        }
+        return parts.size();
+    }
+
+    private static int estimatePiece(String piece) {
+        int han = 0;
+        int letters = 0;
+        int others = 0;
+        boolean whitespace = true;
+        for (int i = 0; i < piece.length(); i++) {
+            char c = piece.charAt(i);
+            if (Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN) {
+                han++;
+            }
+            else if (Character.isLetter(c)) {
+                letters++;
+            }
+            else if (!Character.isWhitespace(c)) {
+                others++;
+            }
+            whitespace &= Character.isWhitespace(c);
+        }
+        if (whitespace) {
+            return 1;
+        }
+        return (han * 2 + 2) / 3 + (letters + 5) / 6 + others;
+    }
+
+}
@@ -0,0 +1,16 @@
+package org.springframework.ai.aliyun.dashscope.token;
+
+/**
+ * Counts the tokens of a text for a given model without calling DashScope.
+ */
+@FunctionalInterface
+public interface TokenEstimator {
+
+    /**
+     * {@link QwenTokenEstimator} without a vocabulary, estimating from the script of the text.
+     */
+    TokenEstimator DEFAULT = new QwenTokenEstimator();
+
+    int estimate(String model, String text);
+
+}
@@ -0,0 +1,55 @@
+package org.springframework.ai.aliyun.dashscope.token;
+
+public class TokenizerOptions {
+
+    /**
+     * Qwen 词表（qwen.tiktoken）的资源位置，如 classpath:qwen.tiktoken；为空时按字符类别估算 token 数。
+     */
+    private String vocabulary;
+
+    /**
+     * 缓存 token 数的不同文本片段数上限。
+     */
+    private int cacheSize = QwenTokenEstimator.DEFAULT_CACHE_SIZE;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final TokenizerOptions options = new TokenizerOptions();
+
+        public Builder withVocabulary(String vocabulary) {
+            this.options.setVocabulary(vocabulary);
+            return this;
+        }
+
+        public Builder withCacheSize(int cacheSize) {
+            this.options.setCacheSize(cacheSize);
+            return this;
+        }
+
+        public TokenizerOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public String getVocabulary() {
+        return vocabulary;
+    }
+
+    public void setVocabulary(String vocabulary) {
+        this.vocabulary = vocabulary;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+}
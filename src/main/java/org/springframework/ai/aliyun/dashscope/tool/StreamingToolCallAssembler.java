@@ -0,0 +1,77 @@
+package org.springframework.ai.aliyun.dashscope.tool;
+
+import com.alibaba.dashscope.tools.ToolCallBase;
+import com.alibaba.dashscope.tools.ToolCallFunction;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Assembles the function tool calls of one streamed assistant message from their incremental deltas. A delta
+ * with a new id starts a call, deltas without one continue the arguments of the current call. A call is handed
+ * to the consumer as soon as it is complete: when the next call starts, or when the stream ends.
+ * Not thread-safe, use one instance per streamed turn.
+ */
+public class StreamingToolCallAssembler {
+
+    private final Consumer<ToolCallFunction> onComplete;
+
+    private final List<ToolCallFunction> toolCalls = new ArrayList<>();
+
+    private ToolCallFunction current;
+
+    private StringBuilder arguments;
+
+    public StreamingToolCallAssembler(Consumer<ToolCallFunction> onComplete) {
+        this.onComplete = onComplete;
+    }
+
+    public void append(List<ToolCallBase> deltas) {
+        for (ToolCallBase delta : deltas) {
+            if (!(delta instanceof ToolCallFunction function) || function.getFunction() == null) {
+                continue;
+            }
+            boolean startsCall = this.current == null
+                    || (StringUtils.hasText(function.getId()) && !function.getId().equals(this.current.getId()));
+            if (startsCall) {
+                completeCurrent();
+                this.current = function;
+                this.arguments = new StringBuilder();
+            }
+            else if (StringUtils.hasText(function.getFunction().getName()) && !StringUtils.hasText(this.current.getFunction().getName())) {
+                this.current.getFunction().setName(function.getFunction().getName());
+            }
+            if (function.getFunction().getArguments() != null) {
+                this.arguments.append(function.getFunction().getArguments());
+            }
+        }
+    }
+
+    /**
+     * Complete the last call once the stream has ended.
+     * @return all assembled calls in stream order
+     */
+    public List<ToolCallFunction> finish() {
+        completeCurrent();
+        return List.copyOf(this.toolCalls);
+    }
+
+    public boolean hasToolCalls() {
+        return this.current != null || !this.toolCalls.isEmpty();
+    }
+
+    private void completeCurrent() {
+        if (this.current == null) {
+            return;
+        }
+        this.current.getFunction().setArguments(this.arguments.toString());
+        this.toolCalls.add(this.current);
+        ToolCallFunction completed = this.current;
+        this.current = null;
+        this.arguments = null;
+        this.onComplete.accept(completed);
+    }
+
+}
@@ -0,0 +1,202 @@
+package org.springframework.ai.aliyun.dashscope.tool;
+
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+import org.springframework.ai.model.function.FunctionCallback;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Executes the tool calls of one assistant message, either one after another or concurrently.
+ * Responses are always returned in the order of the tool calls.
+ */
+public class ToolCallExecutor {
+
+    private final ToolExecutionOptions options;
+
+    private final Executor executor;
+
+    public ToolCallExecutor(ToolExecutionOptions options, Executor executor) {
+        Assert.notNull(options, "ToolExecutionOptions must not be null");
+        Assert.notNull(executor, "Executor must not be null");
+        Assert.isTrue(options.getParallelism() > 0, "parallelism must be greater than 0");
+        this.options = options;
+        this.executor = executor;
+    }
+
+    public List<String> execute(List<ToolCall> toolCalls) {
+        if (!options.isParallel() || toolCalls.size() <= 1) {
+            return toolCalls.stream().map(ToolCall::call).toList();
+        }
+        Round round = newRound();
+        toolCalls.forEach(round::submit);
+        return round.await();
+    }
+
+    /**
+     * Start a round for tool calls that become known one at a time, as when they are streamed.
+     * @return a new round
+     */
+    public Round newRound() {
+        return new Round();
+    }
+
+    /**
+     * The tool calls of one assistant message, started as soon as they are submitted. Sequential
+     * execution runs each call on the submitting thread, concurrent execution on the executor with at
+     * most {@code parallelism} calls running at a time.
+     */
+    public final class Round {
+
+        private final Semaphore permits = new Semaphore(options.getParallelism());
+
+        // Calls may be submitted on one thread and the round cancelled from another.
+        private final List<ToolCall> toolCalls = new CopyOnWriteArrayList<>();
+
+        private final List<CompletableFuture<String>> futures = new CopyOnWriteArrayList<>();
+
+        private Round() {
+        }
+
+        public void submit(ToolCall toolCall) {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            this.toolCalls.add(toolCall);
+            this.futures.add(future);
+            if (!options.isParallel()) {
+                try {
+                    future.complete(toolCall.call());
+                }
+                catch (Throwable ex) {
+                    future.completeExceptionally(ex);
+                }
+                return;
+            }
+            executor.execute(() -> {
+                permits.acquireUninterruptibly();
+                AtomicBoolean released = new AtomicBoolean();
+                Runnable release = () -> {
+                    if (released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                };
+                FutureTask<String> task = new FutureTask<>(toolCall::call);
+                try {
+                    if (future.isDone()) {
+                        return;
+                    }
+                    // A call that times out or is cancelled gives its permit back at once and is interrupted.
+                    future.whenComplete((response, ex) -> {
+                        if (ex != null) {
+                            release.run();
+                            task.cancel(true);
+                        }
+                    });
+                    // The timeout starts once the tool actually runs, not while it waits for a permit.
+                    future.orTimeout(options.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                    task.run();
+                    if (!task.isCancelled()) {
+                        future.complete(task.get());
+                    }
+                }
+                catch (ExecutionException ex) {
+                    future.completeExceptionally(ex.getCause());
+                }
+                catch (Throwable ex) {
+                    future.completeExceptionally(ex);
+                }
+                finally {
+                    if (task.isCancelled()) {
+                        // Clear the interrupt meant for the tool before the thread goes back to the executor.
+                        Thread.interrupted();
+                    }
+                    release.run();
+                }
+            });
+        }
+
+        public List<ToolCall> toolCalls() {
+            return List.copyOf(this.toolCalls);
+        }
+
+        /**
+         * Wait for all submitted calls.
+         * @return the responses in submission order
+         */
+        public List<String> await() {
+            List<String> responses = new ArrayList<>(this.futures.size());
+            for (int i = 0; i < this.futures.size(); i++) {
+                try {
+                    responses.add(this.futures.get(i).get());
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    throw new DashscopeSDKException("Interrupted while waiting for tool call: " + this.toolCalls.get(i).name(), ex);
+                }
+                catch (ExecutionException ex) {
+                    cancel();
+                    throw toException(this.toolCalls.get(i), ex.getCause());
+                }
+            }
+            return responses;
+        }
+
+        /**
+         * Non-blocking variant of {@link #await()}.
+         * @return the responses in submission order, or the failure of the first failed call
+         */
+        public CompletableFuture<List<String>> whenComplete() {
+            List<CompletableFuture<String>> mapped = new ArrayList<>(this.futures.size());
+            for (int i = 0; i < this.futures.size(); i++) {
+                ToolCall toolCall = this.toolCalls.get(i);
+                mapped.add(this.futures.get(i).handle((response, ex) -> {
+                    if (ex != null) {
+                        cancel();
+                        throw toException(toolCall, ex);
+                    }
+                    return response;
+                }));
+            }
+            return CompletableFuture.allOf(mapped.toArray(CompletableFuture[]::new))
+                    .thenApply(ignored -> mapped.stream().map(CompletableFuture::join).toList());
+        }
+
+        public void cancel() {
+            this.futures.forEach(f -> f.cancel(false));
+        }
+
+    }
+
+    private RuntimeException toException(ToolCall toolCall, Throwable cause) {
+        if (cause instanceof TimeoutException) {
+            return new DashscopeSDKException("Tool call '" + toolCall.name() + "' timed out after " + options.getTimeout());
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new DashscopeSDKException("Error occurred in tool call: " + toolCall.name(), cause);
+    }
+
+    /**
+     * @param function the callback invocation, usually {@link FunctionCallback#call(String)}
+     */
+    public record ToolCall(String id, String name, String arguments, Function<String, String> function) {
+
+        String call() {
+            return function.apply(arguments);
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.springframework.ai.aliyun.dashscope.tool;
+
+import java.time.Duration;
+
+public class ToolExecutionOptions {
+
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * 模型一次返回多个工具调用时是否并发执行，默认按顺序执行。
+     */
+    private boolean parallel = false;
+
+    /**
+     * 并发执行时同时运行的工具调用数上限。
+     */
+    private int parallelism = DEFAULT_PARALLELISM;
+
+    /**
+     * 并发执行时单个工具调用的超时时间，从该调用开始执行时计时。
+     */
+    private Duration timeout = DEFAULT_TIMEOUT;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final ToolExecutionOptions options = new ToolExecutionOptions();
+
+        public Builder withParallel(boolean parallel) {
+            this.options.setParallel(parallel);
+            return this;
+        }
+
+        public Builder withParallelism(int parallelism) {
+            this.options.setParallelism(parallelism);
+            return this;
+        }
+
+        public Builder withTimeout(Duration timeout) {
+            this.options.setTimeout(timeout);
+            return this;
+        }
+
+        public ToolExecutionOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+}
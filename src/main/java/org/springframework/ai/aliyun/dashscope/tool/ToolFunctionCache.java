@@ -0,0 +1,46 @@
+package org.springframework.ai.aliyun.dashscope.tool;
+
+import com.alibaba.dashscope.tools.FunctionDefinition;
+import com.alibaba.dashscope.tools.ToolFunction;
+import com.alibaba.dashscope.utils.JsonUtils;
+import org.springframework.ai.model.function.FunctionCallback;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the {@link ToolFunction} built for each function callback, keyed by function name.
+ * An entry is rebuilt when a different callback instance is found under the same name, or after it is evicted
+ * because its callback was replaced.
+ */
+public class ToolFunctionCache {
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    public ToolFunction get(FunctionCallback functionCallback) {
+        Entry entry = this.cache.get(functionCallback.getName());
+        if (entry == null || entry.callback() != functionCallback) {
+            entry = new Entry(functionCallback, toToolFunction(functionCallback));
+            this.cache.put(functionCallback.getName(), entry);
+        }
+        return entry.tool();
+    }
+
+    public void evict(String functionName) {
+        this.cache.remove(functionName);
+    }
+
+    private static ToolFunction toToolFunction(FunctionCallback functionCallback) {
+        var function = FunctionDefinition.builder()
+                .name(functionCallback.getName())
+                .description(functionCallback.getDescription())
+                .parameters(StringUtils.hasText(functionCallback.getInputTypeSchema()) ? JsonUtils.parseString(functionCallback.getInputTypeSchema()).getAsJsonObject() : null)
+                .build();
+        return ToolFunction.builder().function(function).build();
+    }
+
+    private record Entry(FunctionCallback callback, ToolFunction tool) {
+    }
+
+}
@@ -0,0 +1,32 @@
+package org.springframework.ai.aliyun.dashscope.transport;
+
+import com.alibaba.dashscope.aigc.generation.Generation;
+import com.alibaba.dashscope.embeddings.TextEmbedding;
+import org.springframework.util.Assert;
+
+/**
+ * Creates DashScope SDK clients for the configured protocol. The SDK keeps a single OkHttp client, and so a single
+ * connection pool, per process, so clients created here share that pool. Its settings are applied separately, by
+ * {@link DashscopeGlobalTransportInitializer}.
+ */
+public class DashscopeClients {
+
+    private final TransportOptions options;
+
+    public DashscopeClients(TransportOptions options) {
+        Assert.notNull(options, "TransportOptions must not be null");
+        this.options = options;
+    }
+
+    public Generation generation() {
+        String protocol = this.options.getProtocol() == TransportOptions.Protocol.WEBSOCKET
+                ? com.alibaba.dashscope.protocol.Protocol.WEBSOCKET.getValue()
+                : com.alibaba.dashscope.protocol.Protocol.HTTP.getValue();
+        return new Generation(protocol);
+    }
+
+    public TextEmbedding textEmbedding() {
+        return new TextEmbedding();
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.springframework.ai.aliyun.dashscope.transport;
+
+import com.alibaba.dashscope.protocol.ConnectionConfigurations;
+import com.alibaba.dashscope.utils.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies {@link TransportOptions} to the DashScope SDK. The SDK reads its connection settings and base URLs from
+ * the static fields of {@link Constants}, so they are JVM-global: they affect every DashScope client in the process,
+ * including ones created outside Spring, and only take effect if applied before the SDK's first request.
+ * <p>
+ * The options are applied once per JVM. Later calls, for example from a second application context, are ignored
+ * with a warning.
+ */
+public class DashscopeGlobalTransportInitializer {
+
+    private static final AtomicBoolean INITIALIZED = new AtomicBoolean();
+
+    private static final Logger log = LoggerFactory.getLogger(DashscopeGlobalTransportInitializer.class);
+
+    private final TransportOptions options;
+
+    public DashscopeGlobalTransportInitializer(TransportOptions options) {
+        Assert.notNull(options, "TransportOptions must not be null");
+        Assert.isTrue(options.getConnectionPoolSize() > 0, "connectionPoolSize must be greater than 0");
+        Assert.isTrue(options.getMaxConcurrentRequests() > 0, "maxConcurrentRequests must be greater than 0");
+        Assert.isTrue(options.getMaxConcurrentRequestsPerHost() > 0, "maxConcurrentRequestsPerHost must be greater than 0");
+        this.options = options;
+    }
+
+    /**
+     * Write the options to the SDK's global settings, unless that has already been done in this JVM.
+     * @return true if the options were applied
+     */
+    public boolean initialize() {
+        if (!INITIALIZED.compareAndSet(false, true)) {
+            log.warn("DashScope transport settings are JVM-global and were already applied, ignoring these ones");
+            return false;
+        }
+        Constants.connectionConfigurations = ConnectionConfigurations.builder()
+                .connectTimeout(this.options.getConnectTimeout())
+                .readTimeout(this.options.getReadTimeout())
+                .writeTimeout(this.options.getWriteTimeout())
+                .connectionIdleTimeout(this.options.getConnectionIdleTimeout())
+                .connectionPoolSize(this.options.getConnectionPoolSize())
+                .maximumAsyncRequests(this.options.getMaxConcurrentRequests())
+                .maximumAsyncRequestsPerHost(this.options.getMaxConcurrentRequestsPerHost())
+                .build();
+        if (StringUtils.hasText(this.options.getBaseHttpUrl())) {
+            Constants.baseHttpApiUrl = this.options.getBaseHttpUrl();
+        }
+        if (StringUtils.hasText(this.options.getBaseWebsocketUrl())) {
+            Constants.baseWebsocketApiUrl = this.options.getBaseWebsocketUrl();
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,227 @@
+package org.springframework.ai.aliyun.dashscope.transport;
+
+import java.time.Duration;
+
+public class TransportOptions {
+
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(120);
+
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(300);
+
+    public static final Duration DEFAULT_WRITE_TIMEOUT = Duration.ofSeconds(60);
+
+    public static final Duration DEFAULT_CONNECTION_IDLE_TIMEOUT = Duration.ofSeconds(300);
+
+    public static final int DEFAULT_CONNECTION_POOL_SIZE = 32;
+
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 32;
+
+    public enum Protocol {
+
+        /**
+         * HTTP，流式输出使用 SSE。
+         */
+        HTTP,
+
+        /**
+         * WebSocket，仅对话模型支持。
+         */
+        WEBSOCKET
+
+    }
+
+    /**
+     * 对话模型使用的协议，向量模型固定使用 HTTP。
+     */
+    private Protocol protocol = Protocol.HTTP;
+
+    /**
+     * 覆盖 DashScope HTTP 接入地址，为空时使用 SDK 默认地址。
+     */
+    private String baseHttpUrl;
+
+    /**
+     * 覆盖 DashScope WebSocket 接入地址，为空时使用 SDK 默认地址。
+     */
+    private String baseWebsocketUrl;
+
+    /**
+     * 建立连接的超时时间。
+     */
+    private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+
+    /**
+     * 读取响应的超时时间，流式输出时为两个数据块之间的最长间隔。
+     */
+    private Duration readTimeout = DEFAULT_READ_TIMEOUT;
+
+    /**
+     * 发送请求的超时时间。
+     */
+    private Duration writeTimeout = DEFAULT_WRITE_TIMEOUT;
+
+    /**
+     * 空闲连接保活时间，超出后从连接池中关闭。
+     */
+    private Duration connectionIdleTimeout = DEFAULT_CONNECTION_IDLE_TIMEOUT;
+
+    /**
+     * 连接池保留的最大空闲连接数。
+     */
+    private int connectionPoolSize = DEFAULT_CONNECTION_POOL_SIZE;
+
+    /**
+     * 同时进行的异步请求（流式输出）数上限。
+     */
+    private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+
+    /**
+     * 对同一主机同时进行的异步请求数上限。
+     */
+    private int maxConcurrentRequestsPerHost = DEFAULT_MAX_CONCURRENT_REQUESTS;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final TransportOptions options = new TransportOptions();
+
+        public Builder withProtocol(Protocol protocol) {
+            this.options.setProtocol(protocol);
+            return this;
+        }
+
+        public Builder withBaseHttpUrl(String baseHttpUrl) {
+            this.options.setBaseHttpUrl(baseHttpUrl);
+            return this;
+        }
+
+        public Builder withBaseWebsocketUrl(String baseWebsocketUrl) {
+            this.options.setBaseWebsocketUrl(baseWebsocketUrl);
+            return this;
+        }
+
+        public Builder withConnectTimeout(Duration connectTimeout) {
+            this.options.setConnectTimeout(connectTimeout);
+            return this;
+        }
+
+        public Builder withReadTimeout(Duration readTimeout) {
+            this.options.setReadTimeout(readTimeout);
+            return this;
+        }
+
+        public Builder withWriteTimeout(Duration writeTimeout) {
+            this.options.setWriteTimeout(writeTimeout);
+            return this;
+        }
+
+        public Builder withConnectionIdleTimeout(Duration connectionIdleTimeout) {
+            this.options.setConnectionIdleTimeout(connectionIdleTimeout);
+            return this;
+        }
+
+        public Builder withConnectionPoolSize(int connectionPoolSize) {
+            this.options.setConnectionPoolSize(connectionPoolSize);
+            return this;
+        }
+
+        public Builder withMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.options.setMaxConcurrentRequests(maxConcurrentRequests);
+            return this;
+        }
+
+        public Builder withMaxConcurrentRequestsPerHost(int maxConcurrentRequestsPerHost) {
+            this.options.setMaxConcurrentRequestsPerHost(maxConcurrentRequestsPerHost);
+            return this;
+        }
+
+        public TransportOptions build() {
+            return this.options;
+        }
+
+    }
+
+    public Protocol getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(Protocol protocol) {
+        this.protocol = protocol;
+    }
+
+    public String getBaseHttpUrl() {
+        return baseHttpUrl;
+    }
+
+    public void setBaseHttpUrl(String baseHttpUrl) {
+        this.baseHttpUrl = baseHttpUrl;
+    }
+
+    public String getBaseWebsocketUrl() {
+        return baseWebsocketUrl;
+    }
+
+    public void setBaseWebsocketUrl(String baseWebsocketUrl) {
+        this.baseWebsocketUrl = baseWebsocketUrl;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public Duration getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public void setWriteTimeout(Duration writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+
+    public Duration getConnectionIdleTimeout() {
+        return connectionIdleTimeout;
+    }
+
+    public void setConnectionIdleTimeout(Duration connectionIdleTimeout) {
+        this.connectionIdleTimeout = connectionIdleTimeout;
+    }
+
+    public int getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
+    public void setConnectionPoolSize(int connectionPoolSize) {
+        this.connectionPoolSize = connectionPoolSize;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public int getMaxConcurrentRequestsPerHost() {
+        return maxConcurrentRequestsPerHost;
+    }
+
+    public void setMaxConcurrentRequestsPerHost(int maxConcurrentRequestsPerHost) {
+        this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+    }
+
+}
@@ -28,14 +28,35 @@ public class ApiUtils {
         }
         // Build ConversationMessage list from the prompt.
         return messages.stream()
-                .filter(message -> message.getMessageType() == MessageType.USER
-                        || message.getMessageType() == MessageType.ASSISTANT
-                        || message.getMessageType() == MessageType.SYSTEM
-                        || message.getMessageType() == MessageType.FUNCTION)
-                .map(m -> com.alibaba.dashscope.common.Message.builder().role(ApiUtils.toRole(m).getValue()).content(m.getContent()).build())
+                .filter(ApiUtils::isConversationMessage)
+                .map(ApiUtils::toConversationMessage)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Whether the message is part of the conversation sent to DashScope.
+     */
+    public static boolean isConversationMessage(Message message) {
+        return message.getMessageType() == MessageType.USER
+                || message.getMessageType() == MessageType.ASSISTANT
+                || message.getMessageType() == MessageType.SYSTEM
+                || message.getMessageType() == MessageType.FUNCTION;
+    }
+
+    /**
+     * Whether the message can be kept in a session. Function messages are left out, as tool responses only make
+     * sense within the turn that called the tool.
+     */
+    public static boolean isSessionMessage(Message message) {
+        return message.getMessageType() == MessageType.USER
+                || message.getMessageType() == MessageType.ASSISTANT
+                || message.getMessageType() == MessageType.SYSTEM;
+    }
+
+    public static com.alibaba.dashscope.common.Message toConversationMessage(Message message) {
+        return com.alibaba.dashscope.common.Message.builder().role(ApiUtils.toRole(message).getValue()).content(message.getContent()).build();
+    }
+
     public static Role toRole(Message message) {
         switch (message.getMessageType()) {
             case USER:
@@ -69,24 +90,31 @@ public class ApiUtils {
         if (message.getRole() != null) {
             map.put("role", message.getRole());
         }
-        map.put("finishReason", "");
+        map.put("finishReason", Objects.requireNonNullElse(finishReason(choice), ""));
         map.put("id", id);
         return map;
     }
 
+    /**
+     * The finish reason of the choice, or null while the stream is still generating. DashScope reports the
+     * unfinished state as the string {@code "null"}.
+     */
+    public static String finishReason(GenerationOutput.Choice choice) {
+        String finishReason = choice.getFinishReason();
+        return !StringUtils.hasText(finishReason) || "null".equals(finishReason) ? null : finishReason;
+    }
+
+    /**
+     * Convert one stream chunk. With incremental output the content is the delta since the previous chunk and may
+     * be empty, typically on the last chunk that only carries the finish reason and usage.
+     */
     public static ChatResponse toChatCompletion(GenerationResult resp) {
         Assert.notNull(resp, "GenerationResult must not be null");
 
-        resp.getOutput().getChoices().forEach(choice -> {
-            if (StringUtils.isEmpty(choice.getMessage().getContent())) {
-                throw new IllegalArgumentException("Choice message content is empty");
-            }
-        });
-
         List<Generation> generations = resp.getOutput().getChoices()
                 .stream()
-                .map(choice -> new Generation(choice.getMessage().getContent(), ApiUtils.toMap(resp.getRequestId(), choice))
-                        .withGenerationMetadata(ChatGenerationMetadata.from("chat.completion", ApiUtils.extractUsage(resp))))
+                .map(choice -> new Generation(Objects.requireNonNullElse(choice.getMessage().getContent(), ""), ApiUtils.toMap(resp.getRequestId(), choice))
+                        .withGenerationMetadata(ChatGenerationMetadata.from(finishReason(choice), ApiUtils.extractUsage(resp))))
                 .toList();
         return new ChatResponse(generations, AliyunAiDashscopeChatResponseMetadata.from(resp));
     }
@@ -0,0 +1,91 @@
+package org.springframework.ai.aliyun.dashscope.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the executors the DashScope clients run blocking SDK calls and tool calls on, one per thread name
+ * prefix, and shuts them down on {@link #close()}. Executors are created on first use with
+ * {@link ExecutorUtils#newTaskExecutor(String, int)}.
+ * <p>
+ * Registered as a bean rather than as {@link java.util.concurrent.Executor} beans, which would switch off
+ * Spring Boot's own {@code applicationTaskExecutor}.
+ */
+public class DashscopeTaskExecutors implements Closeable {
+
+    public static final String TOOLS = "dashscope-tool-";
+
+    public static final String CHAT_ASYNC = "dashscope-chat-";
+
+    public static final String EMBEDDING = "dashscope-embedding-";
+
+    public static final String EMBEDDING_ASYNC = "dashscope-embedding-async-";
+
+    public static final String EMBEDDING_REACTIVE = "dashscope-embedding-reactive-";
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Map<String, ExecutorService> executors = new ConcurrentHashMap<>();
+
+    private final int maxThreads;
+
+    private volatile boolean closed;
+
+    public DashscopeTaskExecutors() {
+        this(ExecutorUtils.DEFAULT_MAX_THREADS);
+    }
+
+    /**
+     * @param maxThreads the thread limit of each executor when virtual threads are not available
+     */
+    public DashscopeTaskExecutors(int maxThreads) {
+        Assert.isTrue(maxThreads > 0, "maxThreads must be greater than 0");
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * @param threadNamePrefix the thread name prefix identifying the executor
+     * @return the executor for the prefix, created on first use
+     */
+    public ExecutorService get(String threadNamePrefix) {
+        Assert.hasText(threadNamePrefix, "threadNamePrefix must not be empty");
+        Assert.state(!this.closed, "DashscopeTaskExecutors has been closed");
+        return this.executors.computeIfAbsent(threadNamePrefix, prefix -> ExecutorUtils.newTaskExecutor(prefix, this.maxThreads));
+    }
+
+    /**
+     * Stop accepting tasks and wait up to ten seconds in total for running ones, then interrupt what is left.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        List<ExecutorService> running = new ArrayList<>(this.executors.values());
+        running.forEach(ExecutorService::shutdown);
+        long deadline = System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos();
+        for (ExecutorService executor : running) {
+            try {
+                if (!executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    log.warn("DashScope tasks still running after {}, interrupting them", SHUTDOWN_TIMEOUT);
+                    executor.shutdownNow();
+                }
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            }
+        }
+    }
+
+}
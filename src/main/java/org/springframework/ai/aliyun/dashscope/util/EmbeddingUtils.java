@@ -0,0 +1,46 @@
+package org.springframework.ai.aliyun.dashscope.util;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+public class EmbeddingUtils {
+
+    public static float[] toFloatArray(List<Double> embedding) {
+        float[] vector = new float[embedding.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = embedding.get(i).floatValue();
+        }
+        return vector;
+    }
+
+    /**
+     * Read-only {@link List} view over a float vector, boxing lazily on access.
+     * @param vector the vector
+     * @return the list view
+     */
+    public static List<Double> toDoubleList(float[] vector) {
+        return new FloatArrayList(vector);
+    }
+
+    private static final class FloatArrayList extends AbstractList<Double> implements RandomAccess {
+
+        private final float[] vector;
+
+        FloatArrayList(float[] vector) {
+            this.vector = vector;
+        }
+
+        @Override
+        public Double get(int index) {
+            return (double) this.vector[index];
+        }
+
+        @Override
+        public int size() {
+            return this.vector.length;
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package org.springframework.ai.aliyun.dashscope.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExecutorUtils {
+
+    /**
+     * Thread limit of the platform-thread pool used before Java 21.
+     */
+    public static final int DEFAULT_MAX_THREADS = 64;
+
+    /**
+     * Create an executor for blocking DashScope SDK calls. On Java 21+ this is a virtual-thread-per-task executor,
+     * otherwise a pool of at most {@link #DEFAULT_MAX_THREADS} daemon threads named with the given prefix.
+     * @param threadNamePrefix the prefix for platform thread names
+     * @return a new {@link ExecutorService}
+     */
+    public static ExecutorService newTaskExecutor(String threadNamePrefix) {
+        return newTaskExecutor(threadNamePrefix, DEFAULT_MAX_THREADS);
+    }
+
+    /**
+     * Create an executor for blocking DashScope SDK calls. On Java 21+ this is a virtual-thread-per-task executor,
+     * otherwise a pool of at most {@code maxThreads} daemon threads that queues further tasks and lets idle
+     * threads expire.
+     * @param threadNamePrefix the prefix for platform thread names
+     * @param maxThreads the thread limit of the platform-thread pool
+     * @return a new {@link ExecutorService}
+     */
+    public static ExecutorService newTaskExecutor(String threadNamePrefix, int maxThreads) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        }
+        catch (ReflectiveOperationException ex) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), daemonThreadFactory(threadNamePrefix));
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    public static ThreadFactory daemonThreadFactory(String threadNamePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
@@ -0,0 +1,221 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import com.alibaba.dashscope.aigc.generation.Generation;
+import com.alibaba.dashscope.aigc.generation.GenerationParam;
+import com.alibaba.dashscope.aigc.generation.GenerationResult;
+import com.alibaba.dashscope.common.Status;
+import com.alibaba.dashscope.exception.ApiException;
+import io.reactivex.Flowable;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+import org.springframework.ai.aliyun.dashscope.ratelimit.DashscopeRateLimiter;
+import org.springframework.ai.aliyun.dashscope.stream.StreamTracer;
+import org.springframework.ai.aliyun.dashscope.stream.StreamingOptions;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.retry.support.RetryTemplate;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.ai.aliyun.dashscope.GenerationResults.chunk;
+
+class AliyunAiDashscopeChatClientStreamTest {
+
+    private final Generation generation = mock(Generation.class);
+
+    @Test
+    void streamsDeltasInOrder() throws Exception {
+        Flowable<GenerationResult> upstream = Flowable.just(chunk("Hel"), chunk("lo"));
+        when(generation.streamCall(any(GenerationParam.class))).thenReturn(upstream);
+
+        StepVerifier.create(client(StreamingOptions.builder().build()).stream(new Prompt("hi")))
+                .assertNext(response -> assertThat(content(response)).isEqualTo("Hel"))
+                .assertNext(response -> assertThat(content(response)).isEqualTo("lo"))
+                .verifyComplete();
+    }
+
+    @Test
+    void cancelDisposesSdkStream() throws Exception {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flowable<GenerationResult> upstream = Flowable.just(chunk("a")).concatWith(Flowable.never())
+                .doOnCancel(() -> cancelled.set(true));
+        when(generation.streamCall(any(GenerationParam.class))).thenReturn(upstream);
+
+        StepVerifier.create(client(StreamingOptions.builder().build()).stream(new Prompt("hi")))
+                .expectNextCount(1)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    void retriesTransientErrorBeforeFirstChunk() throws Exception {
+        Flowable<GenerationResult> failing = Flowable.error(apiException(503));
+        Flowable<GenerationResult> succeeding = Flowable.just(chunk("ok"));
+        when(generation.streamCall(any(GenerationParam.class))).thenReturn(failing, succeeding);
+
+        StepVerifier.create(client(retrying()).stream(new Prompt("hi")))
+                .assertNext(response -> assertThat(content(response)).isEqualTo("ok"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(generation, times(2)).streamCall(any(GenerationParam.class));
+    }
+
+    @Test
+    void doesNotRetryAfterFirstChunk() throws Exception {
+        Flowable<GenerationResult> upstream = Flowable.just(chunk("a")).concatWith(Flowable.error(apiException(503)));
+        when(generation.streamCall(any(GenerationParam.class))).thenReturn(upstream);
+
+        StepVerifier.create(client(retrying()).stream(new Prompt("hi")))
+                .expectNextCount(1)
+                .expectError(DashscopeSDKException.class)
+                .verify(Duration.ofSeconds(5));
+
+        verify(generation, times(1)).streamCall(any(GenerationParam.class));
+    }
+
+    @Test
+    void doesNotRetryNonRetryableError() throws Exception {
+        Flowable<GenerationResult> upstream = Flowable.error(apiException(400));
+        when(generation.streamCall(any(GenerationParam.class))).thenReturn(upstream);
+
+        StepVerifier.create(client(retrying()).stream(new Prompt("hi")))
+                .expectError(DashscopeSDKException.class)
+                .verify(Duration.ofSeconds(5));
+
+        verify(generation, times(1)).streamCall(any(GenerationParam.class));
+    }
+
+    @Test
+    void failsWhenBufferOverflowsWithErrorStrategy() throws Exception {
+        Flowable<GenerationResult> upstream = chunks(5);
+        when(generation.streamCall(any(GenerationParam.class))).thenReturn(upstream);
+        StreamingOptions options = StreamingOptions.builder().withBufferSize(2).withOverflowStrategy(BufferOverflowStrategy.ERROR).build();
+
+        StepVerifier.create(client(options).stream(new Prompt("hi")), 0)
+                .expectSubscription()
+                .thenRequest(10)
+                .thenConsumeWhile(response -> true)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void dropsLatestChunksWhenBufferIsFull() throws Exception {
+        Flowable<GenerationResult> upstream = chunks(5);
+        when(generation.streamCall(any(GenerationParam.class))).thenReturn(upstream);
+        StreamingOptions options = StreamingOptions.builder().withBufferSize(2).withOverflowStrategy(BufferOverflowStrategy.DROP_LATEST).build();
+
+        StepVerifier.create(client(options).stream(new Prompt("hi")), 0)
+                .expectSubscription()
+                .thenRequest(10)
+                .assertNext(response -> assertThat(content(response)).isEqualTo("0"))
+                .assertNext(response -> assertThat(content(response)).isEqualTo("1"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void cancelWhileRateLimitedReleasesReservation() {
+        DashscopeRateLimiter rateLimiter = mock(DashscopeRateLimiter.class);
+        when(rateLimiter.reserve(eq("qwen-turbo"), anyLong())).thenReturn(Duration.ofMinutes(1).toNanos());
+        AliyunAiDashscopeChatClient client = client(StreamingOptions.builder().build());
+        client.setRateLimiter(rateLimiter);
+
+        StepVerifier.create(client.stream(new Prompt("hi")))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        verify(rateLimiter).release(eq("qwen-turbo"), anyLong());
+        verifyNoInteractions(generation);
+    }
+
+    @Test
+    void tracesStreamWithPayloadRequestedInContext() throws Exception {
+        Flowable<GenerationResult> upstream = Flowable.just(chunk("Hel"), chunk("lo"));
+        when(generation.streamCall(any(GenerationParam.class))).thenReturn(upstream);
+        StreamTracer.Trace trace = mock(StreamTracer.Trace.class);
+        StreamTracer tracer = mock(StreamTracer.class);
+        when(tracer.start(eq("qwen-turbo"), anyBoolean())).thenReturn(trace);
+        AliyunAiDashscopeChatClient client = client(StreamingOptions.builder().build());
+        client.setStreamTracer(tracer);
+
+        StepVerifier.create(client.stream(new Prompt("hi")).contextWrite(StreamTracer.payloadTracing()))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        verify(tracer).start("qwen-turbo", true);
+        verify(trace, times(2)).onChunk(any(ChatResponse.class));
+        verify(trace).onComplete();
+    }
+
+    @Test
+    void tracesStreamWithoutPayloadByDefault() throws Exception {
+        Flowable<GenerationResult> upstream = Flowable.just(chunk("Hel"), chunk("lo"));
+        when(generation.streamCall(any(GenerationParam.class))).thenReturn(upstream);
+        StreamTracer tracer = mock(StreamTracer.class);
+        AliyunAiDashscopeChatClient client = client(StreamingOptions.builder().build());
+        client.setStreamTracer(tracer);
+
+        // An unsampled stream, for which the tracer returns no trace, is passed through untouched.
+        StepVerifier.create(client.stream(new Prompt("hi")))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        verify(tracer).start("qwen-turbo", false);
+    }
+
+    private AliyunAiDashscopeChatClient client(StreamingOptions streamingOptions) {
+        return new AliyunAiDashscopeChatClient(generation, AliyunAiDashscopeChatOptions.builder().withModel("qwen-turbo").build(),
+                null, RetryTemplate.builder().maxAttempts(1).build(), streamingOptions);
+    }
+
+    private static StreamingOptions retrying() {
+        return StreamingOptions.builder()
+                .withMaxAttempts(3)
+                .withInitialBackoff(Duration.ofMillis(1))
+                .withMaxBackoff(Duration.ofMillis(5))
+                .build();
+    }
+
+    private static Flowable<GenerationResult> chunks(int count) {
+        List<GenerationResult> chunks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            chunks.add(chunk(String.valueOf(i)));
+        }
+        return Flowable.fromIterable(chunks);
+    }
+
+    private static String content(ChatResponse response) {
+        return response.getResult().getOutput().getContent();
+    }
+
+    private static ApiException apiException(int statusCode) {
+        Status status = mock(Status.class);
+        when(status.getStatusCode()).thenReturn(statusCode);
+        ApiException error = mock(ApiException.class);
+        when(error.getStatus()).thenReturn(status);
+        return error;
+    }
+
+}
@@ -0,0 +1,146 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import com.alibaba.dashscope.aigc.generation.Generation;
+import com.alibaba.dashscope.aigc.generation.GenerationParam;
+import com.alibaba.dashscope.aigc.generation.GenerationResult;
+import com.alibaba.dashscope.common.Message;
+import com.alibaba.dashscope.common.Role;
+import io.reactivex.Flowable;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.aliyun.dashscope.stream.StreamingOptions;
+import org.springframework.ai.aliyun.dashscope.tool.ToolCallExecutor;
+import org.springframework.ai.aliyun.dashscope.tool.ToolExecutionOptions;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.function.FunctionCallback;
+import org.springframework.retry.support.RetryTemplate;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.ai.aliyun.dashscope.GenerationResults.chunk;
+import static org.springframework.ai.aliyun.dashscope.GenerationResults.toolCall;
+
+class AliyunAiDashscopeChatClientToolStreamTest {
+
+    private static final String ARGUMENTS = "{\"city\":\"Hangzhou\"}";
+
+    private final Generation generation = mock(Generation.class);
+
+    private final AliyunAiDashscopeChatClient client = new AliyunAiDashscopeChatClient(generation,
+            AliyunAiDashscopeChatOptions.builder().withModel("qwen-turbo").build(), null, RetryTemplate.builder().maxAttempts(1).build(),
+            StreamingOptions.builder().build());
+
+    @Test
+    void emitsTextBeforeTurnEnds() throws Exception {
+        Flowable<GenerationResult> turn = Flowable.just(chunk("Let me check.")).concatWith(Flowable.never());
+        when(generation.streamCall(any(GenerationParam.class))).thenReturn(turn);
+
+        StepVerifier.create(client.stream(prompt(weather(arguments -> "sunny"))))
+                .assertNext(response -> assertThat(content(response)).isEqualTo("Let me check."))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void executesToolCallsAndStreamsFollowUpTurn() throws Exception {
+        FunctionCallback weather = weather(arguments -> "sunny");
+        Flowable<GenerationResult> firstTurn = Flowable.just(chunk("Let me check."), toolCall("call-1", "weather", ARGUMENTS),
+                chunk("dropped"));
+        Flowable<GenerationResult> secondTurn = Flowable.just(chunk("Sunny"), chunk(" today"));
+        when(generation.streamCall(any(GenerationParam.class))).thenReturn(firstTurn, secondTurn);
+
+        StepVerifier.create(client.stream(prompt(weather)))
+                .assertNext(response -> assertThat(content(response)).isEqualTo("Let me check."))
+                .assertNext(response -> assertThat(content(response)).isEqualTo("Sunny"))
+                .assertNext(response -> assertThat(content(response)).isEqualTo(" today"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(weather).call(ARGUMENTS);
+        ArgumentCaptor<GenerationParam> requests = ArgumentCaptor.forClass(GenerationParam.class);
+        verify(generation, times(2)).streamCall(requests.capture());
+        List<Message> followUp = requests.getAllValues().get(1).getMessages();
+        Message toolResponse = followUp.get(followUp.size() - 1);
+        assertThat(toolResponse.getRole()).isEqualTo(Role.TOOL.getValue());
+        assertThat(toolResponse.getToolCallId()).isEqualTo("call-1");
+        assertThat(toolResponse.getContent()).isEqualTo("sunny");
+        assertThat(followUp.get(followUp.size() - 2).getToolCalls()).hasSize(1);
+    }
+
+    @Test
+    void cancelStopsRunningToolCalls() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        FunctionCallback weather = weather(arguments -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            }
+            catch (InterruptedException ex) {
+                interrupted.countDown();
+            }
+            return "never";
+        });
+        Flowable<GenerationResult> turn = Flowable.just(toolCall("call-1", "weather", ARGUMENTS));
+        when(generation.streamCall(any(GenerationParam.class))).thenReturn(turn);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        client.setToolCallExecutor(new ToolCallExecutor(ToolExecutionOptions.builder().withParallel(true).build(), executor));
+        try {
+            StepVerifier.create(client.stream(prompt(weather)))
+                    .expectSubscription()
+                    .then(() -> await(started))
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(5));
+
+            assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+            verify(generation, times(1)).streamCall(any(GenerationParam.class));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Prompt prompt(FunctionCallback function) {
+        return new Prompt("What is the weather in Hangzhou?", AliyunAiDashscopeChatOptions.builder()
+                .withFunctionCallbacks(List.of(function))
+                .build());
+    }
+
+    private static FunctionCallback weather(Function<String, String> function) {
+        FunctionCallback callback = mock(FunctionCallback.class);
+        when(callback.getName()).thenReturn("weather");
+        when(callback.getDescription()).thenReturn("Current weather");
+        when(callback.getInputTypeSchema()).thenReturn("{\"type\":\"object\",\"properties\":{}}");
+        when(callback.call(anyString())).thenAnswer(invocation -> function.apply(invocation.getArgument(0)));
+        return callback;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String content(ChatResponse response) {
+        return response.getResult().getOutput().getContent();
+    }
+
+}
@@ -0,0 +1,131 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import com.alibaba.dashscope.embeddings.TextEmbedding;
+import com.alibaba.dashscope.embeddings.TextEmbeddingOutput;
+import com.alibaba.dashscope.embeddings.TextEmbeddingParam;
+import com.alibaba.dashscope.embeddings.TextEmbeddingResult;
+import com.alibaba.dashscope.embeddings.TextEmbeddingResultItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.aliyun.dashscope.embedding.EmbeddingBatchOptions;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AliyunAiDashscopeEmbeddingClientTest {
+
+    private final TextEmbedding embedding = mock(TextEmbedding.class);
+
+    private final AliyunAiDashscopeEmbeddingClient client = new AliyunAiDashscopeEmbeddingClient(embedding, MetadataMode.EMBED,
+            AliyunAiDashscopeEmbeddingOptions.builder().build(), EmbeddingBatchOptions.builder().withMaxTextsPerBatch(2).build(),
+            RetryTemplate.builder().maxAttempts(1).build(), Runnable::run);
+
+    @Test
+    void keepsInputOrderAcrossBatches() throws Exception {
+        when(embedding.call(any(TextEmbeddingParam.class))).thenAnswer(invocation -> {
+            TextEmbeddingParam param = invocation.getArgument(0);
+            return result(param.getTexts().size(), Double.parseDouble(param.getTexts().get(0)));
+        });
+
+        EmbeddingResponse response = client.call(new EmbeddingRequest(List.of("0", "1", "2"), null));
+
+        assertThat(response.getResults()).extracting(Embedding::getIndex).containsExactly(0, 1, 2);
+        assertThat(response.getResults()).extracting(e -> e.getOutput().get(0)).containsExactly(0.0, 1.0, 2.0);
+    }
+
+    @Test
+    void failsOnMissingBatchResponse() throws Exception {
+        when(embedding.call(any(TextEmbeddingParam.class))).thenReturn(null);
+
+        assertThatThrownBy(() -> client.call(new EmbeddingRequest(List.of("a", "b", "c"), null)))
+                .isInstanceOf(DashscopeSDKException.class)
+                .hasMessageContaining("No embeddings returned");
+    }
+
+    @Test
+    void failsOnShortBatchResponse() throws Exception {
+        when(embedding.call(any(TextEmbeddingParam.class))).thenReturn(result(1, 0));
+
+        assertThatThrownBy(() -> client.embedToMatrix(List.of("a", "b")))
+                .isInstanceOf(DashscopeSDKException.class)
+                .hasMessageContaining("Expected 2 embeddings");
+    }
+
+    @Test
+    void coalescesIdenticalConcurrentRequests() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        TextEmbeddingResult answer = result(2, 0);
+        when(embedding.call(any(TextEmbeddingParam.class))).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return answer;
+        });
+        client.setCoalesceRequests(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<EmbeddingResponse> first = CompletableFuture.supplyAsync(
+                    () -> client.call(new EmbeddingRequest(List.of("a", "b"), null)), executor);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            AtomicReference<EmbeddingResponse> second = new AtomicReference<>();
+            Thread waiter = new Thread(() -> second.set(client.call(new EmbeddingRequest(List.of("a", "b"), null))));
+            waiter.start();
+            // Parked on the flight of the first request.
+            while (waiter.getState() != Thread.State.WAITING && waiter.isAlive()) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            waiter.join(5000);
+
+            assertThat(calls).hasValue(1);
+            assertThat(first.get(5, TimeUnit.SECONDS).getResults()).extracting(e -> e.getOutput().get(0)).containsExactly(0.0, 1.0);
+            assertThat(second.get().getResults()).extracting(e -> e.getOutput().get(0)).containsExactly(0.0, 1.0);
+
+            // The flight is over, so the same texts are embedded again.
+            client.call(new EmbeddingRequest(List.of("a", "b"), null));
+            assertThat(calls).hasValue(2);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A batch result whose item {@code i} is the one-dimensional vector {@code first + i}.
+     */
+    private static TextEmbeddingResult result(int size, double first) {
+        List<TextEmbeddingResultItem> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            TextEmbeddingResultItem item = new TextEmbeddingResultItem();
+            item.setTextIndex(i);
+            item.setEmbedding(List.of(first + i));
+            items.add(item);
+        }
+        TextEmbeddingOutput output = mock(TextEmbeddingOutput.class);
+        when(output.getEmbeddings()).thenReturn(items);
+        TextEmbeddingResult result = mock(TextEmbeddingResult.class);
+        when(result.getOutput()).thenReturn(output);
+        return result;
+    }
+
+}
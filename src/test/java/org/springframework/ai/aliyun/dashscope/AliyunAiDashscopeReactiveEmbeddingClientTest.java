@@ -0,0 +1,138 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import com.alibaba.dashscope.embeddings.TextEmbedding;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.aliyun.dashscope.AliyunAiDashscopeReactiveEmbeddingClient.DocumentEmbedding;
+import org.springframework.ai.aliyun.dashscope.embedding.EmbeddingBatchOptions;
+import org.springframework.ai.aliyun.dashscope.embedding.EmbeddingMatrix;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.retry.support.RetryTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AliyunAiDashscopeReactiveEmbeddingClientTest {
+
+    @Test
+    void cutsWindowsByTextCount() {
+        StubEmbeddingClient stub = new StubEmbeddingClient(EmbeddingBatchOptions.builder().withMaxTextsPerBatch(2).build());
+
+        List<DocumentEmbedding> embeddings = embed(stub, Schedulers.immediate(), "a", "b", "c", "d", "e");
+
+        assertThat(stub.windows).containsExactly(List.of("a", "b"), List.of("c", "d"), List.of("e"));
+        assertThat(embeddings).extracting(embedding -> embedding.document().getContent()).containsExactly("a", "b", "c", "d", "e");
+    }
+
+    @Test
+    void cutsWindowsByTokens() {
+        StubEmbeddingClient stub = new StubEmbeddingClient(EmbeddingBatchOptions.builder().withMaxTokensPerBatch(5).build());
+
+        embed(stub, Schedulers.immediate(), "aaa", "bb", "c", "dddd", "eeeeee");
+
+        // A text above the limit on its own still gets a window.
+        assertThat(stub.windows).containsExactly(List.of("aaa", "bb"), List.of("c", "dddd"), List.of("eeeeee"));
+    }
+
+    @Test
+    void startsEverySubscriptionWithAnEmptyWindow() {
+        StubEmbeddingClient stub = new StubEmbeddingClient(EmbeddingBatchOptions.builder().withMaxTextsPerBatch(2).build());
+        Flux<DocumentEmbedding> embeddings = reactiveClient(stub, Schedulers.immediate()).embed(documents("a", "b", "c"));
+
+        embeddings.blockLast(Duration.ofSeconds(5));
+        embeddings.blockLast(Duration.ofSeconds(5));
+
+        assertThat(stub.windows).containsExactly(List.of("a", "b"), List.of("c"), List.of("a", "b"), List.of("c"));
+    }
+
+    @Test
+    void embedsAtMostMaxConcurrencyWindowsAtATime() {
+        StubEmbeddingClient stub = new StubEmbeddingClient(EmbeddingBatchOptions.builder().withMaxTextsPerBatch(1)
+                .withMaxConcurrency(2).build());
+        stub.delay = Duration.ofMillis(50);
+        Scheduler scheduler = Schedulers.newBoundedElastic(8, 100, "embedding-test");
+        try {
+            List<DocumentEmbedding> embeddings = embed(stub, scheduler, "a", "b", "c", "d", "e", "f");
+
+            assertThat(embeddings).hasSize(6);
+            assertThat(stub.maxInFlight).hasValue(2);
+        }
+        finally {
+            scheduler.dispose();
+        }
+    }
+
+    private static List<DocumentEmbedding> embed(StubEmbeddingClient stub, Scheduler scheduler, String... contents) {
+        return reactiveClient(stub, scheduler).embed(documents(contents)).collectList().block(Duration.ofSeconds(5));
+    }
+
+    private static AliyunAiDashscopeReactiveEmbeddingClient reactiveClient(StubEmbeddingClient stub, Scheduler scheduler) {
+        return new AliyunAiDashscopeReactiveEmbeddingClient(stub, stub.batchOptions, scheduler);
+    }
+
+    private static Flux<Document> documents(String... contents) {
+        return Flux.fromArray(contents).map(Document::new);
+    }
+
+    /**
+     * Counts one token per character and records the windows it is asked to embed.
+     */
+    private static final class StubEmbeddingClient extends AliyunAiDashscopeEmbeddingClient {
+
+        private final EmbeddingBatchOptions batchOptions;
+
+        private final List<List<String>> windows = new CopyOnWriteArrayList<>();
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        private Duration delay = Duration.ZERO;
+
+        StubEmbeddingClient(EmbeddingBatchOptions batchOptions) {
+            super(mock(TextEmbedding.class), MetadataMode.NONE, AliyunAiDashscopeEmbeddingOptions.builder().build(), batchOptions,
+                    RetryTemplate.builder().maxAttempts(1).build(), Runnable::run);
+            this.batchOptions = batchOptions;
+        }
+
+        @Override
+        public int estimateTokens(String text) {
+            return text.length();
+        }
+
+        @Override
+        String getFormattedContent(Document document) {
+            return document.getContent();
+        }
+
+        @Override
+        public EmbeddingMatrix embedToMatrix(List<String> texts) {
+            this.windows.add(List.copyOf(texts));
+            this.maxInFlight.accumulateAndGet(this.inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(this.delay.toMillis());
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                this.inFlight.decrementAndGet();
+            }
+            EmbeddingMatrix matrix = new EmbeddingMatrix(texts.size(), 1);
+            for (int i = 0; i < texts.size(); i++) {
+                matrix.setRow(i, new float[] { texts.get(i).length() });
+            }
+            return matrix;
+        }
+
+    }
+
+}
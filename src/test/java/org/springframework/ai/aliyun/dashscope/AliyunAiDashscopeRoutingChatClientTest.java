@@ -0,0 +1,188 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import com.alibaba.dashscope.common.Status;
+import com.alibaba.dashscope.exception.ApiException;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopePromptTooLargeException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+import org.springframework.ai.aliyun.dashscope.routing.RoutingOptions;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AliyunAiDashscopeRoutingChatClientTest {
+
+    private static final String PRIMARY = "qwen-max";
+
+    private static final String SECONDARY = "qwen-plus";
+
+    private final AliyunAiDashscopeChatClient delegate = mock(AliyunAiDashscopeChatClient.class);
+
+    private final ChatResponse primaryAnswer = answer("from primary");
+
+    private final ChatResponse secondaryAnswer = answer("from secondary");
+
+    @Test
+    void failsOverOnThrottling() {
+        RuntimeException throttled = error(429);
+        calls(Map.of(PRIMARY, () -> CompletableFuture.failedFuture(throttled),
+                SECONDARY, () -> CompletableFuture.completedFuture(secondaryAnswer)));
+
+        assertThat(router(routes()).call(new Prompt("hi"))).isSameAs(secondaryAnswer);
+    }
+
+    @Test
+    void failsOverOnServerError() {
+        RuntimeException unavailable = error(503);
+        calls(Map.of(PRIMARY, () -> CompletableFuture.failedFuture(unavailable),
+                SECONDARY, () -> CompletableFuture.completedFuture(secondaryAnswer)));
+
+        assertThat(router(routes()).call(new Prompt("hi"))).isSameAs(secondaryAnswer);
+    }
+
+    @Test
+    void rethrowsNonRetryableError() {
+        RuntimeException badRequest = error(400);
+        calls(Map.of(PRIMARY, () -> CompletableFuture.failedFuture(badRequest),
+                SECONDARY, () -> CompletableFuture.completedFuture(secondaryAnswer)));
+
+        assertThatThrownBy(() -> router(routes()).call(new Prompt("hi"))).isSameAs(badRequest);
+        verify(delegate, never()).callAsync(forModel(SECONDARY));
+    }
+
+    @Test
+    void throwsLastErrorWhenEveryModelFails() {
+        RuntimeException unavailable = error(503);
+        RuntimeException lastError = error(429);
+        calls(Map.of(PRIMARY, () -> CompletableFuture.failedFuture(unavailable),
+                SECONDARY, () -> CompletableFuture.failedFuture(lastError)));
+
+        assertThatThrownBy(() -> router(routes()).call(new Prompt("hi"))).isSameAs(lastError);
+    }
+
+    @Test
+    void returnsFirstAnswerOfHedgedAttempts() {
+        calls(Map.of(PRIMARY, CompletableFuture::new,
+                SECONDARY, () -> CompletableFuture.completedFuture(secondaryAnswer)));
+
+        ChatResponse response = router(routes().withHedge(true).withHedgeDelay(Duration.ofMillis(10))).call(new Prompt("hi"));
+
+        assertThat(response).isSameAs(secondaryAnswer);
+        verify(delegate).callAsync(forModel(PRIMARY));
+    }
+
+    @Test
+    void movesDegradedModelsToTheEnd() {
+        AliyunAiDashscopeRoutingChatClient router = router(routes().withMinSamples(2).withProbeInterval(Duration.ofHours(1)));
+        router.getStats(PRIMARY).record(Duration.ofMillis(10), false);
+        router.getStats(PRIMARY).record(Duration.ofMillis(10), false);
+
+        assertThat(router.candidates(new Prompt("hi"))).containsExactly(SECONDARY, PRIMARY);
+    }
+
+    @Test
+    void keepsDegradedModelInPlaceForProbe() {
+        AliyunAiDashscopeRoutingChatClient router = router(routes().withMinSamples(2).withProbeInterval(Duration.ZERO));
+        router.getStats(PRIMARY).record(Duration.ofMillis(10), false);
+        router.getStats(PRIMARY).record(Duration.ofMillis(10), false);
+
+        assertThat(router.candidates(new Prompt("hi"))).containsExactly(PRIMARY, SECONDARY);
+    }
+
+    @Test
+    void skipsModelsThePromptIsTooLargeFor() {
+        AliyunAiDashscopeRoutingChatClient router = router(RoutingOptions.builder()
+                .withRoute(PRIMARY, 5)
+                .withRoute(SECONDARY, 0));
+        router.setTokenEstimator((model, text) -> 10);
+
+        assertThat(router.candidates(new Prompt("hi"))).containsExactly(SECONDARY);
+    }
+
+    @Test
+    void rejectsPromptTooLargeForEveryModel() {
+        AliyunAiDashscopeRoutingChatClient router = router(RoutingOptions.builder()
+                .withRoute(PRIMARY, 5)
+                .withRoute(SECONDARY, 8));
+        router.setTokenEstimator((model, text) -> 10);
+
+        assertThatThrownBy(() -> router.candidates(new Prompt("hi"))).isInstanceOf(DashscopePromptTooLargeException.class);
+    }
+
+    @Test
+    void failsOverStreamBeforeFirstChunk() {
+        RuntimeException unavailable = error(503);
+        when(delegate.stream(forModel(PRIMARY))).thenReturn(Flux.error(unavailable));
+        when(delegate.stream(forModel(SECONDARY))).thenReturn(Flux.just(secondaryAnswer));
+
+        StepVerifier.create(router(routes()).stream(new Prompt("hi")))
+                .expectNext(secondaryAnswer)
+                .verifyComplete();
+    }
+
+    @Test
+    void doesNotFailOverStreamAfterFirstChunk() {
+        RuntimeException unavailable = error(503);
+        when(delegate.stream(forModel(PRIMARY))).thenReturn(Flux.just(primaryAnswer).concatWith(Flux.error(unavailable)));
+        when(delegate.stream(forModel(SECONDARY))).thenReturn(Flux.just(secondaryAnswer));
+
+        StepVerifier.create(router(routes()).stream(new Prompt("hi")))
+                .expectNext(primaryAnswer)
+                .expectErrorMatches(error -> error == unavailable)
+                .verify(Duration.ofSeconds(5));
+        verify(delegate, never()).stream(forModel(SECONDARY));
+    }
+
+    private void calls(Map<String, Supplier<CompletableFuture<ChatResponse>>> answers) {
+        when(delegate.callAsync(any(Prompt.class))).thenAnswer(invocation -> answers.get(model(invocation.getArgument(0))).get());
+    }
+
+    private AliyunAiDashscopeRoutingChatClient router(RoutingOptions.Builder options) {
+        return new AliyunAiDashscopeRoutingChatClient(delegate, options.build());
+    }
+
+    private static RoutingOptions.Builder routes() {
+        return RoutingOptions.builder().withRoute(PRIMARY, 0).withRoute(SECONDARY, 0);
+    }
+
+    private static Prompt forModel(String model) {
+        return argThat(prompt -> prompt != null && model.equals(model(prompt)));
+    }
+
+    private static String model(Prompt prompt) {
+        return ((AliyunAiDashscopeChatOptions) prompt.getOptions()).getModel();
+    }
+
+    private static ChatResponse answer(String content) {
+        return new ChatResponse(List.of(new Generation(content)));
+    }
+
+    /**
+     * Build errors before stubbing the delegate, as they are stubbed mocks themselves.
+     */
+    private static RuntimeException error(int statusCode) {
+        Status status = mock(Status.class);
+        when(status.getStatusCode()).thenReturn(statusCode);
+        ApiException cause = mock(ApiException.class);
+        when(cause.getStatus()).thenReturn(status);
+        return new DashscopeSDKException("DashScope call failed", cause);
+    }
+
+}
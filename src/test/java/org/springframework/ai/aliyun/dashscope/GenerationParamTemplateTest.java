@@ -0,0 +1,107 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import com.alibaba.dashscope.aigc.generation.GenerationParam;
+import com.alibaba.dashscope.common.Message;
+import com.alibaba.dashscope.common.Role;
+import com.alibaba.dashscope.tools.FunctionDefinition;
+import com.alibaba.dashscope.tools.ToolFunction;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.ChatOptionsBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.within;
+
+class GenerationParamTemplateTest {
+
+    private static final List<Message> MESSAGES = List.of(Message.builder().role(Role.USER.getValue()).content("hi").build());
+
+    private final GenerationParamTemplate defaults = GenerationParamTemplate.from(AliyunAiDashscopeChatOptions.builder()
+            .withModel("qwen-turbo")
+            .withSeed(7)
+            .withTemperature(0.5f)
+            .withTopK(20)
+            .withPresencePenalty(0.3f)
+            .withUser("user-123456")
+            .build());
+
+    @Test
+    void buildsDefaults() {
+        GenerationParam param = this.defaults.build(MESSAGES);
+
+        assertThat(param.getModel()).isEqualTo("qwen-turbo");
+        assertThat(param.getSeed()).isEqualTo(7);
+        assertThat(param.getTemperature()).isEqualTo(0.5f);
+        assertThat(param.getTopK()).isEqualTo(20);
+        assertThat(param.getResultFormat()).isEqualTo(GenerationParam.ResultFormat.MESSAGE);
+        assertThat(param.getMessages()).isEqualTo(MESSAGES);
+        assertThat(param.getParameters()).contains(entry("presence_penalty", 0.3f), entry("user", "user-123456"));
+    }
+
+    @Test
+    void mergesPortableOptionsOverDefaults() {
+        GenerationParam param = this.defaults.merge(ChatOptionsBuilder.builder().withTemperature(0.1f).withTopP(0.8f).build())
+                .build(MESSAGES);
+
+        assertThat(param.getTemperature()).isEqualTo(0.1f);
+        assertThat(param.getTopP()).isCloseTo(0.8, within(1e-6));
+        assertThat(param.getTopK()).isEqualTo(20);
+        assertThat(param.getModel()).isEqualTo("qwen-turbo");
+        assertThat(param.getSeed()).isEqualTo(7);
+    }
+
+    @Test
+    void mergesDashscopeOptionsOverDefaults() {
+        GenerationParam param = this.defaults.merge(AliyunAiDashscopeChatOptions.builder()
+                        .withModel("qwen-max")
+                        .withMaxTokens(256)
+                        .withPresencePenalty(1.2f)
+                        .withUser("other-user")
+                        .build())
+                .build(MESSAGES);
+
+        assertThat(param.getModel()).isEqualTo("qwen-max");
+        assertThat(param.getMaxTokens()).isEqualTo(256);
+        assertThat(param.getSeed()).isEqualTo(7);
+        assertThat(param.getTopK()).isEqualTo(20);
+        assertThat(param.getParameters()).contains(entry("presence_penalty", 1.2f), entry("user", "other-user"));
+    }
+
+    @Test
+    void mergeLeavesTemplateUntouched() {
+        this.defaults.merge(AliyunAiDashscopeChatOptions.builder().withModel("qwen-max").withPresencePenalty(1.2f).build());
+
+        GenerationParam param = this.defaults.build(MESSAGES);
+        assertThat(param.getModel()).isEqualTo("qwen-turbo");
+        assertThat(param.getParameters()).contains(entry("presence_penalty", 0.3f));
+    }
+
+    @Test
+    void setsIncrementalOutputAndTools() {
+        ToolFunction tool = ToolFunction.builder().function(FunctionDefinition.builder().name("weather").build()).build();
+
+        GenerationParam param = this.defaults.withIncrementalOutput(true).withTools(List.of(tool)).build(MESSAGES);
+
+        assertThat(param.getIncrementalOutput()).isTrue();
+        assertThat(param.getTools()).containsExactly(tool);
+        assertThat(this.defaults.build(MESSAGES).getTools()).isNull();
+    }
+
+    @Test
+    void copiesSettingsWithNewConversation() {
+        GenerationParam source = this.defaults.withIncrementalOutput(true).build(MESSAGES);
+        List<Message> followUp = List.of(Message.builder().role(Role.USER.getValue()).content("and tomorrow?").build());
+
+        GenerationParam copy = GenerationParamTemplate.copy(source, followUp);
+
+        assertThat(copy.getMessages()).isEqualTo(followUp);
+        assertThat(copy.getModel()).isEqualTo("qwen-turbo");
+        assertThat(copy.getSeed()).isEqualTo(7);
+        assertThat(copy.getTemperature()).isEqualTo(0.5f);
+        assertThat(copy.getIncrementalOutput()).isTrue();
+        assertThat(copy.getParameters()).contains(entry("presence_penalty", 0.3f), entry("user", "user-123456"));
+    }
+
+}
@@ -0,0 +1,62 @@
+package org.springframework.ai.aliyun.dashscope;
+
+import com.alibaba.dashscope.aigc.generation.GenerationOutput;
+import com.alibaba.dashscope.aigc.generation.GenerationResult;
+import com.alibaba.dashscope.aigc.generation.GenerationUsage;
+import com.alibaba.dashscope.common.Message;
+import com.alibaba.dashscope.common.Role;
+import com.alibaba.dashscope.tools.ToolCallBase;
+import com.alibaba.dashscope.tools.ToolCallFunction;
+import com.alibaba.dashscope.utils.JsonUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stream chunks as returned by {@code Generation#streamCall}. Build them before stubbing the generation, as they are
+ * mocks themselves.
+ */
+final class GenerationResults {
+
+    private GenerationResults() {
+    }
+
+    /**
+     * A text delta of the assistant answer.
+     */
+    static GenerationResult chunk(String content) {
+        return result(Message.builder().role(Role.ASSISTANT.getValue()).content(content).build());
+    }
+
+    /**
+     * A delta carrying a complete function tool call.
+     */
+    static GenerationResult toolCall(String id, String name, String arguments) {
+        Map<String, Object> function = new HashMap<>();
+        function.put("name", name);
+        function.put("arguments", arguments);
+        Map<String, Object> toolCall = new HashMap<>();
+        toolCall.put("id", id);
+        toolCall.put("type", "function");
+        toolCall.put("function", function);
+        ToolCallBase delta = JsonUtils.fromJson(JsonUtils.toJson(toolCall), ToolCallFunction.class);
+        return result(Message.builder().role(Role.ASSISTANT.getValue()).toolCalls(List.of(delta)).build());
+    }
+
+    static GenerationResult result(Message message) {
+        GenerationOutput.Choice choice = mock(GenerationOutput.Choice.class);
+        when(choice.getMessage()).thenReturn(message);
+        GenerationOutput output = mock(GenerationOutput.class);
+        when(output.getChoices()).thenReturn(List.of(choice));
+        GenerationResult result = mock(GenerationResult.class);
+        when(result.getRequestId()).thenReturn("req-1");
+        when(result.getOutput()).thenReturn(output);
+        when(result.getUsage()).thenReturn(mock(GenerationUsage.class));
+        return result;
+    }
+
+}
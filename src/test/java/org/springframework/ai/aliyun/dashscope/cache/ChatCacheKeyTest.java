@@ -0,0 +1,66 @@
+package org.springframework.ai.aliyun.dashscope.cache;
+
+import com.alibaba.dashscope.aigc.generation.GenerationParam;
+import com.alibaba.dashscope.common.Message;
+import com.alibaba.dashscope.common.Role;
+import com.alibaba.dashscope.tools.ToolCallBase;
+import com.alibaba.dashscope.tools.ToolCallFunction;
+import com.alibaba.dashscope.utils.JsonUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatCacheKeyTest {
+
+    @Test
+    void sameRequestsShareKey() {
+        assertThat(ChatCacheKey.of(request(Message.builder().role(Role.USER.getValue()).content("hi").build())))
+                .isEqualTo(ChatCacheKey.of(request(Message.builder().role(Role.USER.getValue()).content("hi").build())));
+    }
+
+    @Test
+    void contentIsPartOfKey() {
+        assertThat(ChatCacheKey.of(request(Message.builder().role(Role.USER.getValue()).content("hi").build())))
+                .isNotEqualTo(ChatCacheKey.of(request(Message.builder().role(Role.USER.getValue()).content("hello").build())));
+    }
+
+    @Test
+    void fieldBoundariesAreUnambiguous() {
+        assertThat(ChatCacheKey.of(request(
+                Message.builder().role(Role.USER.getValue()).content("ab").build(),
+                Message.builder().role(Role.USER.getValue()).content("c").build())))
+                .isNotEqualTo(ChatCacheKey.of(request(
+                        Message.builder().role(Role.USER.getValue()).content("a").build(),
+                        Message.builder().role(Role.USER.getValue()).content("bc").build())));
+    }
+
+    @Test
+    void assistantToolCallsArePartOfKey() {
+        assertThat(ChatCacheKey.of(request(assistantCalling("weather", "{\"city\":\"Hangzhou\"}"))))
+                .isNotEqualTo(ChatCacheKey.of(request(assistantCalling("weather", "{\"city\":\"Beijing\"}"))));
+        assertThat(ChatCacheKey.of(request(assistantCalling("weather", "{\"city\":\"Hangzhou\"}"))))
+                .isNotEqualTo(ChatCacheKey.of(request(assistantCalling("time", "{\"city\":\"Hangzhou\"}"))));
+    }
+
+    @Test
+    void onlyGreedySamplingIsDeterministic() {
+        assertThat(ChatCacheKey.isDeterministic(GenerationParam.builder().model("qwen-turbo").temperature(0f).build())).isTrue();
+        assertThat(ChatCacheKey.isDeterministic(GenerationParam.builder().model("qwen-turbo").topK(1).build())).isTrue();
+        assertThat(ChatCacheKey.isDeterministic(GenerationParam.builder().model("qwen-turbo").seed(42).temperature(0.8f).build())).isFalse();
+        assertThat(ChatCacheKey.isDeterministic(GenerationParam.builder().model("qwen-turbo").temperature(0f).enableSearch(true).build())).isFalse();
+    }
+
+    private static GenerationParam request(Message... messages) {
+        return GenerationParam.builder().model("qwen-turbo").temperature(0f).messages(List.of(messages)).build();
+    }
+
+    private static Message assistantCalling(String function, String arguments) {
+        ToolCallFunction toolCall = JsonUtils.fromJson(JsonUtils.toJson(Map.of("id", "call-1", "type", "function",
+                "function", Map.of("name", function, "arguments", arguments))), ToolCallFunction.class);
+        return Message.builder().role(Role.ASSISTANT.getValue()).content("").toolCalls(List.<ToolCallBase>of(toolCall)).build();
+    }
+
+}
@@ -0,0 +1,113 @@
+package org.springframework.ai.aliyun.dashscope.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileEmbeddingCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reloadsEntriesAfterReopen() throws IOException {
+        Path file = dir.resolve("embeddings.bin");
+        try (FileEmbeddingCache cache = new FileEmbeddingCache(file, 10)) {
+            cache.put(key("a"), new float[]{1f, 2f});
+            cache.put(key("b"), new float[]{3f});
+        }
+
+        try (FileEmbeddingCache cache = new FileEmbeddingCache(file, 10)) {
+            assertThat(cache.size()).isEqualTo(2);
+            assertThat(cache.get(key("a"))).containsExactly(1f, 2f);
+            assertThat(cache.get(key("b"))).containsExactly(3f);
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() throws IOException {
+        try (FileEmbeddingCache cache = new FileEmbeddingCache(dir.resolve("embeddings.bin"), 2)) {
+            cache.put(key("a"), new float[]{1f});
+            cache.put(key("b"), new float[]{2f});
+            cache.get(key("a"));
+            cache.put(key("c"), new float[]{3f});
+
+            assertThat(cache.get(key("b"))).isNull();
+            assertThat(cache.get(key("a"))).containsExactly(1f);
+            assertThat(cache.get(key("c"))).containsExactly(3f);
+        }
+    }
+
+    @Test
+    void compactsWhileRunning() throws IOException {
+        Path file = dir.resolve("embeddings.bin");
+        try (FileEmbeddingCache cache = new FileEmbeddingCache(file, 2)) {
+            cache.put(key("a"), new float[]{0f});
+            long oneRecord = Files.size(file);
+            for (int i = 0; i < 100; i++) {
+                cache.put(key("a"), new float[]{i});
+            }
+
+            assertThat(Files.size(file)).isLessThanOrEqualTo(2 * oneRecord);
+            assertThat(cache.get(key("a"))).containsExactly(99f);
+        }
+    }
+
+    @Test
+    void truncatesCorruptLength() throws IOException {
+        Path file = dir.resolve("embeddings.bin");
+        try (FileEmbeddingCache cache = new FileEmbeddingCache(file, 10)) {
+            cache.put(key("a"), new float[]{1f});
+        }
+        long valid = Files.size(file);
+        Files.write(file, new byte[]{(byte) 0xFF, (byte) 0xFF, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (FileEmbeddingCache cache = new FileEmbeddingCache(file, 10)) {
+            assertThat(cache.get(key("a"))).containsExactly(1f);
+        }
+        assertThat(Files.size(file)).isEqualTo(valid);
+    }
+
+    @Test
+    void truncatesIncompleteRecord() throws IOException {
+        Path file = dir.resolve("embeddings.bin");
+        try (FileEmbeddingCache cache = new FileEmbeddingCache(file, 10)) {
+            cache.put(key("a"), new float[]{1f});
+        }
+        long valid = Files.size(file);
+        try (FileEmbeddingCache cache = new FileEmbeddingCache(file, 10)) {
+            cache.put(key("b"), new float[]{1f, 2f, 3f});
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 1);
+        }
+
+        try (FileEmbeddingCache cache = new FileEmbeddingCache(file, 10)) {
+            assertThat(cache.size()).isEqualTo(1);
+            assertThat(cache.get(key("b"))).isNull();
+        }
+        assertThat(Files.size(file)).isEqualTo(valid);
+    }
+
+    @Test
+    void skipsOverlongModelName() throws IOException {
+        try (FileEmbeddingCache cache = new FileEmbeddingCache(dir.resolve("embeddings.bin"), 10)) {
+            EmbeddingCacheKey key = EmbeddingCacheKey.of("m".repeat(Short.MAX_VALUE + 1), "document", "a");
+            cache.put(key, new float[]{1f});
+
+            assertThat(cache.size()).isZero();
+        }
+    }
+
+    private static EmbeddingCacheKey key(String text) {
+        return EmbeddingCacheKey.of("text-embedding-v2", "document", text);
+    }
+
+}
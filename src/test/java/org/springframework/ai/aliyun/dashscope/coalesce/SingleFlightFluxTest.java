@@ -0,0 +1,102 @@
+package org.springframework.ai.aliyun.dashscope.coalesce;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightFluxTest {
+
+    private final SingleFlightFlux<String, String> singleFlight = new SingleFlightFlux<>();
+
+    private final AtomicInteger subscriptions = new AtomicInteger();
+
+    private final AtomicInteger cancellations = new AtomicInteger();
+
+    @Test
+    void sharesOneUpstreamAndReplaysEmittedChunksToLateSubscribers() {
+        Sinks.Many<String> upstream = upstream();
+        List<String> first = new CopyOnWriteArrayList<>();
+        List<String> second = new CopyOnWriteArrayList<>();
+
+        singleFlight.share("key", source(upstream)).subscribe(first::add);
+        upstream.tryEmitNext("Hel");
+        singleFlight.share("key", source(upstream)).subscribe(second::add);
+        upstream.tryEmitNext("lo");
+
+        assertThat(subscriptions).hasValue(1);
+        assertThat(first).containsExactly("Hel", "lo");
+        assertThat(second).containsExactly("Hel", "lo");
+        assertThat(singleFlight.inFlight()).isOne();
+    }
+
+    @Test
+    void cancelsUpstreamOnlyAfterEverySubscriberLeft() {
+        Sinks.Many<String> upstream = upstream();
+        Disposable first = singleFlight.share("key", source(upstream)).subscribe();
+        Disposable second = singleFlight.share("key", source(upstream)).subscribe();
+
+        first.dispose();
+
+        assertThat(cancellations).hasValue(0);
+        assertThat(singleFlight.inFlight()).isOne();
+
+        second.dispose();
+
+        assertThat(cancellations).hasValue(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void releasesKeyOnCompletion() {
+        Sinks.Many<String> upstream = upstream();
+        List<String> chunks = new CopyOnWriteArrayList<>();
+        singleFlight.share("key", source(upstream)).subscribe(chunks::add);
+
+        upstream.tryEmitNext("done");
+        upstream.tryEmitComplete();
+
+        assertThat(chunks).containsExactly("done");
+        assertThat(singleFlight.inFlight()).isZero();
+
+        // A later stream with the same key starts a new flight instead of replaying the finished one.
+        singleFlight.share("key", () -> Flux.just("again").doOnSubscribe(subscription -> subscriptions.incrementAndGet()))
+                .subscribe(chunks::add);
+
+        assertThat(subscriptions).hasValue(2);
+        assertThat(chunks).containsExactly("done", "again");
+    }
+
+    @Test
+    void releasesKeyOnError() {
+        Sinks.Many<String> upstream = upstream();
+        AtomicInteger errors = new AtomicInteger();
+        singleFlight.share("key", source(upstream)).subscribe(chunk -> {
+        }, error -> errors.incrementAndGet());
+        singleFlight.share("key", source(upstream)).subscribe(chunk -> {
+        }, error -> errors.incrementAndGet());
+
+        upstream.tryEmitError(new IllegalStateException("boom"));
+
+        assertThat(errors).hasValue(2);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    private static Sinks.Many<String> upstream() {
+        return Sinks.many().unicast().onBackpressureBuffer();
+    }
+
+    private Supplier<Flux<String>> source(Sinks.Many<String> upstream) {
+        return () -> upstream.asFlux()
+                .doOnSubscribe(subscription -> subscriptions.incrementAndGet())
+                .doOnCancel(cancellations::incrementAndGet);
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.springframework.ai.aliyun.dashscope.coalesce;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void sharesOneCallBetweenConcurrentCallers() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger calls = new AtomicInteger();
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "answer";
+            }), executor);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            AtomicReference<String> second = new AtomicReference<>();
+            Thread waiter = new Thread(() -> second.set(singleFlight.execute("key", () -> {
+                calls.incrementAndGet();
+                return "other";
+            })));
+            waiter.start();
+            // Parked on the flight of the first caller.
+            while (waiter.getState() != Thread.State.WAITING && waiter.isAlive()) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            waiter.join(5000);
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("answer");
+            assertThat(second).hasValue("answer");
+            assertThat(calls).hasValue(1);
+            assertThat(singleFlight.inFlight()).isZero();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void runsAgainOnceTheFlightCompleted() {
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute("key", () -> "v" + calls.incrementAndGet());
+        String second = singleFlight.execute("key", () -> "v" + calls.incrementAndGet());
+
+        assertThat(second).isEqualTo("v2");
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void releasesKeyAfterFailure() {
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.inFlight()).isZero();
+        assertThat(singleFlight.execute("key", () -> "ok")).isEqualTo("ok");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.springframework.ai.aliyun.dashscope.embedding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmbeddingBatcherTest {
+
+    @Test
+    void splitsByTextCount() {
+        EmbeddingBatcher batcher = new EmbeddingBatcher(EmbeddingBatchOptions.builder().withMaxTextsPerBatch(2).build(), Runnable::run);
+
+        List<EmbeddingBatcher.Batch> batches = batcher.split(List.of("a", "b", "c", "d", "e"), text -> 1);
+
+        assertThat(batches).extracting(EmbeddingBatcher.Batch::offset).containsExactly(0, 2, 4);
+        assertThat(batches).extracting(EmbeddingBatcher.Batch::texts)
+                .containsExactly(List.of("a", "b"), List.of("c", "d"), List.of("e"));
+    }
+
+    @Test
+    void splitsByTokenBudget() {
+        EmbeddingBatcher batcher = new EmbeddingBatcher(EmbeddingBatchOptions.builder().withMaxTokensPerBatch(10).build(), Runnable::run);
+
+        List<EmbeddingBatcher.Batch> batches = batcher.split(List.of("a", "b", "c"), text -> 6);
+
+        assertThat(batches).extracting(EmbeddingBatcher.Batch::offset).containsExactly(0, 1, 2);
+        assertThat(batches).extracting(EmbeddingBatcher.Batch::tokens).containsExactly(6, 6, 6);
+    }
+
+    @Test
+    void sendsOversizedTextAlone() {
+        EmbeddingBatcher batcher = new EmbeddingBatcher(EmbeddingBatchOptions.builder().withMaxTokensPerBatch(10).build(), Runnable::run);
+
+        List<EmbeddingBatcher.Batch> batches = batcher.split(List.of("long", "a", "b"), text -> text.length() > 1 ? 50 : 1);
+
+        assertThat(batches).extracting(EmbeddingBatcher.Batch::texts).containsExactly(List.of("long"), List.of("a", "b"));
+    }
+
+    @Test
+    void returnsResultsInBatchOrder() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            EmbeddingBatcher batcher = new EmbeddingBatcher(EmbeddingBatchOptions.builder()
+                    .withMaxTextsPerBatch(1).withMaxConcurrency(4).build(), executor);
+            List<EmbeddingBatcher.Batch> batches = batcher.split(List.of("a", "b", "c", "d", "e", "f"), text -> 1);
+
+            List<Integer> results = batcher.execute(batches, EmbeddingBatcher.Batch::offset);
+
+            assertThat(results).containsExactly(0, 1, 2, 3, 4, 5);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void stopsPickingUpBatchesAfterFailure() {
+        EmbeddingBatcher batcher = new EmbeddingBatcher(EmbeddingBatchOptions.builder()
+                .withMaxTextsPerBatch(1).withMaxConcurrency(2).build(), Runnable::run);
+        List<EmbeddingBatcher.Batch> batches = batcher.split(List.of("a", "b", "c", "d"), text -> 1);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> batcher.execute(batches, batch -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        assertThat(calls).hasValueLessThan(batches.size());
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.springframework.ai.aliyun.dashscope.embedding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeRateLimitException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddingMicroBatcherTest {
+
+    private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+
+    @Test
+    void sendsFullBatchAtOnce() {
+        try (EmbeddingMicroBatcher batcher = batcher(2, Duration.ofMinutes(1), EmbeddingMicroBatcherTest::matrix)) {
+            CompletableFuture<float[]> a = batcher.submit("a");
+            CompletableFuture<float[]> bb = batcher.submit("bb");
+
+            assertThat(calls).containsExactly(List.of("a", "bb"));
+            assertThat(a.join()).containsExactly(1f);
+            assertThat(bb.join()).containsExactly(2f);
+        }
+    }
+
+    @Test
+    void flushesAfterMaxDelay() throws Exception {
+        try (EmbeddingMicroBatcher batcher = batcher(10, Duration.ofMillis(10), EmbeddingMicroBatcherTest::matrix)) {
+            assertThat(batcher.submit("abc").get(5, TimeUnit.SECONDS)).containsExactly(3f);
+        }
+    }
+
+    @Test
+    void retriesTextsOneByOneAfterNonRetryableBatchError() {
+        try (EmbeddingMicroBatcher batcher = batcher(2, Duration.ofMinutes(1), texts -> {
+            if (texts.contains("bad")) {
+                throw new IllegalArgumentException("bad input");
+            }
+            return matrix(texts);
+        })) {
+            CompletableFuture<float[]> ok = batcher.submit("ok");
+            CompletableFuture<float[]> bad = batcher.submit("bad");
+
+            assertThat(calls).containsExactly(List.of("ok", "bad"), List.of("ok"), List.of("bad"));
+            assertThat(ok.join()).containsExactly(2f);
+            assertThat(bad).isCompletedExceptionally();
+        }
+    }
+
+    @Test
+    void failsWholeBatchWhenThrottled() {
+        try (EmbeddingMicroBatcher batcher = batcher(2, Duration.ofMinutes(1), texts -> {
+            throw new DashscopeRateLimitException("throttled");
+        })) {
+            CompletableFuture<float[]> a = batcher.submit("a");
+            CompletableFuture<float[]> b = batcher.submit("b");
+
+            assertThat(calls).hasSize(1);
+            assertThat(a).isCompletedExceptionally();
+            assertThat(b).isCompletedExceptionally();
+        }
+    }
+
+    @Test
+    void sendsPendingTextsOnCloseAndRejectsLaterOnes() {
+        EmbeddingMicroBatcher batcher = batcher(10, Duration.ofMinutes(1), EmbeddingMicroBatcherTest::matrix);
+        CompletableFuture<float[]> pending = batcher.submit("a");
+
+        batcher.close();
+
+        assertThat(pending.join()).containsExactly(1f);
+        assertThat(batcher.submit("b")).isCompletedExceptionally();
+    }
+
+    private EmbeddingMicroBatcher batcher(int maxBatchSize, Duration maxDelay, Function<List<String>, EmbeddingMatrix> call) {
+        MicroBatchOptions options = MicroBatchOptions.builder().withEnabled(true).withMaxBatchSize(maxBatchSize).withMaxDelay(maxDelay).build();
+        return new EmbeddingMicroBatcher(options, texts -> {
+            calls.add(texts);
+            return call.apply(texts);
+        }, Runnable::run);
+    }
+
+    /**
+     * One-dimensional rows holding the length of each text.
+     */
+    private static EmbeddingMatrix matrix(List<String> texts) {
+        EmbeddingMatrix matrix = new EmbeddingMatrix(texts.size(), 1);
+        for (int i = 0; i < texts.size(); i++) {
+            matrix.setRow(i, new float[]{texts.get(i).length()});
+        }
+        return matrix;
+    }
+
+}
@@ -0,0 +1,101 @@
+package org.springframework.ai.aliyun.dashscope.history;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.aliyun.dashscope.token.TokenEstimator;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBudgetHistoryCompactorTest {
+
+    /**
+     * Ten tokens per message, and one per character of a summary.
+     */
+    private static final TokenEstimator ESTIMATOR = (model, text) -> text.startsWith(TokenBudgetHistoryCompactor.SUMMARY_PREFIX)
+            ? text.length() - TokenBudgetHistoryCompactor.SUMMARY_PREFIX.length() : 10;
+
+    private static final int MESSAGE_TOKENS = 10 + TokenBudgetHistoryCompactor.MESSAGE_OVERHEAD_TOKENS;
+
+    @Test
+    void keepsEverythingWithinBudget() {
+        List<Message> messages = List.of(new SystemMessage("s".repeat(10)), user(1), assistant(2));
+        TokenBudgetHistoryCompactor compactor = new TokenBudgetHistoryCompactor(budget(3 * MESSAGE_TOKENS), ESTIMATOR);
+
+        assertThat(compactor.compact("qwen-plus", messages)).isSameAs(messages);
+    }
+
+    @Test
+    void dropsOldestMessagesAndKeepsSystemMessagesInPlace() {
+        Message system = new SystemMessage("s".repeat(10));
+        List<Message> messages = List.of(user(1), system, assistant(2), user(3), assistant(4));
+        TokenBudgetHistoryCompactor compactor = new TokenBudgetHistoryCompactor(budget(3 * MESSAGE_TOKENS), ESTIMATOR);
+
+        List<Message> compacted = compactor.compact("qwen-plus", messages);
+
+        assertThat(compacted).containsExactly(system, messages.get(3), messages.get(4));
+    }
+
+    @Test
+    void summarizesEveryDroppedMessageAndCachesTheSummary() {
+        List<Message> messages = List.of(user(1), assistant(2), user(3), assistant(4), user(5));
+        List<List<Message>> summarized = new ArrayList<>();
+        HistorySummarizer summarizer = (model, dropped) -> {
+            summarized.add(dropped);
+            return "x".repeat(10);
+        };
+        HistoryCompactionOptions options = budget(3 * MESSAGE_TOKENS);
+        options.setSummaryReserveTokens(MESSAGE_TOKENS);
+        TokenBudgetHistoryCompactor compactor = new TokenBudgetHistoryCompactor(options, ESTIMATOR, summarizer);
+
+        List<Message> compacted = compactor.compact("qwen-plus", messages);
+        compactor.compact("qwen-plus", messages);
+
+        assertThat(compacted).hasSize(3);
+        assertThat(compacted.get(0).getContent()).isEqualTo(TokenBudgetHistoryCompactor.SUMMARY_PREFIX + "x".repeat(10));
+        assertThat(compacted.subList(1, 3)).containsExactly(messages.get(3), messages.get(4));
+        assertThat(summarized).containsExactly(messages.subList(0, 3));
+    }
+
+    @Test
+    void summarizesAgainWhenTheSummaryOutgrowsItsReserve() {
+        List<Message> messages = List.of(user(1), assistant(2), user(3), assistant(4), user(5));
+        AtomicInteger calls = new AtomicInteger();
+        List<Message> lastDropped = new ArrayList<>();
+        HistorySummarizer summarizer = (model, dropped) -> {
+            calls.incrementAndGet();
+            lastDropped.clear();
+            lastDropped.addAll(dropped);
+            // Costs two messages.
+            return "y".repeat(2 * MESSAGE_TOKENS - TokenBudgetHistoryCompactor.MESSAGE_OVERHEAD_TOKENS);
+        };
+        HistoryCompactionOptions options = budget(4 * MESSAGE_TOKENS);
+        options.setSummaryReserveTokens(1);
+        TokenBudgetHistoryCompactor compactor = new TokenBudgetHistoryCompactor(options, ESTIMATOR, summarizer);
+
+        List<Message> compacted = compactor.compact("qwen-plus", messages);
+
+        assertThat(calls).hasValue(2);
+        assertThat(lastDropped).containsExactlyElementsOf(messages.subList(0, 3));
+        assertThat(compacted.subList(1, compacted.size())).containsExactly(messages.get(3), messages.get(4));
+    }
+
+    private static HistoryCompactionOptions budget(int maxTokens) {
+        return HistoryCompactionOptions.builder().withEnabled(true).withMaxTokens(maxTokens).build();
+    }
+
+    private static Message user(int turn) {
+        return new UserMessage(String.valueOf(turn).repeat(10));
+    }
+
+    private static Message assistant(int turn) {
+        return new AssistantMessage(String.valueOf(turn).repeat(10));
+    }
+
+}
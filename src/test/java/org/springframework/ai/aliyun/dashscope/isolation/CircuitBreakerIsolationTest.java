@@ -0,0 +1,122 @@
+package org.springframework.ai.aliyun.dashscope.isolation;
+
+import com.alibaba.dashscope.common.Status;
+import com.alibaba.dashscope.exception.ApiException;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeCallNotPermittedException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CircuitBreakerIsolationTest {
+
+    private static final String MODEL = "qwen-turbo";
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(50);
+
+    private final CircuitBreakerIsolation isolation = new CircuitBreakerIsolation(IsolationOptions.builder()
+            .withMaxConcurrentCalls(2)
+            .withSlidingWindowSize(4)
+            .withMinimumCalls(2)
+            .withFailureRateThreshold(0.5)
+            .withSlowCallDuration(Duration.ofMillis(100))
+            .withOpenDuration(OPEN_DURATION)
+            .withHalfOpenCalls(1)
+            .build());
+
+    @Test
+    void opensOnServerErrors() {
+        fail(apiException(503));
+        fail(apiException(503));
+
+        assertThatThrownBy(() -> isolation.acquire(MODEL))
+                .isInstanceOf(DashscopeCallNotPermittedException.class)
+                .hasMessageContaining("is open");
+    }
+
+    @Test
+    void ignoresClientErrors() {
+        for (int i = 0; i < 4; i++) {
+            fail(apiException(400));
+        }
+
+        assertThatCode(() -> isolation.acquire(MODEL)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsCallsBeyondBulkhead() {
+        DashscopeIsolation.Permit first = isolation.acquire(MODEL);
+        isolation.acquire(MODEL);
+
+        assertThatThrownBy(() -> isolation.acquire(MODEL))
+                .isInstanceOf(DashscopeCallNotPermittedException.class)
+                .hasMessageContaining("Bulkhead");
+
+        first.complete(Duration.ZERO, null);
+        assertThatCode(() -> isolation.acquire(MODEL)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void closesAfterSuccessfulTrial() throws InterruptedException {
+        open();
+
+        DashscopeIsolation.Permit trial = isolation.acquire(MODEL);
+        assertThatThrownBy(() -> isolation.acquire(MODEL)).hasMessageContaining("half-open");
+        trial.complete(Duration.ZERO, null);
+
+        isolation.acquire(MODEL).complete(Duration.ZERO, null);
+        assertThatCode(() -> isolation.acquire(MODEL)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void doesNotCloseOnNonRetryableTrial() throws InterruptedException {
+        open();
+
+        isolation.acquire(MODEL).complete(Duration.ZERO, apiException(400));
+
+        // The trial slot is free again, but the breaker is still half-open.
+        isolation.acquire(MODEL);
+        assertThatThrownBy(() -> isolation.acquire(MODEL)).hasMessageContaining("half-open");
+    }
+
+    @Test
+    void reopensWhenTrialHangs() throws InterruptedException {
+        open();
+        DashscopeIsolation.Permit hung = isolation.acquire(MODEL);
+
+        Thread.sleep(150);
+        assertThatThrownBy(() -> isolation.acquire(MODEL)).hasMessageContaining("is open");
+
+        Thread.sleep(OPEN_DURATION.toMillis() + 10);
+        DashscopeIsolation.Permit trial = isolation.acquire(MODEL);
+        // A late completion of the earlier trial does not count for the new half-open period.
+        hung.complete(Duration.ZERO, null);
+        assertThatThrownBy(() -> isolation.acquire(MODEL)).hasMessageContaining("half-open");
+
+        trial.complete(Duration.ZERO, null);
+        assertThatCode(() -> isolation.acquire(MODEL)).doesNotThrowAnyException();
+    }
+
+    private void open() throws InterruptedException {
+        fail(apiException(503));
+        fail(apiException(503));
+        Thread.sleep(OPEN_DURATION.toMillis() + 10);
+    }
+
+    private void fail(Throwable error) {
+        isolation.acquire(MODEL).complete(Duration.ZERO, error);
+    }
+
+    private static ApiException apiException(int statusCode) {
+        Status status = mock(Status.class);
+        when(status.getStatusCode()).thenReturn(statusCode);
+        ApiException error = mock(ApiException.class);
+        when(error.getStatus()).thenReturn(status);
+        return error;
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.springframework.ai.aliyun.dashscope.metadata;
+
+import com.alibaba.dashscope.aigc.generation.GenerationUsage;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AliyunAiDashscopeUsageTest {
+
+    @Test
+    void reportsDashscopeCounts() {
+        AliyunAiDashscopeUsage usage = AliyunAiDashscopeUsage.from(usage(12, 30, 42));
+
+        assertThat(usage.getPromptTokens()).isEqualTo(12L);
+        assertThat(usage.getGenerationTokens()).isEqualTo(30L);
+        assertThat(usage.getTotalTokens()).isEqualTo(42L);
+    }
+
+    @Test
+    void reportsMissingCountsAsZero() {
+        AliyunAiDashscopeUsage usage = AliyunAiDashscopeUsage.from(usage(12, null, null));
+
+        assertThat(usage.getPromptTokens()).isEqualTo(12L);
+        assertThat(usage.getGenerationTokens()).isZero();
+        assertThat(usage.getTotalTokens()).isEqualTo(12L);
+    }
+
+    private static GenerationUsage usage(Integer input, Integer output, Integer total) {
+        GenerationUsage usage = mock(GenerationUsage.class);
+        when(usage.getInputTokens()).thenReturn(input);
+        when(usage.getOutputTokens()).thenReturn(output);
+        when(usage.getTotalTokens()).thenReturn(total);
+        return usage;
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.springframework.ai.aliyun.dashscope.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicrometerAliyunAiDashscopeMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MicrometerAliyunAiDashscopeMetrics metrics = new MicrometerAliyunAiDashscopeMetrics(this.registry);
+
+    @Test
+    void recordsRequestsPerModelAndOutcome() {
+        this.metrics.recordRequest("qwen-turbo", AliyunAiDashscopeMetrics.OPERATION_CHAT, Duration.ofMillis(10), true);
+        this.metrics.recordRequest("qwen-turbo", AliyunAiDashscopeMetrics.OPERATION_CHAT, Duration.ofMillis(30), true);
+        this.metrics.recordRequest("qwen-plus", AliyunAiDashscopeMetrics.OPERATION_CHAT, Duration.ofMillis(20), false);
+
+        assertThat(this.registry.get(MicrometerAliyunAiDashscopeMetrics.METRIC_PREFIX + ".requests")
+                .tag("model", "qwen-turbo").tag("outcome", "success").timer().count()).isEqualTo(2);
+        assertThat(this.registry.get(MicrometerAliyunAiDashscopeMetrics.METRIC_PREFIX + ".requests")
+                .tag("model", "qwen-plus").tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void accumulatesTokensOnOneCounter() {
+        this.metrics.recordTokenUsage("qwen-turbo", AliyunAiDashscopeMetrics.OPERATION_CHAT, 10, 5);
+        this.metrics.recordTokenUsage("qwen-turbo", AliyunAiDashscopeMetrics.OPERATION_CHAT, 7, 0);
+
+        assertThat(this.registry.get(MicrometerAliyunAiDashscopeMetrics.METRIC_PREFIX + ".tokens")
+                .tag("type", "input").counters()).hasSize(1);
+        assertThat(this.registry.get(MicrometerAliyunAiDashscopeMetrics.METRIC_PREFIX + ".tokens")
+                .tag("type", "input").counter().count()).isEqualTo(17);
+        assertThat(this.registry.get(MicrometerAliyunAiDashscopeMetrics.METRIC_PREFIX + ".tokens")
+                .tag("type", "output").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void tagsMissingModelAsUnknown() {
+        this.metrics.recordRetry(null, AliyunAiDashscopeMetrics.OPERATION_EMBEDDING);
+
+        assertThat(this.registry.get(MicrometerAliyunAiDashscopeMetrics.METRIC_PREFIX + ".retries")
+                .tag("model", "unknown").counter().count()).isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,113 @@
+package org.springframework.ai.aliyun.dashscope.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeRateLimitException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * The rates are slow enough that the refill between two calls of a test stays far below the tolerance.
+ */
+class AdaptiveDashscopeRateLimiterTest {
+
+    private static final String MODEL = "qwen-turbo";
+
+    private static final long TOLERANCE = Duration.ofMillis(100).toNanos();
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        AdaptiveDashscopeRateLimiter limiter = limiter(RateLimitOptions.builder().withRequestsPerSecond(1).withMaxQueueSize(1));
+
+        assertThat(limiter.reserve(MODEL, 0)).isZero();
+        assertThat(limiter.reserve(MODEL, 0)).isPositive();
+        assertThatThrownBy(() -> limiter.reserve(MODEL, 0))
+                .isInstanceOf(DashscopeRateLimitException.class)
+                .hasMessageContaining("queue");
+    }
+
+    @Test
+    void rejectsWaitLongerThanMaxWait() {
+        AdaptiveDashscopeRateLimiter limiter = limiter(RateLimitOptions.builder().withRequestsPerSecond(1)
+                .withMaxWait(Duration.ofMillis(500)));
+
+        limiter.reserve(MODEL, 0);
+
+        assertThatThrownBy(() -> limiter.reserve(MODEL, 0))
+                .isInstanceOf(DashscopeRateLimitException.class)
+                .hasMessageContaining("would delay");
+        // The rejected request did not take a place in the queue.
+        assertThatThrownBy(() -> limiter.reserve(MODEL, 0)).hasMessageContaining("would delay");
+    }
+
+    @Test
+    void waitsForTokenBudget() {
+        AdaptiveDashscopeRateLimiter limiter = limiter(RateLimitOptions.builder().withRequestsPerSecond(100)
+                .withTokensPerMinute(60).withMaxWait(Duration.ofMinutes(1)));
+
+        assertThat(limiter.reserve(MODEL, 60)).isZero();
+        // One token per second, so 30 more tokens take 30 seconds.
+        assertThat(limiter.reserve(MODEL, 30)).isCloseTo(Duration.ofSeconds(30).toNanos(), within(TOLERANCE));
+    }
+
+    @Test
+    void lowersRateOnThrottlingAndRecoversOnSuccess() {
+        AdaptiveDashscopeRateLimiter limiter = limiter(RateLimitOptions.builder().withRequestsPerSecond(1));
+
+        limiter.reserve(MODEL, 0);
+        limiter.onThrottled(MODEL);
+        // Half the rate: the next request waits two seconds instead of one.
+        assertThat(limiter.reserve(MODEL, 0)).isCloseTo(Duration.ofSeconds(2).toNanos(), within(TOLERANCE));
+
+        for (int i = 0; i < 20; i++) {
+            limiter.onSuccess(MODEL, 0, 0);
+        }
+        // Back at the configured rate: two requests ahead, one second each.
+        assertThat(limiter.reserve(MODEL, 0)).isCloseTo(Duration.ofSeconds(2).toNanos(), within(TOLERANCE));
+    }
+
+    @Test
+    void releasedReservationFreesItsPlace() {
+        AdaptiveDashscopeRateLimiter limiter = limiter(RateLimitOptions.builder().withRequestsPerSecond(1));
+
+        limiter.reserve(MODEL, 0);
+        long waitNanos = limiter.reserve(MODEL, 0);
+        limiter.release(MODEL, 0);
+
+        assertThat(limiter.reserve(MODEL, 0)).isCloseTo(waitNanos, within(TOLERANCE));
+    }
+
+    @Test
+    void usesModelQuota() {
+        RateLimitOptions.ModelQuota quota = new RateLimitOptions.ModelQuota();
+        quota.setRequestsPerSecond(0.5);
+        AdaptiveDashscopeRateLimiter limiter = limiter(RateLimitOptions.builder().withRequestsPerSecond(100)
+                .withModel(MODEL, quota));
+
+        limiter.reserve(MODEL, 0);
+
+        assertThat(limiter.reserve(MODEL, 0)).isCloseTo(Duration.ofSeconds(2).toNanos(), within(TOLERANCE));
+        assertThat(limiter.reserve("qwen-max", 0)).isZero();
+    }
+
+    @Test
+    void rejectsNonPositiveModelQuota() {
+        RateLimitOptions.ModelQuota quota = new RateLimitOptions.ModelQuota();
+        quota.setRequestsPerSecond(0d);
+        AdaptiveDashscopeRateLimiter limiter = limiter(RateLimitOptions.builder().withModel(MODEL, quota));
+
+        assertThatThrownBy(() -> limiter.reserve(MODEL, 0)).isInstanceOf(IllegalArgumentException.class);
+
+        quota.setRequestsPerSecond(null);
+        quota.setTokensPerMinute(-1L);
+        assertThatThrownBy(() -> limiter.reserve(MODEL, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AdaptiveDashscopeRateLimiter limiter(RateLimitOptions.Builder options) {
+        return new AdaptiveDashscopeRateLimiter(options.build());
+    }
+
+}
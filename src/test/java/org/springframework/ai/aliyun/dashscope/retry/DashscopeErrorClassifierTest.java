@@ -0,0 +1,88 @@
+package org.springframework.ai.aliyun.dashscope.retry;
+
+import com.alibaba.dashscope.common.Status;
+import com.alibaba.dashscope.exception.ApiException;
+import com.alibaba.dashscope.exception.NoApiKeyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeRateLimitException;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashscopeErrorClassifierTest {
+
+    @Test
+    void classifiesHttp429AsThrottled() {
+        assertThat(DashscopeErrorClassifier.classify(apiException(429, "Throttling.RateQuota")))
+                .isEqualTo(DashscopeErrorClassifier.ErrorClass.THROTTLED);
+    }
+
+    @Test
+    void classifiesThrottlingCodeAsThrottled() {
+        assertThat(DashscopeErrorClassifier.isThrottled(apiException(400, "Throttling.AllocationQuota"))).isTrue();
+    }
+
+    @Test
+    void findsThrottlingInCauseChain() {
+        Throwable error = new CompletionException(new DashscopeSDKException("failed", apiException(429, null)));
+
+        assertThat(DashscopeErrorClassifier.isThrottled(error)).isTrue();
+    }
+
+    @Test
+    void classifiesServerErrorsAndTimeoutsAsTransient() {
+        assertThat(DashscopeErrorClassifier.classify(apiException(503, "ServiceUnavailable")))
+                .isEqualTo(DashscopeErrorClassifier.ErrorClass.TRANSIENT);
+        assertThat(DashscopeErrorClassifier.classify(apiException(400, "RequestTimeOut")))
+                .isEqualTo(DashscopeErrorClassifier.ErrorClass.TRANSIENT);
+        assertThat(DashscopeErrorClassifier.classify(new SocketTimeoutException("read timed out")))
+                .isEqualTo(DashscopeErrorClassifier.ErrorClass.TRANSIENT);
+    }
+
+    @Test
+    void classifiesMissingStatusAsTransient() {
+        ApiException error = mock(ApiException.class);
+
+        assertThat(DashscopeErrorClassifier.classify(error)).isEqualTo(DashscopeErrorClassifier.ErrorClass.TRANSIENT);
+    }
+
+    @Test
+    void classifiesClientErrorsAsNonRetryable() {
+        assertThat(DashscopeErrorClassifier.classify(apiException(400, "InvalidParameter")))
+                .isEqualTo(DashscopeErrorClassifier.ErrorClass.NON_RETRYABLE);
+        assertThat(DashscopeErrorClassifier.classify(new NoApiKeyException()))
+                .isEqualTo(DashscopeErrorClassifier.ErrorClass.NON_RETRYABLE);
+        assertThat(DashscopeErrorClassifier.classify(new IllegalStateException("boom")))
+                .isEqualTo(DashscopeErrorClassifier.ErrorClass.NON_RETRYABLE);
+    }
+
+    @Test
+    void doesNotRetryClientSideRejections() {
+        Throwable error = new DashscopeRateLimitException("rate limited");
+
+        assertThat(DashscopeErrorClassifier.isRetryable(error)).isFalse();
+        assertThat(DashscopeErrorClassifier.isThrottled(error)).isFalse();
+    }
+
+    @Test
+    void describesStatus() {
+        assertThat(DashscopeErrorClassifier.describe(apiException(429, "Throttling")))
+                .contains("req-1", "429", "[Throttling]");
+    }
+
+    static ApiException apiException(int statusCode, String code) {
+        Status status = mock(Status.class);
+        when(status.getStatusCode()).thenReturn(statusCode);
+        when(status.getCode()).thenReturn(code);
+        when(status.getRequestId()).thenReturn("req-1");
+        ApiException error = mock(ApiException.class);
+        when(error.getStatus()).thenReturn(status);
+        return error;
+    }
+
+}
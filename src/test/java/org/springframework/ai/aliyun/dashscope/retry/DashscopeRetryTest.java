@@ -0,0 +1,115 @@
+package org.springframework.ai.aliyun.dashscope.retry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.support.RetryTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.ai.aliyun.dashscope.retry.DashscopeErrorClassifierTest.apiException;
+
+class DashscopeRetryTest {
+
+    private final DashscopeRetry retry = new DashscopeRetry(RetryOptions.builder()
+            .withMaxAttempts(3)
+            .withInitialBackoff(Duration.ofMillis(1))
+            .withMaxBackoff(Duration.ofMillis(5))
+            .withThrottledBackoff(Duration.ofMillis(50))
+            .withBudget(Duration.ofSeconds(10))
+            .build());
+
+    @Test
+    void isDisabledByDefault() {
+        assertThat(RetryOptions.builder().build().isEnabled()).isFalse();
+    }
+
+    @Test
+    void retriesTransientErrorsUpToMaxAttempts() {
+        RetryTemplate retryTemplate = retry.retryTemplate();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> retryTemplate.execute(context -> {
+            calls.incrementAndGet();
+            throw apiException(503, "ServiceUnavailable");
+        })).isInstanceOf(Exception.class);
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void doesNotRetryNonRetryableErrors() {
+        RetryTemplate retryTemplate = retry.retryTemplate();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> retryTemplate.execute(context -> {
+            calls.incrementAndGet();
+            throw apiException(400, "InvalidParameter");
+        })).isInstanceOf(Exception.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void waitsAtLeastThrottledBackoffAfterThrottling() {
+        RetryTemplate retryTemplate = retry.retryTemplate();
+        AtomicInteger calls = new AtomicInteger();
+        long start = System.nanoTime();
+
+        String result = retryTemplate.execute(context -> {
+            if (calls.incrementAndGet() == 1) {
+                throw apiException(429, "Throttling");
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+    }
+
+    @Test
+    void stopsOnceBudgetIsExhausted() {
+        DashscopeRetry tightBudget = new DashscopeRetry(RetryOptions.builder()
+                .withMaxAttempts(10)
+                .withThrottledBackoff(Duration.ofSeconds(1))
+                .withBudget(Duration.ofMillis(100))
+                .build());
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> tightBudget.retryTemplate().execute(context -> {
+            calls.incrementAndGet();
+            throw apiException(429, "Throttling");
+        })).isInstanceOf(Exception.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void reactorRetryResubscribesWhileFilterAllows() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        AtomicInteger retries = new AtomicInteger();
+
+        String result = Mono.defer(() -> subscriptions.incrementAndGet() < 3
+                        ? Mono.<String>error(apiException(503, "ServiceUnavailable"))
+                        : Mono.just("ok"))
+                .retryWhen(retry.reactorRetry(error -> true, error -> retries.incrementAndGet()))
+                .block();
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(retries).hasValue(2);
+    }
+
+    @Test
+    void reactorRetryStopsWhenFilterRejects() {
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        assertThatThrownBy(() -> Mono.defer(() -> {
+                    subscriptions.incrementAndGet();
+                    return Mono.<String>error(apiException(503, "ServiceUnavailable"));
+                })
+                .retryWhen(retry.reactorRetry(error -> false, error -> {
+                }))
+                .block()).isInstanceOf(Exception.class);
+        assertThat(subscriptions).hasValue(1);
+    }
+
+}
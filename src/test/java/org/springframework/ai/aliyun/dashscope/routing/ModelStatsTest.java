@@ -0,0 +1,55 @@
+package org.springframework.ai.aliyun.dashscope.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelStatsTest {
+
+    @Test
+    void reportsNothingWithoutSamples() {
+        ModelStats stats = new ModelStats(10);
+
+        assertThat(stats.samples()).isZero();
+        assertThat(stats.p95()).isEqualTo(Duration.ZERO);
+        assertThat(stats.errorRate()).isZero();
+    }
+
+    @Test
+    void computesP95OverUnorderedSamples() {
+        ModelStats stats = new ModelStats(20);
+        for (int millis : new int[]{50, 10, 200, 30, 20, 40, 60, 80, 70, 90, 100, 110, 120, 130, 140, 150, 160, 170, 180, 190}) {
+            stats.record(Duration.ofMillis(millis), true);
+        }
+
+        assertThat(stats.samples()).isEqualTo(20);
+        assertThat(stats.p95()).isEqualTo(Duration.ofMillis(190));
+    }
+
+    @Test
+    void forgetsSamplesLeavingTheWindow() {
+        ModelStats stats = new ModelStats(3);
+        stats.record(Duration.ofSeconds(10), false);
+        stats.record(Duration.ofMillis(10), true);
+        stats.record(Duration.ofMillis(30), true);
+        stats.record(Duration.ofMillis(20), true);
+
+        assertThat(stats.samples()).isEqualTo(3);
+        assertThat(stats.p95()).isEqualTo(Duration.ofMillis(30));
+        assertThat(stats.errorRate()).isZero();
+    }
+
+    @Test
+    void keepsDuplicateLatencies() {
+        ModelStats stats = new ModelStats(2);
+        stats.record(Duration.ofMillis(10), false);
+        stats.record(Duration.ofMillis(10), true);
+        stats.record(Duration.ofMillis(5), true);
+
+        assertThat(stats.p95()).isEqualTo(Duration.ofMillis(10));
+        assertThat(stats.errorRate()).isZero();
+    }
+
+}
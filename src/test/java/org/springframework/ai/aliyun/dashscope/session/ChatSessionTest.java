@@ -0,0 +1,89 @@
+package org.springframework.ai.aliyun.dashscope.session;
+
+import com.alibaba.dashscope.aigc.generation.Generation;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.aliyun.dashscope.AliyunAiDashscopeChatClient;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.FunctionMessage;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ChatSessionTest {
+
+    private final Generation generation = mock(Generation.class);
+
+    private final AliyunAiDashscopeChatClient client = new AliyunAiDashscopeChatClient(generation);
+
+    @Test
+    void addAllSkipsMessagesDashscopeDoesNotTake() {
+        ChatSession session = new ChatSession().addAll(List.of(new SystemMessage("be brief"), new FunctionMessage("{}"),
+                new UserMessage("hi")));
+
+        assertThat(session.size()).isEqualTo(2);
+        assertThat(session.conversation(null)).hasSize(2);
+    }
+
+    @Test
+    void recordsMessageAndAnswerOfCompletedTurn() {
+        ChatSession session = new ChatSession();
+        ChatResponse answer = new ChatResponse(List.of(new org.springframework.ai.chat.Generation("hello")));
+
+        session.complete(com.alibaba.dashscope.common.Message.builder().role("user").content("hi").build(), answer);
+
+        assertThat(session.getMessages()).extracting(com.alibaba.dashscope.common.Message::getContent)
+                .containsExactly("hi", "hello");
+    }
+
+    @Test
+    void rejectsOverlappingTurns() {
+        ChatSession session = new ChatSession();
+        session.startTurn();
+
+        assertThatThrownBy(session::startTurn).isInstanceOf(IllegalStateException.class);
+
+        session.endTurn();
+        assertThatCode(session::startTurn).doesNotThrowAnyException();
+    }
+
+    @Test
+    void callFailsFastWhileTurnInFlight() {
+        ChatSession session = new ChatSession();
+        session.startTurn();
+
+        assertThatThrownBy(() -> client.call(session, new UserMessage("hi"))).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> client.stream(session, new UserMessage("hi")).blockLast())
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(generation);
+    }
+
+    @Test
+    void rejectedStreamDoesNotEndTurnInFlight() {
+        ChatSession session = new ChatSession();
+        session.startTurn();
+
+        assertThatThrownBy(() -> client.stream(session, new UserMessage("hi")).blockLast())
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(session::startTurn).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsNonConversationMessage() {
+        ChatSession session = new ChatSession().add(new AssistantMessage("earlier answer"));
+
+        assertThatThrownBy(() -> client.call(session, new FunctionMessage("{}"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> client.stream(session, new FunctionMessage("{}"))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(session.size()).isEqualTo(1);
+        assertThatCode(session::startTurn).doesNotThrowAnyException();
+        verifyNoInteractions(generation);
+    }
+
+}
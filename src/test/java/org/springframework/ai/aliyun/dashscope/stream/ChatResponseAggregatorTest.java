@@ -0,0 +1,57 @@
+package org.springframework.ai.aliyun.dashscope.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.Generation;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatResponseAggregatorTest {
+
+    @Test
+    void concatenatesDeltasAndKeepsLastFinishReason() {
+        ChatResponse response = ChatResponseAggregator.aggregate(Flux.just(delta("Hel", null), delta("lo", null), delta("!", "stop")))
+                .block();
+
+        assertThat(response.getResults()).hasSize(1);
+        assertThat(response.getResult().getOutput().getContent()).isEqualTo("Hello!");
+        assertThat(response.getResult().getMetadata().getFinishReason()).isEqualTo("stop");
+    }
+
+    @Test
+    void passesDeltasThroughAndReportsAggregateOnComplete() {
+        List<ChatResponse> aggregated = new ArrayList<>();
+
+        List<ChatResponse> deltas = ChatResponseAggregator.aggregate(Flux.just(delta("a", null), delta("b", "stop")), aggregated::add)
+                .collectList().block();
+
+        assertThat(deltas).hasSize(2);
+        assertThat(aggregated).singleElement()
+                .satisfies(response -> assertThat(response.getResult().getOutput().getContent()).isEqualTo("ab"));
+    }
+
+    @Test
+    void doesNotReportAggregateOnError() {
+        List<ChatResponse> aggregated = new ArrayList<>();
+
+        ChatResponseAggregator.aggregate(Flux.concat(Flux.just(delta("a", null)), Flux.error(new IllegalStateException())), aggregated::add)
+                .onErrorResume(error -> Flux.empty()).blockLast();
+
+        assertThat(aggregated).isEmpty();
+    }
+
+    private static ChatResponse delta(String content, String finishReason) {
+        Generation generation = new Generation(content, Map.of());
+        if (finishReason != null) {
+            generation = generation.withGenerationMetadata(ChatGenerationMetadata.from(finishReason, null));
+        }
+        return new ChatResponse(List.of(generation));
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.springframework.ai.aliyun.dashscope.stream;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.Generation;
+
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class Slf4jStreamTracerTest {
+
+    private static final String MODEL = "qwen-turbo";
+
+    private final Logger log = mock(Logger.class);
+
+    @Test
+    void tracesNothingAtZeroSampleRate() {
+        when(log.isInfoEnabled()).thenReturn(true);
+
+        assertThat(tracer(0, () -> 0).start(MODEL, false)).isNull();
+    }
+
+    @Test
+    void tracesStreamsSampledBelowRate() {
+        when(log.isInfoEnabled()).thenReturn(true);
+
+        assertThat(tracer(0.5, () -> 0.2).start(MODEL, false)).isNotNull();
+        assertThat(tracer(0.5, () -> 0.7).start(MODEL, false)).isNull();
+        assertThat(tracer(1, () -> 0.99).start(MODEL, false)).isNotNull();
+    }
+
+    @Test
+    void tracesNothingWhenInfoIsDisabled() {
+        assertThat(tracer(1, () -> 0).start(MODEL, true)).isNull();
+    }
+
+    @Test
+    void logsSummaryOnComplete() {
+        when(log.isInfoEnabled()).thenReturn(true);
+        StreamTracer.Trace trace = tracer(1, () -> 0).start(MODEL, false);
+
+        trace.onChunk(chunk("Hel"));
+        trace.onChunk(chunk("lo"));
+        trace.onComplete();
+
+        verify(log).info(anyString(), eq(MODEL), isNull(), eq("complete"), eq(2), eq(5L), any(), any());
+        verify(log, never()).debug(anyString(), any(), any());
+    }
+
+    @Test
+    void tracesPayloadOfStreamsThatAskForIt() {
+        when(log.isInfoEnabled()).thenReturn(true);
+        when(log.isDebugEnabled()).thenReturn(true);
+        // Payload tracing is requested per stream, so sampling does not apply to it.
+        StreamTracer.Trace trace = tracer(0, () -> 0.99).start(MODEL, true);
+
+        trace.onChunk(chunk("Hel"));
+        trace.onCancel();
+
+        verify(log).debug(startsWith("DashScope stream chunk"), isNull(), eq("Hel"));
+        verify(log).info(anyString(), eq(MODEL), isNull(), eq("cancel"), eq(1), eq(3L), any(), any());
+    }
+
+    @Test
+    void skipsPayloadWhenDebugIsDisabled() {
+        when(log.isInfoEnabled()).thenReturn(true);
+        StreamTracer.Trace trace = tracer(0, () -> 0).start(MODEL, true);
+
+        trace.onChunk(chunk("Hel"));
+
+        verify(log, never()).debug(anyString(), any(), any());
+    }
+
+    private Slf4jStreamTracer tracer(double sampleRate, DoubleSupplier random) {
+        return new Slf4jStreamTracer(StreamTraceOptions.builder().withSampleRate(sampleRate).build(), log, random);
+    }
+
+    private static ChatResponse chunk(String content) {
+        return new ChatResponse(List.of(new Generation(content)));
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.springframework.ai.aliyun.dashscope.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QwenTokenEstimatorTest {
+
+    private final QwenTokenEstimator estimator = new QwenTokenEstimator();
+
+    @Test
+    void countsNothingForEmptyText() {
+        assertThat(estimator.count(null)).isZero();
+        assertThat(estimator.count("")).isZero();
+    }
+
+    @Test
+    void estimatesFromScript() {
+        // "hello" and " world" are one piece each, of up to six letters.
+        assertThat(estimator.count("hello world")).isEqualTo(2);
+        // Three Han characters round up to two tokens.
+        assertThat(estimator.count("你好吗")).isEqualTo(2);
+        // Every digit is a piece of its own.
+        assertThat(estimator.count("2024")).isEqualTo(4);
+    }
+
+    @Test
+    void servesRepeatedPiecesFromCache() {
+        assertThat(estimator.count("token token token")).isEqualTo(estimator.count("token") + 2 * estimator.count(" token"));
+    }
+
+    @Test
+    void countsExactlyWithVocabulary() throws IOException {
+        String vocabulary = String.join("\n", rank("h", 0), rank("e", 1), rank("l", 2), rank("o", 3),
+                rank("he", 4), rank("ll", 5), rank("llo", 6));
+        QwenTokenEstimator exact = QwenTokenEstimator.fromVocabulary(
+                new ByteArrayInputStream(vocabulary.getBytes(StandardCharsets.US_ASCII)), 16);
+
+        assertThat(exact.isExact()).isTrue();
+        assertThat(exact.count("hello")).isEqualTo(2);
+        assertThat(exact.count("llo")).isEqualTo(1);
+    }
+
+    @Test
+    void defaultEstimatorIsQwen() {
+        assertThat(TokenEstimator.DEFAULT.estimate("qwen-plus", "hello world")).isEqualTo(estimator.count("hello world"));
+    }
+
+    private static String rank(String token, int rank) {
+        return Base64.getEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8)) + " " + rank;
+    }
+
+}
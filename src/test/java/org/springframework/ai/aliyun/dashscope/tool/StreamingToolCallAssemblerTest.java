@@ -0,0 +1,66 @@
+package org.springframework.ai.aliyun.dashscope.tool;
+
+import com.alibaba.dashscope.tools.ToolCallBase;
+import com.alibaba.dashscope.tools.ToolCallFunction;
+import com.alibaba.dashscope.utils.JsonUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingToolCallAssemblerTest {
+
+    @Test
+    void concatenatesArgumentDeltas() {
+        List<ToolCallFunction> completed = new ArrayList<>();
+        StreamingToolCallAssembler assembler = new StreamingToolCallAssembler(completed::add);
+
+        assembler.append(List.of(delta("call-1", "weather", "{\"city\":")));
+        assembler.append(List.of(delta(null, null, "\"Hangzhou\"}")));
+
+        assertThat(completed).isEmpty();
+        List<ToolCallFunction> toolCalls = assembler.finish();
+        assertThat(toolCalls).singleElement().satisfies(toolCall -> {
+            assertThat(toolCall.getFunction().getName()).isEqualTo("weather");
+            assertThat(toolCall.getFunction().getArguments()).isEqualTo("{\"city\":\"Hangzhou\"}");
+        });
+        assertThat(completed).containsExactlyElementsOf(toolCalls);
+    }
+
+    @Test
+    void completesCallWhenNextOneStarts() {
+        List<ToolCallFunction> completed = new ArrayList<>();
+        StreamingToolCallAssembler assembler = new StreamingToolCallAssembler(completed::add);
+
+        assembler.append(List.of(delta("call-1", "weather", "{}")));
+        assembler.append(List.of(delta("call-2", "time", "{}")));
+
+        assertThat(completed).extracting(ToolCallFunction::getId).containsExactly("call-1");
+        assertThat(assembler.finish()).extracting(ToolCallFunction::getId).containsExactly("call-1", "call-2");
+    }
+
+    @Test
+    void hasNoToolCallsWithoutDeltas() {
+        StreamingToolCallAssembler assembler = new StreamingToolCallAssembler(toolCall -> {
+        });
+
+        assertThat(assembler.hasToolCalls()).isFalse();
+        assertThat(assembler.finish()).isEmpty();
+    }
+
+    private static ToolCallBase delta(String id, String name, String arguments) {
+        Map<String, Object> function = new HashMap<>();
+        function.put("name", name);
+        function.put("arguments", arguments);
+        Map<String, Object> toolCall = new HashMap<>();
+        toolCall.put("id", id);
+        toolCall.put("type", "function");
+        toolCall.put("function", function);
+        return JsonUtils.fromJson(JsonUtils.toJson(toolCall), ToolCallFunction.class);
+    }
+
+}
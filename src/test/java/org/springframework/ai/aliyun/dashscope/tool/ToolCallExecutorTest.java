@@ -0,0 +1,106 @@
+package org.springframework.ai.aliyun.dashscope.tool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.aliyun.dashscope.exception.DashscopeSDKException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ToolCallExecutorTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void runsSequentiallyByDefault() {
+        ToolCallExecutor toolCallExecutor = new ToolCallExecutor(ToolExecutionOptions.builder().build(), this.executor);
+        Thread caller = Thread.currentThread();
+
+        List<String> responses = toolCallExecutor.execute(List.of(
+                toolCall("a", arguments -> Thread.currentThread() == caller ? "A" : "?"),
+                toolCall("b", arguments -> "B")));
+
+        assertThat(responses).containsExactly("A", "B");
+    }
+
+    @Test
+    void returnsConcurrentResponsesInCallOrder() {
+        ToolCallExecutor toolCallExecutor = new ToolCallExecutor(ToolExecutionOptions.builder().withParallel(true).build(), this.executor);
+
+        List<String> responses = toolCallExecutor.execute(List.of(
+                toolCall("slow", arguments -> {
+                    sleep(100);
+                    return "slow";
+                }),
+                toolCall("fast", arguments -> "fast")));
+
+        assertThat(responses).containsExactly("slow", "fast");
+    }
+
+    @Test
+    void interruptsTimedOutCallAndReleasesItsPermit() throws InterruptedException {
+        ToolCallExecutor toolCallExecutor = new ToolCallExecutor(ToolExecutionOptions.builder()
+                .withParallel(true).withParallelism(1).withTimeout(Duration.ofMillis(100)).build(), this.executor);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CountDownLatch nextStarted = new CountDownLatch(1);
+        ToolCallExecutor.Round round = toolCallExecutor.newRound();
+
+        round.submit(toolCall("hanging", arguments -> {
+            try {
+                Thread.sleep(60_000);
+            }
+            catch (InterruptedException ex) {
+                interrupted.countDown();
+            }
+            return "late";
+        }));
+        round.submit(toolCall("next", arguments -> {
+            nextStarted.countDown();
+            return "next";
+        }));
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(nextStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(round::await).isInstanceOf(DashscopeSDKException.class).hasMessageContaining("timed out");
+    }
+
+    @Test
+    void propagatesToolFailure() {
+        ToolCallExecutor toolCallExecutor = new ToolCallExecutor(ToolExecutionOptions.builder().withParallel(true).build(), this.executor);
+
+        assertThatThrownBy(() -> toolCallExecutor.execute(List.of(
+                toolCall("ok", arguments -> "ok"),
+                toolCall("broken", arguments -> {
+                    throw new IllegalArgumentException("bad arguments");
+                }))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad arguments");
+    }
+
+    private static ToolCallExecutor.ToolCall toolCall(String name, Function<String, String> function) {
+        return new ToolCallExecutor.ToolCall(name + "-id", name, "{}", function);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
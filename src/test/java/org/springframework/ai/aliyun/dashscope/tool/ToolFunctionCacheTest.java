@@ -0,0 +1,50 @@
+package org.springframework.ai.aliyun.dashscope.tool;
+
+import com.alibaba.dashscope.tools.ToolFunction;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.model.function.FunctionCallback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ToolFunctionCacheTest {
+
+    private final ToolFunctionCache cache = new ToolFunctionCache();
+
+    @Test
+    void reusesDefinitionOfSameCallback() {
+        FunctionCallback callback = callback("weather", "Current weather");
+
+        assertThat(this.cache.get(callback)).isSameAs(this.cache.get(callback));
+    }
+
+    @Test
+    void rebuildsDefinitionForReplacedCallback() {
+        ToolFunction first = this.cache.get(callback("weather", "Current weather"));
+
+        ToolFunction second = this.cache.get(callback("weather", "Weather forecast"));
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getFunction().getDescription()).isEqualTo("Weather forecast");
+    }
+
+    @Test
+    void rebuildsDefinitionAfterEviction() {
+        FunctionCallback callback = callback("weather", "Current weather");
+        ToolFunction first = this.cache.get(callback);
+
+        this.cache.evict("weather");
+
+        assertThat(this.cache.get(callback)).isNotSameAs(first);
+    }
+
+    private static FunctionCallback callback(String name, String description) {
+        FunctionCallback callback = mock(FunctionCallback.class);
+        when(callback.getName()).thenReturn(name);
+        when(callback.getDescription()).thenReturn(description);
+        when(callback.getInputTypeSchema()).thenReturn("{\"type\":\"object\",\"properties\":{}}");
+        return callback;
+    }
+
+}
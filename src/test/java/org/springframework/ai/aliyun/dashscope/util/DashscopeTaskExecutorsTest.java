@@ -0,0 +1,35 @@
+package org.springframework.ai.aliyun.dashscope.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DashscopeTaskExecutorsTest {
+
+    @Test
+    void reusesExecutorPerPrefix() {
+        DashscopeTaskExecutors executors = new DashscopeTaskExecutors();
+        try {
+            assertThat(executors.get(DashscopeTaskExecutors.TOOLS)).isSameAs(executors.get(DashscopeTaskExecutors.TOOLS));
+            assertThat(executors.get(DashscopeTaskExecutors.TOOLS)).isNotSameAs(executors.get(DashscopeTaskExecutors.EMBEDDING));
+        }
+        finally {
+            executors.close();
+        }
+    }
+
+    @Test
+    void shutsDownExecutorsOnClose() {
+        DashscopeTaskExecutors executors = new DashscopeTaskExecutors();
+        ExecutorService tools = executors.get(DashscopeTaskExecutors.TOOLS);
+
+        executors.close();
+
+        assertThat(tools.isShutdown()).isTrue();
+        assertThatThrownBy(() -> executors.get(DashscopeTaskExecutors.TOOLS)).isInstanceOf(IllegalStateException.class);
+    }
+
+}